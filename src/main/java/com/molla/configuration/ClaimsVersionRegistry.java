@@ -0,0 +1,81 @@
+package com.molla.configuration;
+
+import com.molla.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current claims version per user. Tokens carry the version they were issued with;
+ * bumping a user's version (branch or role change) makes every older token stale.
+ * Versions are read from the database at most once per refresh interval per user, so
+ * changes made on another instance are picked up within that interval. At most
+ * {@link #MAX_ENTRIES} users are remembered at a time.
+ * <p>
+ * The check runs before the request's store is bound, so the user's shard is resolved
+ * from the store in their token. User ids are only unique within a shard, so entries are
+ * kept per shard too.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClaimsVersionRegistry {
+
+    private static final long REFRESH_MILLIS = 60_000;
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final UserRepository userRepository;
+    private final StoreShardRouter router;
+
+    private final ConcurrentHashMap<ShardUser, KnownVersion> versions = new ConcurrentHashMap<>();
+
+    public boolean isCurrent(Long storeId, Long userId, int tokenVersion) {
+        String shard = router.shardFor(storeId);
+        ShardUser key = new ShardUser(shard, userId);
+        long now = System.currentTimeMillis();
+        KnownVersion known = versions.get(key);
+        if (known == null || now - known.loadedAtMillis() > REFRESH_MILLIS) {
+            Integer version = findClaimsVersion(shard, userId);
+            if (version == null) {
+                versions.remove(key);
+                return false; // user no longer exists
+            }
+            known = new KnownVersion(version, now);
+            remember(key, known);
+        }
+        return tokenVersion >= known.version();
+    }
+
+    // Called where the user was just saved, so the shard is the one the current thread writes to
+    public void update(Long userId, int version) {
+        remember(new ShardUser(router.currentShard(), userId), new KnownVersion(version, System.currentTimeMillis()));
+    }
+
+    private Integer findClaimsVersion(String shard, Long userId) {
+        try {
+            return TenantContext.callInShard(shard, () -> userRepository.findClaimsVersionById(userId).orElse(null));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void remember(ShardUser key, KnownVersion known) {
+        // Evict an arbitrary entry once full; an evicted user's version is just read again
+        if (versions.size() >= MAX_ENTRIES && !versions.containsKey(key)) {
+            Iterator<ShardUser> it = versions.keySet().iterator();
+            if (it.hasNext()) {
+                versions.remove(it.next());
+            }
+        }
+        versions.put(key, known);
+    }
+
+    private record ShardUser(String shard, Long userId) {
+    }
+
+    private record KnownVersion(int version, long loadedAtMillis) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.molla.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hikari settings applied to every pool the app opens (primary, replica and shards).
+ * Defaults are sized for one Fly machine: its 25-connection hard limit allows about
+ * ten busy requests to the database at once, and a short connection timeout makes an
+ * exhausted pool fail loudly instead of stalling checkout for 30 seconds.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "pos.datasource.pool")
+public class ConnectionPoolSettings {
+
+    private int maximumPoolSize = 10;
+    private int minimumIdle = 2;
+    private long connectionTimeoutMs = 5_000;
+    private long validationTimeoutMs = 2_000;
+    private long idleTimeoutMs = 300_000;
+    private long maxLifetimeMs = 1_800_000;
+    private long keepaliveTimeMs = 240_000;
+    // 0 disables leak detection
+    private long leakDetectionThresholdMs = 20_000;
+
+    // Acquire waits longer than this are logged as pool pressure
+    private long slowAcquireThresholdMs = 250;
+
+    // Statement caching and batch rewriting for MySQL Connector/J
+    private boolean mysqlOptimizations = true;
+    private int preparedStatementCacheSize = 250;
+    private int preparedStatementCacheSqlLimit = 2048;
+}
@@ -1,5 +1,7 @@
 package com.molla.configuration;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -7,9 +9,13 @@ import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 import javax.sql.DataSource;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Configuration
 public class DatabaseConfig {
@@ -34,6 +40,25 @@ public class DatabaseConfig {
     @Value("${MYSQLPASSWORD:}")
     private String mysqlPassword;
 
+    // Resolved from every property source, so system properties and test-supplied properties both apply
+    @Value("${spring.datasource.url:}")
+    private String springDatasourceUrl;
+
+    @Value("${spring.datasource.username:}")
+    private String springDatasourceUsername;
+
+    @Value("${spring.datasource.password:}")
+    private String springDatasourcePassword;
+
+    @Value("${pos.datasource.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${pos.datasource.replica.username:}")
+    private String replicaUsername;
+
+    @Value("${pos.datasource.replica.password:}")
+    private String replicaPassword;
+
     @Bean
     @Primary
     public DataSourceProperties dataSourceProperties() {
@@ -108,16 +133,13 @@ public class DatabaseConfig {
         }
         
         // Priority 4: Fall back to application.properties values
-        String appPropsUrl = System.getProperty("spring.datasource.url");
-        if (appPropsUrl != null && !appPropsUrl.isEmpty()) {
-            properties.setUrl(appPropsUrl);
-            String appPropsUser = System.getProperty("spring.datasource.username");
-            String appPropsPass = System.getProperty("spring.datasource.password");
-            if (appPropsUser != null && !appPropsUser.isEmpty()) {
-                properties.setUsername(appPropsUser);
+        if (springDatasourceUrl != null && !springDatasourceUrl.isEmpty() && !springDatasourceUrl.contains("mysql.railway.internal")) {
+            properties.setUrl(springDatasourceUrl);
+            if (springDatasourceUsername != null && !springDatasourceUsername.isEmpty()) {
+                properties.setUsername(springDatasourceUsername);
             }
-            if (appPropsPass != null && !appPropsPass.isEmpty()) {
-                properties.setPassword(appPropsPass);
+            if (springDatasourcePassword != null && !springDatasourcePassword.isEmpty()) {
+                properties.setPassword(springDatasourcePassword);
             }
             logger.info("Using values from application.properties");
             return properties;
@@ -142,11 +164,92 @@ public class DatabaseConfig {
         );
     }
 
+    @Bean
+    public StoreShardRouter storeShardRouter(ShardingProperties sharding) {
+        if (!sharding.isEnabled()) {
+            return StoreShardRouter.singleShard(sharding.getDefaultShard());
+        }
+        return new StoreShardRouter(sharding.getDefaultShard(), sharding.getStores(),
+                new ArrayList<>(sharding.getShards().keySet()));
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${pos.datasource.replica.sticky-seconds:5}") long stickySeconds) {
+        return new ReadYourWritesTracker(stickySeconds);
+    }
+
     @Bean
     @Primary
-    public DataSource dataSource(DataSourceProperties properties) {
+    public DataSource dataSource(DataSourceProperties properties, ShardingProperties sharding, StoreShardRouter router,
+                                 ReadYourWritesTracker readYourWritesTracker, ConnectionPoolSettings poolSettings,
+                                 PoolTelemetry poolTelemetry) {
         logger.info("Creating DataSource with URL: {}", 
                    properties.getUrl() != null ? properties.getUrl().replaceAll(":[^:@]+@", ":****@") : "null");
-        return properties.initializeDataSourceBuilder().build();
+        String driverClassName = properties.determineDriverClassName();
+        DataSource primary = pool("pos-primary", driverClassName, properties.getUrl(),
+                properties.getUsername(), properties.getPassword(), poolSettings, poolTelemetry);
+
+        boolean replicated = replicaUrl != null && !replicaUrl.isEmpty();
+        if (replicated) {
+            DataSource replica = pool("pos-replica", driverClassName, replicaUrl,
+                    replicaUsername.isEmpty() ? properties.getUsername() : replicaUsername,
+                    replicaPassword.isEmpty() ? properties.getPassword() : replicaPassword,
+                    poolSettings, poolTelemetry);
+            primary = new ReplicaRoutingDataSource(primary, replica, readYourWritesTracker);
+            logger.info("Read-only transactions routed to replica: {}", replicaUrl.replaceAll(":[^:@]+@", ":****@"));
+        }
+        if (!sharding.isEnabled()) {
+            return replicated ? new LazyConnectionDataSourceProxy(primary) : primary;
+        }
+
+        // Each shard gets its own pool so one busy store cannot drain connections for the rest
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        shards.put(router.getDefaultShard(), primary);
+        sharding.getShards().forEach((name, shard) -> {
+            if (!name.equals(router.getDefaultShard())) {
+                shards.put(name, pool("pos-shard-" + name, driverClassName, shard.getUrl(),
+                        shard.getUsername(), shard.getPassword(), poolSettings, poolTelemetry));
+            }
+        });
+        logger.info("Store sharding enabled across shards {}", shards.keySet());
+        StoreRoutingDataSource routing = new StoreRoutingDataSource(router, shards);
+        return replicated ? new LazyConnectionDataSourceProxy(routing) : routing;
+    }
+
+    private HikariDataSource pool(String name, String driverClassName, String url, String username, String password,
+                                  ConnectionPoolSettings settings, PoolTelemetry telemetry) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setDriverClassName(driverClassName);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(settings.getMaximumPoolSize());
+        config.setMinimumIdle(settings.getMinimumIdle());
+        config.setConnectionTimeout(settings.getConnectionTimeoutMs());
+        config.setValidationTimeout(settings.getValidationTimeoutMs());
+        config.setIdleTimeout(settings.getIdleTimeoutMs());
+        config.setMaxLifetime(settings.getMaxLifetimeMs());
+        config.setKeepaliveTime(settings.getKeepaliveTimeMs());
+        config.setLeakDetectionThreshold(settings.getLeakDetectionThresholdMs());
+        config.setMetricsTrackerFactory(telemetry);
+
+        if (settings.isMysqlOptimizations() && url != null && url.startsWith("jdbc:mysql:")) {
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", String.valueOf(settings.getPreparedStatementCacheSize()));
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", String.valueOf(settings.getPreparedStatementCacheSqlLimit()));
+            config.addDataSourceProperty("useServerPrepStmts", "true");
+            config.addDataSourceProperty("rewriteBatchedStatements", "true");
+            config.addDataSourceProperty("cacheResultSetMetadata", "true");
+            config.addDataSourceProperty("cacheServerConfiguration", "true");
+            config.addDataSourceProperty("useLocalSessionState", "true");
+            config.addDataSourceProperty("elideSetAutoCommits", "true");
+            config.addDataSourceProperty("maintainTimeStats", "false");
+        }
+        logger.info("Pool {}: max={}, minIdle={}, connectionTimeout={}ms, leakDetection={}ms", name,
+                settings.getMaximumPoolSize(), settings.getMinimumIdle(), settings.getConnectionTimeoutMs(),
+                settings.getLeakDetectionThresholdMs());
+        return new HikariDataSource(config);
     }
 }
@@ -0,0 +1,24 @@
+package com.molla.configuration;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+
+/**
+ * Signing key and parser shared by token issuing and validation. Both are immutable and
+ * thread-safe, so they are built once instead of per request.
+ */
+public final class JwtKeys {
+
+    public static final SecretKey SIGNING_KEY =
+            Keys.hmacShaKeyFor(JwtConstant.JWT_SECRET.getBytes());
+
+    public static final JwtParser PARSER = Jwts.parserBuilder()
+            .setSigningKey(SIGNING_KEY)
+            .build();
+
+    private JwtKeys() {
+    }
+}
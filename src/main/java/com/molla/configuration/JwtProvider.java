@@ -1,8 +1,10 @@
 package com.molla.configuration;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import com.molla.model.User;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
@@ -12,37 +14,95 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtProvider {
 
     // Secret key used to sign JWT (same key used in JwtValidator)
-    private static final SecretKey key =
-            Keys.hmacShaKeyFor(JwtConstant.JWT_SECRET.getBytes());
+    private static final SecretKey key = JwtKeys.SIGNING_KEY;
+
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+
+    // Access tokens are short-lived; clients renew them with the long-lived refresh token
+    @Value("${pos.auth.access-token-ttl-minutes:15}")
+    private long accessTokenTtlMinutes;
+
+    @Value("${pos.auth.refresh-token-ttl-days:7}")
+    private long refreshTokenTtlDays;
 
     /**
      * Generate JWT token after successful login
      */
-    public String generateToken(Authentication authentication) {
+    public String generateToken(Authentication authentication, User user) {
 
         // 1. Get logged-in user's roles
         Collection<? extends GrantedAuthority> authorities =
                 authentication.getAuthorities();
 
         String roles = populateAuthorities(authorities);
+        if (roles.isEmpty() && user.getRole() != null) {
+            roles = user.getRole().name();
+        }
 
         // 2. Build JWT token
         return Jwts.builder()
                 .setSubject(authentication.getName()) // email / username
                 .claim("role", roles)                  // user roles
+                // Tenant context, so requests do not need to look the user up again
+                .claim("uid", user.getId())
+                .claim("sid", user.getStore() != null ? user.getStore().getId() : null)
+                .claim("bid", user.getBranch() != null ? user.getBranch().getId() : null)
+                .claim("ver", user.getClaimsVersion() != null ? user.getClaimsVersion() : 0)
+                .claim("typ", ACCESS_TOKEN)
+                .setId(UUID.randomUUID().toString())   // lets this token be revoked
                 .setIssuedAt(new Date())               // token creation time
                 .setExpiration(
-                        new Date(System.currentTimeMillis() + 86400000) // 1 day
+                        new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(accessTokenTtlMinutes))
                 )
                 .signWith(key)                         // sign token
                 .compact();
     }
 
+    /**
+     * Generate the refresh token that is exchanged for new access tokens
+     */
+    public String generateRefreshToken(User user) {
+        return Jwts.builder()
+                .setSubject(user.getEmail())
+                .claim("uid", user.getId())
+                // The store picks the shard the user is looked up on when refreshing
+                .claim("sid", user.getStore() != null ? user.getStore().getId() : null)
+                .claim("typ", REFRESH_TOKEN)
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date())
+                .setExpiration(
+                        new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(refreshTokenTtlDays))
+                )
+                .signWith(key)
+                .compact();
+    }
+
+    /**
+     * Verify a token's signature and expiry and check it is of the expected type
+     */
+    public Claims parseToken(String token, String expectedType) {
+        if (token.startsWith("Bearer ")) {
+            token = token.substring(7);
+        }
+        Claims claims = JwtKeys.PARSER
+                .parseClaimsJws(token)
+                .getBody();
+        String type = claims.get("typ", String.class);
+        // Tokens issued before token types existed are access tokens
+        if (!expectedType.equals(type != null ? type : ACCESS_TOKEN)) {
+            throw new JwtException("Expected a " + expectedType + " token");
+        }
+        return claims;
+    }
+
     /**
      * Convert authorities into comma-separated string
      */
@@ -68,9 +128,7 @@ public class JwtProvider {
             token = token.substring(7);
         }
 
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
+        Claims claims = JwtKeys.PARSER
                 .parseClaimsJws(token)
                 .getBody();
 
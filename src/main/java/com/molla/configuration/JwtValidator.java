@@ -1,23 +1,54 @@
 package com.molla.configuration;
 
+import com.molla.service.TokenRevocationService;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
+import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class JwtValidator extends OncePerRequestFilter {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtValidator.class);
+
+    public static final int DEFAULT_CACHE_CAPACITY = 10_000;
+
+    // Tokens that already passed signature verification, keyed by their signature segment.
+    // A hit still compares the whole token and re-checks expiry before it is trusted.
+    private final ConcurrentHashMap<String, VerifiedToken> verified = new ConcurrentHashMap<>();
+    private final int cacheCapacity;
+    private final ClaimsVersionRegistry claimsVersions;
+    private final TokenRevocationService revocations;
+
+    public JwtValidator() {
+        this(null, null, DEFAULT_CACHE_CAPACITY);
+    }
+
+    public JwtValidator(ClaimsVersionRegistry claimsVersions, TokenRevocationService revocations) {
+        this(claimsVersions, revocations, DEFAULT_CACHE_CAPACITY);
+    }
+
+    // A capacity of 0 verifies every request from scratch; without a registry or a
+    // revocation service, claims versions or revocations are not checked
+    public JwtValidator(ClaimsVersionRegistry claimsVersions, TokenRevocationService revocations, int cacheCapacity) {
+        this.claimsVersions = claimsVersions;
+        this.revocations = revocations;
+        this.cacheCapacity = cacheCapacity;
+    }
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -42,47 +73,94 @@ public class JwtValidator extends OncePerRequestFilter {
             String token = authHeader.substring(7);
 
             try {
-                // 4. Create secret key using the same secret used while generating token
-                SecretKey key = Keys.hmacShaKeyFor(
-                        JwtConstant.JWT_SECRET.getBytes()
-                );
-
-                // 5. Parse and validate JWT token
-                Claims claims = Jwts.parserBuilder()
-                        .setSigningKey(key)
-                        .build()
-                        .parseClaimsJws(token)
-                        .getBody();
-
-                // 6. Extract user details from token
-                String email = claims.getSubject(); // usually email or username
-                String role = claims.get("role", String.class);
-
-                // 7. Convert role into Spring Security authority
-                // Role already includes "ROLE_" prefix from UserRole enum
-                String authorityString = role.startsWith("ROLE_") ? role : "ROLE_" + role;
-                SimpleGrantedAuthority authority =
-                        new SimpleGrantedAuthority(authorityString);
-
-                // 8. Create authentication object
-                UsernamePasswordAuthenticationToken authentication =
+                // 4. Reuse an earlier verification of this exact token, or verify it now
+                VerifiedToken verifiedToken = verify(token);
+                PosPrincipal principal = verifiedToken.principal();
+
+                // 5. Reject tokens issued before the user's branch or role last changed, checked on
+                //    the shard of the token's store since the request's store is not bound yet
+                if (claimsVersions != null && principal.userId() != null
+                        && !claimsVersions.isCurrent(principal.storeId(), principal.userId(), principal.claimsVersion())) {
+                    throw new IllegalStateException("Token claims are out of date for user " + principal.userId());
+                }
+
+                // 6. Reject tokens that were revoked (logout, refresh rotation)
+                if (revocations != null && verifiedToken.jti() != null && revocations.isRevoked(verifiedToken.jti())) {
+                    throw new IllegalStateException("Token has been revoked");
+                }
+
+                // 7. Store authentication in Spring Security context
+                SecurityContextHolder.getContext().setAuthentication(
                         new UsernamePasswordAuthenticationToken(
-                                email,
+                                principal,
                                 null,
-                                List.of(authority)
-                        );
-
-                // 9. Store authentication in Spring Security context
-                SecurityContextHolder.getContext()
-                        .setAuthentication(authentication);
+                                verifiedToken.authorities()
+                        ));
 
             } catch (Exception e) {
                 // Invalid token → user remains unauthenticated
-                System.out.println("Invalid JWT Token: " + e.getMessage());
+                logger.debug("Invalid JWT token: {}", e.getMessage());
             }
         }
 
-        // 10. Continue filter chain (VERY IMPORTANT)
+        // 8. Continue filter chain (VERY IMPORTANT)
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private VerifiedToken verify(String token) {
+        int signatureStart = token.lastIndexOf('.') + 1;
+        String signature = token.substring(signatureStart);
+        long now = System.currentTimeMillis();
+
+        VerifiedToken cached = verified.get(signature);
+        if (cached != null) {
+            if (cached.token().equals(token) && cached.expiresAtMillis() > now) {
+                return cached;
+            }
+            verified.remove(signature, cached);
+        }
+
+        // Parse and validate JWT token with the shared parser
+        Claims claims = JwtKeys.PARSER.parseClaimsJws(token).getBody();
+        if (JwtProvider.REFRESH_TOKEN.equals(claims.get("typ", String.class))) {
+            throw new IllegalStateException("Refresh tokens cannot authenticate requests");
+        }
+
+        String email = claims.getSubject();
+        String role = claims.get("role", String.class);
+        // Role already includes "ROLE_" prefix from UserRole enum
+        String authorityString = role.startsWith("ROLE_") ? role : "ROLE_" + role;
+        Date expiration = claims.getExpiration();
+        Integer version = claims.get("ver", Integer.class);
+
+        PosPrincipal principal = new PosPrincipal(
+                claims.get("uid", Long.class),
+                email,
+                claims.get("sid", Long.class),
+                claims.get("bid", Long.class),
+                authorityString,
+                version != null ? version : 0);
+        VerifiedToken result = new VerifiedToken(token, claims.getId(), principal,
+                List.of(new SimpleGrantedAuthority(authorityString)),
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+        remember(signature, result);
+        return result;
+    }
+
+    private void remember(String signature, VerifiedToken token) {
+        if (cacheCapacity <= 0) {
+            return;
+        }
+        // Evict an arbitrary entry once full; an evicted token just gets verified again
+        if (verified.size() >= cacheCapacity) {
+            Iterator<String> it = verified.keySet().iterator();
+            if (it.hasNext()) {
+                verified.remove(it.next());
+            }
+        }
+        verified.put(signature, token);
+    }
+
+    private record VerifiedToken(String token, String jti, PosPrincipal principal, List<GrantedAuthority> authorities, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.molla.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Password hashing runs on its own small pool so a burst of logins can use at most
+ * a fixed share of the CPU. When the queue is full new logins are rejected at once
+ * instead of piling up behind the hashing work.
+ * Bulk onboarding hashes on a separate pool so a large import cannot starve logins.
+ */
+@Configuration
+public class LoginExecutorConfig {
+
+    @Bean(name = "loginExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor loginExecutor(
+            @Value("${pos.auth.login.threads:0}") int threads,
+            @Value("${pos.auth.login.queue-capacity:64}") int queueCapacity) {
+        // Default to half the cores, leaving the rest for checkout traffic
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("login-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "onboardingExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor onboardingExecutor(
+            @Value("${pos.employees.onboarding.threads:0}") int threads,
+            @Value("${pos.employees.onboarding.queue-capacity:256}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("onboarding-");
+        // An import should slow down when the pool is busy, not fail half way through
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
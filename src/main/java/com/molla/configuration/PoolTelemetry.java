@@ -0,0 +1,133 @@
+package com.molla.configuration;
+
+import com.molla.payload.dto.PoolStatsDto;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hikari metrics sink. Keeps, per pool, a fixed-bucket histogram of connection acquire
+ * times plus timeout counts, and reads active/idle/pending counts from the pool itself.
+ * Slow acquires are logged at most once per pool every few seconds.
+ */
+@Component
+public class PoolTelemetry implements MetricsTrackerFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(PoolTelemetry.class);
+
+    // Upper bounds in milliseconds; the last bucket catches everything slower
+    private static final long[] BUCKET_BOUNDS_MS = {1, 5, 10, 50, 100, 250, 500, 1_000, 5_000};
+    private static final long WARN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final long slowAcquireNanos;
+    private final ConcurrentMap<String, PoolMetrics> pools = new ConcurrentHashMap<>();
+
+    public PoolTelemetry(ConnectionPoolSettings settings) {
+        this.slowAcquireNanos = TimeUnit.MILLISECONDS.toNanos(settings.getSlowAcquireThresholdMs());
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        PoolMetrics metrics = new PoolMetrics(poolName, poolStats);
+        pools.put(poolName, metrics);
+        return metrics;
+    }
+
+    public List<PoolStatsDto> snapshot() {
+        return pools.values().stream().map(PoolMetrics::toDto).toList();
+    }
+
+    private final class PoolMetrics implements IMetricsTracker {
+
+        private final String poolName;
+        private final PoolStats poolStats;
+        private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MS.length + 1];
+        private final LongAdder acquires = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+        private final LongAdder slowAcquires = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final AtomicLong maxAcquireNanos = new AtomicLong();
+        private final AtomicLong lastWarning = new AtomicLong(System.nanoTime() - WARN_INTERVAL_NANOS);
+
+        PoolMetrics(String poolName, PoolStats poolStats) {
+            this.poolName = poolName;
+            this.poolStats = poolStats;
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquires.increment();
+            acquireNanos.add(elapsedAcquiredNanos);
+            maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            buckets[bucketFor(TimeUnit.NANOSECONDS.toMillis(elapsedAcquiredNanos))].increment();
+
+            if (elapsedAcquiredNanos > slowAcquireNanos) {
+                slowAcquires.increment();
+                warnThrottled("Slow connection acquire (" + TimeUnit.NANOSECONDS.toMillis(elapsedAcquiredNanos) + "ms)");
+            }
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+            warnThrottled("Connection acquire timed out");
+        }
+
+        private void warnThrottled(String reason) {
+            long last = lastWarning.get();
+            long now = System.nanoTime();
+            if (now - last >= WARN_INTERVAL_NANOS && lastWarning.compareAndSet(last, now)) {
+                logger.warn("{} on pool {} (active={}, idle={}, pending={}, max={})", reason, poolName, poolStats.getActiveConnections(), poolStats.getIdleConnections(),
+                        poolStats.getPendingThreads(), poolStats.getMaxConnections());
+            }
+        }
+
+        PoolStatsDto toDto() {
+            long count = acquires.sum();
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+                histogram.put("le_" + BUCKET_BOUNDS_MS[i] + "ms", buckets[i].sum());
+            }
+            histogram.put("gt_" + BUCKET_BOUNDS_MS[BUCKET_BOUNDS_MS.length - 1] + "ms", buckets[BUCKET_BOUNDS_MS.length].sum());
+
+            return PoolStatsDto.builder()
+                    .pool(poolName)
+                    .active(poolStats.getActiveConnections())
+                    .idle(poolStats.getIdleConnections())
+                    .total(poolStats.getTotalConnections())
+                    .pending(poolStats.getPendingThreads())
+                    .max(poolStats.getMaxConnections())
+                    .acquires(count)
+                    .meanAcquireMillis(count == 0 ? 0 : acquireNanos.sum() / 1_000_000.0 / count)
+                    .maxAcquireMillis(maxAcquireNanos.get() / 1_000_000.0)
+                    .slowAcquires(slowAcquires.sum())
+                    .timeouts(timeouts.sum())
+                    .acquireHistogram(histogram)
+                    .build();
+        }
+    }
+
+    private static int bucketFor(long millis) {
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            if (millis <= BUCKET_BOUNDS_MS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_BOUNDS_MS.length;
+    }
+}
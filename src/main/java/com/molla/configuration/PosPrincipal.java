@@ -0,0 +1,23 @@
+package com.molla.configuration;
+
+import java.security.Principal;
+
+/**
+ * Authenticated caller as described by their token's claims. Gives controllers the
+ * caller's user, store and branch without loading the User row. Ids are null for
+ * tokens issued before these claims existed.
+ */
+public record PosPrincipal(
+        Long userId,
+        String email,
+        Long storeId,
+        Long branchId,
+        String role,
+        int claimsVersion
+) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,27 @@
+package com.molla.configuration;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements one call to a controller method may issue. On a class
+ * it applies to every handler method without its own budget. What happens on overrun is
+ * set by {@code pos.sql-stats.budget-mode}: log a warning, fail the request, or nothing.
+ * Statements issued through Hibernate and through JdbcTemplate both count.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface QueryBudget {
+
+    int statements();
+
+    enum Mode {
+        OFF,
+        WARN,
+        FAIL
+    }
+}
@@ -0,0 +1,69 @@
+package com.molla.configuration;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers who wrote recently so their reads stay on the primary until the replica has
+ * caught up. A signed-in user is pinned for the sticky window across requests; any caller
+ * is pinned for the rest of the request in which they wrote.
+ */
+public class ReadYourWritesTracker {
+
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final long stickyNanos;
+    private final ConcurrentMap<Long, Long> primaryUntil = new ConcurrentHashMap<>();
+    private final ThreadLocal<Boolean> wroteInRequest = new ThreadLocal<>();
+
+    public ReadYourWritesTracker(long stickySeconds) {
+        this.stickyNanos = TimeUnit.SECONDS.toNanos(stickySeconds);
+    }
+
+    public void markWrite() {
+        wroteInRequest.set(Boolean.TRUE);
+        Long userId = currentUserId();
+        if (userId != null && stickyNanos > 0) {
+            primaryUntil.put(userId, System.nanoTime() + stickyNanos);
+            if (primaryUntil.size() > PRUNE_THRESHOLD) {
+                long now = System.nanoTime();
+                primaryUntil.values().removeIf(until -> until - now < 0);
+            }
+        }
+    }
+
+    public boolean prefersPrimary() {
+        if (Boolean.TRUE.equals(wroteInRequest.get())) {
+            return true;
+        }
+        Long userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        Long until = primaryUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() < 0) {
+            primaryUntil.remove(userId, until);
+            return false;
+        }
+        return true;
+    }
+
+    public void clearRequest() {
+        wroteInRequest.remove();
+    }
+
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof PosPrincipal principal) {
+            return principal.userId();
+        }
+        return null;
+    }
+}
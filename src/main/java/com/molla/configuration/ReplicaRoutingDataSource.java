@@ -0,0 +1,78 @@
+package com.molla.configuration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary. Must be
+ * wrapped in a LazyConnectionDataSourceProxy so the physical connection is only picked
+ * once the transaction's read-only flag is known. If the replica cannot hand out a
+ * connection, reads fall back to the primary and the replica is skipped for a while.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final long REPLICA_RETRY_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReadYourWritesTracker tracker;
+
+    private volatile boolean replicaDown;
+    private volatile long replicaDownSince;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker tracker) {
+        this.primary = primary;
+        this.replica = replica;
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                replicaUnavailable(e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection(username, password);
+            } catch (SQLException e) {
+                replicaUnavailable(e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    private boolean useReplica() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (!readOnly) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                tracker.markWrite();
+            }
+            return false;
+        }
+        return !tracker.prefersPrimary() && (!replicaDown || System.nanoTime() - replicaDownSince >= REPLICA_RETRY_NANOS);
+    }
+
+    private void replicaUnavailable(SQLException e) {
+        replicaDownSince = System.nanoTime();
+        replicaDown = true;
+        logger.warn("Replica unavailable, reading from primary for the next {}s: {}",
+                TimeUnit.NANOSECONDS.toSeconds(REPLICA_RETRY_NANOS), e.getMessage());
+    }
+}
@@ -0,0 +1,106 @@
+package com.molla.configuration;
+
+import com.molla.exceptions.QueryBudgetExceededException;
+
+/**
+ * SQL activity of one request, filled in by the Hibernate hooks on the request thread.
+ * Only ever touched by that thread, so plain fields are enough. Work the request hands to
+ * other threads is counted in a {@link #fork()} of its own and added back with {@link #absorb}.
+ */
+public class RequestSqlStats {
+
+    private final String endpoint;
+    private final SqlStatsRegistry registry;
+    // 0 when the endpoint has no budget
+    private final int budget;
+    private final boolean failOverBudget;
+
+    private int statements;
+    private long jdbcNanos;
+    private long entitiesLoaded;
+    private int slowStatements;
+
+    private String lastSql;
+    private long executeStartedAt;
+
+    RequestSqlStats(String endpoint, SqlStatsRegistry registry, int budget, boolean failOverBudget) {
+        this.endpoint = endpoint;
+        this.registry = registry;
+        this.budget = budget;
+        this.failOverBudget = failOverBudget;
+    }
+
+    void statementPrepared(String sql) {
+        statements++;
+        lastSql = sql;
+        // Fail on the first statement past the budget, before it reaches the database
+        if (failOverBudget && statements == budget + 1) {
+            throw new QueryBudgetExceededException(endpoint, budget);
+        }
+    }
+
+    void executeStarted() {
+        executeStartedAt = System.nanoTime();
+    }
+
+    void executeFinished() {
+        if (executeStartedAt == 0) {
+            return;
+        }
+        long elapsed = System.nanoTime() - executeStartedAt;
+        executeStartedAt = 0;
+        jdbcNanos += elapsed;
+        if (registry.isSlow(elapsed)) {
+            slowStatements++;
+            registry.recordSlowQuery(endpoint, lastSql, elapsed);
+        }
+    }
+
+    void entityLoaded() {
+        entitiesLoaded++;
+    }
+
+    // Counts for another thread working on this request's behalf; the budget is checked on absorb
+    RequestSqlStats fork() {
+        return new RequestSqlStats(endpoint, registry, 0, false);
+    }
+
+    // Called on the request thread once the forked work has finished
+    void absorb(RequestSqlStats forked) {
+        statements += forked.statements;
+        jdbcNanos += forked.jdbcNanos;
+        entitiesLoaded += forked.entitiesLoaded;
+        slowStatements += forked.slowStatements;
+        if (failOverBudget && isOverBudget()) {
+            throw new QueryBudgetExceededException(endpoint, budget);
+        }
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public long getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    public int getSlowStatements() {
+        return slowStatements;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    public boolean isOverBudget() {
+        return budget > 0 && statements > budget;
+    }
+}
@@ -1,10 +1,13 @@
 package com.molla.configuration;
 
+import com.molla.service.TokenRevocationService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -14,7 +17,11 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.DefaultCorsProcessor;
+import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.filter.CorsFilter;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -22,8 +29,14 @@ import java.util.stream.Collectors;
 @Configuration
 public class SecurityConfig {
 
+    private static final long CORS_MAX_AGE_SECONDS = 3600;
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   ClaimsVersionRegistry claimsVersionRegistry,
+                                                   TokenRevocationService tokenRevocationService,
+                                                   CorsConfigurationSource corsConfigurationSource,
+                                                   ReadYourWritesTracker readYourWritesTracker) throws Exception {
 
         return http
                 // 1. Stateless session (JWT based)
@@ -51,13 +64,15 @@ public class SecurityConfig {
                 .headers(headers -> headers.frameOptions().disable())
 
                 // 3. JWT filter
-                .addFilterBefore(new JwtValidator(), BasicAuthenticationFilter.class)
+                .addFilterBefore(new JwtValidator(claimsVersionRegistry, tokenRevocationService), BasicAuthenticationFilter.class)
+                // Route the request's queries to the caller's store shard
+                .addFilterAfter(new TenantContextFilter(readYourWritesTracker), JwtValidator.class)
 
                 // 4. Disable CSRF
                 .csrf(AbstractHttpConfigurer::disable)
 
-                // 5. Enable CORS
-                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                // 5. Enable CORS with the startup-built policy
+                .addFilter(corsFilter(corsConfigurationSource))
 
                 // 6. Build the filter chain
                 .build();
@@ -68,55 +83,76 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    // Compiled once at startup: origin patterns are parsed into matchers a single time and
+    // preflight answers may be cached by the browser for CORS_MAX_AGE_SECONDS
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
-        
-        return new CorsConfigurationSource() {
-            @Override
-            public CorsConfiguration getCorsConfiguration(HttpServletRequest request) {
 
-                CorsConfiguration config = new CorsConfiguration();
+        CorsConfiguration config = new CorsConfiguration();
+
+        // Allow frontend URLs (development and production)
+        String allowedOrigins = System.getenv("ALLOWED_ORIGINS");
+
+        List<String> origins;
+        if (allowedOrigins != null && !allowedOrigins.isEmpty()) {
+            // Production: Use environment variable (comma-separated)
+            // Trim whitespace and strip any accidental leading '=' from each origin
+            origins = Arrays.stream(allowedOrigins.split(","))
+                    .map(String::trim)
+                    .map(s -> s.startsWith("=") ? s.substring(1) : s)
+                    .filter(s -> !s.isEmpty())
+                    .collect(Collectors.toList());
+        } else {
+            // Development: Default localhost URLs
+            origins = List.of("http://localhost:3000", "http://localhost:5173");
+            logger.warn("ALLOWED_ORIGINS not set, using default localhost origins: {}", origins);
+        }
+
+        // Use origin *patterns* instead of exact origins so Spring will match dynamically.
+        // This is more robust across proxies and scheme/port nuances.
+        config.setAllowedOriginPatterns(origins);
+        logger.info("CORS Configuration - Allowed Origin Patterns: {}", origins);
+
+        // Allow HTTP methods
+        config.setAllowedMethods(List.of(
+                "GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"
+        ));
+
+        // Allow headers
+        config.setAllowedHeaders(List.of("*"));
+
+        // Allow JWT token
+        config.setAllowCredentials(true);
+
+        // Let browsers reuse a preflight answer instead of sending OPTIONS before every call
+        config.setMaxAge(CORS_MAX_AGE_SECONDS);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", config);
+        return source;
+    }
 
-                // Allow frontend URLs (development and production)
-                String allowedOrigins = System.getenv("ALLOWED_ORIGINS");
-                String origin = request.getHeader("Origin");
-                
-                List<String> origins;
-                if (allowedOrigins != null && !allowedOrigins.isEmpty()) {
-                    // Production: Use environment variable (comma-separated)
-                    // Trim whitespace and strip any accidental leading '=' from each origin
-                    origins = Arrays.stream(allowedOrigins.split(","))
-                            .map(String::trim)
-                            .map(s -> s.startsWith("=") ? s.substring(1) : s)
-                            .filter(s -> !s.isEmpty())
-                            .collect(Collectors.toList());
-                } else {
-                    // Development: Default localhost URLs
-                    origins = List.of("http://localhost:3000", "http://localhost:5173");
-                    logger.warn("ALLOWED_ORIGINS not set, using default localhost origins: {}", origins);
-                }
-
-                // Use origin *patterns* instead of exact origins so Spring will match dynamically.
-                // This is more robust across proxies and scheme/port nuances.
-                config.setAllowedOriginPatterns(origins);
-
-                logger.info("CORS Configuration - Allowed Origin Patterns: {}", origins);
-                logger.info("CORS Configuration - Request Origin: {}", origin);
-
-                // Allow HTTP methods
-                config.setAllowedMethods(List.of(
-                        "GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"
-                ));
-
-                // Allow headers
-                config.setAllowedHeaders(List.of("*"));
-
-                // Allow JWT token
-                config.setAllowCredentials(true);
-
-                return config;
+    private CorsFilter corsFilter(CorsConfigurationSource corsConfigurationSource) {
+        CorsFilter filter = new CorsFilter(corsConfigurationSource);
+        filter.setCorsProcessor(new RejectionLoggingCorsProcessor());
+        return filter;
+    }
+
+    // Allowed requests are processed silently; only rejected origins are worth a log line
+    private static class RejectionLoggingCorsProcessor extends DefaultCorsProcessor {
+
+        private static final Logger logger = LoggerFactory.getLogger(RejectionLoggingCorsProcessor.class);
+
+        @Override
+        public boolean processRequest(CorsConfiguration config, HttpServletRequest request, HttpServletResponse response)
+                throws IOException {
+            boolean allowed = super.processRequest(config, request, response);
+            if (!allowed) {
+                logger.warn("Rejected CORS request from origin {} to {} {}",
+                        request.getHeader(HttpHeaders.ORIGIN), request.getMethod(), request.getRequestURI());
             }
-        };
+            return allowed;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.molla.configuration;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Runs the same read on every shard, in parallel, and gathers the results. Each shard's
+ * work runs on its own thread in a fresh read-only transaction, so it gets its own
+ * persistence context and a connection from that shard rather than the caller's. Its
+ * statements are counted towards the calling request's SQL stats.
+ */
+@Component
+public class ShardFanOut {
+
+    private final StoreShardRouter router;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor;
+
+    public ShardFanOut(StoreShardRouter router, PlatformTransactionManager transactionManager) {
+        this.router = router;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = Executors.newFixedThreadPool(Math.max(1, router.getShardNames().size()), runnable -> {
+            Thread thread = new Thread(runnable, "shard-fan-out");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Results keyed by shard name, in shard order
+    public <T> Map<String, T> onEachShard(Supplier<T> work) {
+        RequestSqlStats requestStats = SqlStatsContext.current();
+        Map<String, CompletableFuture<T>> pending = new LinkedHashMap<>();
+        Map<String, RequestSqlStats> shardStats = new LinkedHashMap<>();
+        for (String shard : router.getShardNames()) {
+            RequestSqlStats stats = requestStats != null ? requestStats.fork() : null;
+            shardStats.put(shard, stats);
+            pending.put(shard, CompletableFuture.supplyAsync(() -> runInShard(shard, work, stats), executor));
+        }
+        Map<String, T> results = new LinkedHashMap<>();
+        pending.forEach((shard, future) -> {
+            results.put(shard, join(shard, future));
+            if (requestStats != null) {
+                requestStats.absorb(shardStats.get(shard));
+            }
+        });
+        return results;
+    }
+
+    public <T> List<T> collect(Supplier<List<T>> work) {
+        List<T> all = new ArrayList<>();
+        onEachShard(work).values().forEach(all::addAll);
+        return all;
+    }
+
+    public List<String> getShardNames() {
+        return router.getShardNames();
+    }
+
+    private <T> T runInShard(String shard, Supplier<T> work, RequestSqlStats stats) {
+        if (stats != null) {
+            SqlStatsContext.begin(stats);
+        }
+        try {
+            return TenantContext.callInShard(shard, () -> readOnlyTransaction.execute(status -> work.get()));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            if (stats != null) {
+                SqlStatsContext.end();
+            }
+        }
+    }
+
+    private <T> T join(String shard, CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Query failed on shard " + shard, e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,47 @@
+package com.molla.configuration;
+
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Boot migrates the primary datasource, which resolves to the default shard while no tenant is
+ * set. With sharding on, every other shard is migrated the same way before the application
+ * starts, so a shard can never serve requests on an older schema.
+ */
+@Configuration
+public class ShardMigrationConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardMigrationConfig.class);
+
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy(DataSource dataSource) {
+        return flyway -> migrateAllShards(flyway, dataSource);
+    }
+
+    static void migrateAllShards(Flyway flyway, DataSource dataSource) {
+        flyway.migrate();
+
+        DataSource target = dataSource instanceof LazyConnectionDataSourceProxy lazy ? lazy.getTargetDataSource() : dataSource;
+        if (!(target instanceof StoreRoutingDataSource routing)) {
+            return;
+        }
+        String defaultShard = routing.getRouter().getDefaultShard();
+        routing.getResolvedDataSources().forEach((shard, shardDataSource) -> {
+            if (!defaultShard.equals(shard)) {
+                logger.info("Migrating shard {}", shard);
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(shardDataSource)
+                        .load()
+                        .migrate();
+            }
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package com.molla.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Store-to-shard layout. The primary datasource is always the shard named
+ * {@link #defaultShard}; stores not listed under {@code stores} live there.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "pos.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    private String defaultShard = "default";
+
+    // Extra shards by name; the default shard comes from the primary datasource settings
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+
+    // Explicit store id -> shard name assignments
+    private Map<Long, String> stores = new LinkedHashMap<>();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,80 @@
+package com.molla.configuration;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Replaces statement logging with per-request SQL statistics. Hibernate reports
+ * statements, JDBC execution time and entity loads into the current request's
+ * {@link RequestSqlStats}, which the interceptor opens per controller method;
+ * JdbcTemplate statements are reported by {@link SqlStatsJdbcTemplate}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class SqlStatsConfig implements WebMvcConfigurer {
+
+    private final SqlStatsRegistry sqlStatsRegistry;
+
+    @Value("${pos.sql-stats.default-budget:0}")
+    private int defaultBudget;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlStatsInterceptor(sqlStatsRegistry, defaultBudget));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatsHibernateCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatsStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlStatsSessionListener.class.getName());
+            properties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(new EntityLoadIntegrator()));
+        };
+    }
+
+    // Replaces Boot's JdbcTemplate, which would otherwise bypass the statistics and budgets
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new SqlStatsJdbcTemplate(dataSource);
+    }
+
+    private static final class EntityLoadIntegrator implements Integrator {
+
+        private static final PostLoadEventListener COUNTING_LISTENER = event -> {
+            RequestSqlStats stats = SqlStatsContext.current();
+            if (stats != null) {
+                stats.entityLoaded();
+            }
+        };
+
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+            sessionFactory.getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, COUNTING_LISTENER);
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.molla.configuration;
+
+// Holds the current request's SQL stats for Hibernate hooks, which are not Spring beans
+public final class SqlStatsContext {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private SqlStatsContext() {
+    }
+
+    public static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    static void begin(RequestSqlStats stats) {
+        CURRENT.set(stats);
+    }
+
+    static RequestSqlStats end() {
+        RequestSqlStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+}
@@ -0,0 +1,40 @@
+package com.molla.configuration;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// Opens SQL stats for each controller call, tagged "Controller#method", and files them on completion
+@RequiredArgsConstructor
+public class SqlStatsInterceptor implements HandlerInterceptor {
+
+    private final SqlStatsRegistry registry;
+    private final int defaultBudget;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            registry.begin(handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName(),
+                    budgetOf(handlerMethod));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (handler instanceof HandlerMethod) {
+            registry.end();
+        }
+    }
+
+    private int budgetOf(HandlerMethod handlerMethod) {
+        QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), QueryBudget.class);
+        }
+        return budget != null ? budget.statements() : defaultBudget;
+    }
+}
@@ -0,0 +1,75 @@
+package com.molla.configuration;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.jdbc.core.StatementCallback;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * JdbcTemplate that reports its statements into the current request's {@link RequestSqlStats},
+ * so the set-based repositories count towards {@link QueryBudget} like Hibernate's statements do.
+ * A batch is one statement, as it is for Hibernate.
+ */
+public class SqlStatsJdbcTemplate extends JdbcTemplate {
+
+    public SqlStatsJdbcTemplate(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    public <T> T execute(PreparedStatementCreator psc, PreparedStatementCallback<T> action) throws DataAccessException {
+        RequestSqlStats stats = SqlStatsContext.current();
+        if (stats == null) {
+            return super.execute(psc, action);
+        }
+        stats.statementPrepared(sqlOf(psc));
+        return super.execute(psc, ps -> {
+            stats.executeStarted();
+            try {
+                return action.doInPreparedStatement(ps);
+            } finally {
+                stats.executeFinished();
+            }
+        });
+    }
+
+    @Override
+    public <T> T execute(StatementCallback<T> action) throws DataAccessException {
+        RequestSqlStats stats = SqlStatsContext.current();
+        if (stats == null) {
+            return super.execute(action);
+        }
+        stats.statementPrepared(sqlOf(action));
+        return super.execute(new TimedStatementCallback<>(action, stats));
+    }
+
+    private static String sqlOf(Object source) {
+        return source instanceof SqlProvider provider ? provider.getSql() : null;
+    }
+
+    // Keeps the SQL visible to JdbcTemplate's error translation, which reads it from the callback
+    private record TimedStatementCallback<T>(StatementCallback<T> action, RequestSqlStats stats)
+            implements StatementCallback<T>, SqlProvider {
+
+        @Override
+        public T doInStatement(Statement statement) throws SQLException, DataAccessException {
+            stats.executeStarted();
+            try {
+                return action.doInStatement(statement);
+            } finally {
+                stats.executeFinished();
+            }
+        }
+
+        @Override
+        public String getSql() {
+            return sqlOf(action);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.molla.configuration;
+
+import com.molla.payload.dto.EndpointSqlStatsDto;
+import com.molla.payload.dto.SlowQueryDto;
+import com.molla.payload.dto.SqlStatsReportDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates per-request SQL stats by controller method and keeps the most recent
+ * statements that ran longer than the slow-query threshold. Also enforces
+ * {@link QueryBudget} limits in the configured mode.
+ */
+@Component
+public class SqlStatsRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatsRegistry.class);
+
+    private static final int MAX_LOGGED_SQL_LENGTH = 1_000;
+
+    private final long slowQueryMs;
+    private final long slowQueryNanos;
+    private final int recentSlowQueryLimit;
+    private final QueryBudget.Mode budgetMode;
+    private final ConcurrentMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final Deque<SlowQueryDto> recentSlowQueries = new ArrayDeque<>();
+
+    public SqlStatsRegistry(
+            @Value("${pos.sql-stats.slow-query-ms:200}") long slowQueryMs,
+            @Value("${pos.sql-stats.recent-slow-queries:100}") int recentSlowQueryLimit,
+            @Value("${pos.sql-stats.budget-mode:warn}") String budgetMode) {
+        this.slowQueryMs = slowQueryMs;
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMs);
+        this.recentSlowQueryLimit = recentSlowQueryLimit;
+        this.budgetMode = QueryBudget.Mode.valueOf(budgetMode.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public RequestSqlStats begin(String endpoint) {
+        return begin(endpoint, 0);
+    }
+
+    // A budget of 0 or less means the endpoint is not limited
+    public RequestSqlStats begin(String endpoint, int budget) {
+        int effectiveBudget = budgetMode == QueryBudget.Mode.OFF ? 0 : Math.max(0, budget);
+        RequestSqlStats stats = new RequestSqlStats(endpoint, this, effectiveBudget,
+                effectiveBudget > 0 && budgetMode == QueryBudget.Mode.FAIL);
+        SqlStatsContext.begin(stats);
+        return stats;
+    }
+
+    public RequestSqlStats end() {
+        RequestSqlStats stats = SqlStatsContext.end();
+        if (stats != null) {
+            endpoints.computeIfAbsent(stats.getEndpoint(), key -> new EndpointMetrics()).record(stats);
+            if (stats.isOverBudget()) {
+                logger.warn("Query budget exceeded in {}: {} statements, budget {}",
+                        stats.getEndpoint(), stats.getStatements(), stats.getBudget());
+            }
+        }
+        return stats;
+    }
+
+    public EndpointSqlStatsDto getEndpointStats(String endpoint) {
+        EndpointMetrics metrics = endpoints.get(endpoint);
+        return metrics == null ? null : metrics.toDto(endpoint);
+    }
+
+    boolean isSlow(long elapsedNanos) {
+        return elapsedNanos > slowQueryNanos;
+    }
+
+    void recordSlowQuery(String endpoint, String sql, long elapsedNanos) {
+        String statement = truncate(sql);
+        double millis = toMillis(elapsedNanos);
+        // Bind values are not available here, so only the parameterised SQL is logged
+        logger.warn("Slow SQL ({} ms) in {}: {}", String.format("%.1f", millis), endpoint, statement);
+
+        SlowQueryDto slowQuery = new SlowQueryDto(endpoint, statement, millis, LocalDateTime.now());
+        synchronized (recentSlowQueries) {
+            recentSlowQueries.addFirst(slowQuery);
+            while (recentSlowQueries.size() > recentSlowQueryLimit) {
+                recentSlowQueries.removeLast();
+            }
+        }
+    }
+
+    // Endpoints with the most time spent in JDBC first
+    public SqlStatsReportDto snapshot(int limit) {
+        List<EndpointSqlStatsDto> top = endpoints.entrySet().stream()
+            .map(entry -> entry.getValue().toDto(entry.getKey()))
+            .sorted(Comparator.comparingDouble(EndpointSqlStatsDto::getJdbcMillis).reversed())
+            .limit(Math.max(1, limit))
+            .toList();
+
+        List<SlowQueryDto> slowQueries;
+        synchronized (recentSlowQueries) {
+            slowQueries = new ArrayList<>(recentSlowQueries);
+        }
+        return new SqlStatsReportDto(slowQueryMs, top, slowQueries);
+    }
+
+    public void reset() {
+        endpoints.clear();
+        synchronized (recentSlowQueries) {
+            recentSlowQueries.clear();
+        }
+    }
+
+    private static String truncate(String sql) {
+        if (sql == null) {
+            return "<unknown>";
+        }
+        return sql.length() > MAX_LOGGED_SQL_LENGTH ? sql.substring(0, MAX_LOGGED_SQL_LENGTH) + "..." : sql;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class EndpointMetrics {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder jdbcNanos = new LongAdder();
+        private final LongAdder entitiesLoaded = new LongAdder();
+        private final LongAdder slowStatements = new LongAdder();
+        private final LongAdder budgetViolations = new LongAdder();
+        private final AtomicLong maxStatements = new AtomicLong();
+        private final AtomicLong maxJdbcNanos = new AtomicLong();
+        private volatile int budget;
+
+        void record(RequestSqlStats stats) {
+            requests.increment();
+            statements.add(stats.getStatements());
+            jdbcNanos.add(stats.getJdbcNanos());
+            entitiesLoaded.add(stats.getEntitiesLoaded());
+            slowStatements.add(stats.getSlowStatements());
+            maxStatements.accumulateAndGet(stats.getStatements(), Math::max);
+            maxJdbcNanos.accumulateAndGet(stats.getJdbcNanos(), Math::max);
+            budget = stats.getBudget();
+            if (stats.isOverBudget()) {
+                budgetViolations.increment();
+            }
+        }
+
+        EndpointSqlStatsDto toDto(String endpoint) {
+            long count = requests.sum();
+            long totalStatements = statements.sum();
+            long totalNanos = jdbcNanos.sum();
+            return EndpointSqlStatsDto.builder()
+                .endpoint(endpoint)
+                .requests(count)
+                .statements(totalStatements)
+                .meanStatements(count == 0 ? 0 : (double) totalStatements / count)
+                .maxStatements(maxStatements.get())
+                .jdbcMillis(toMillis(totalNanos))
+                .meanJdbcMillis(count == 0 ? 0 : toMillis(totalNanos) / count)
+                .maxJdbcMillis(toMillis(maxJdbcNanos.get()))
+                .entitiesLoaded(entitiesLoaded.sum())
+                .slowStatements(slowStatements.sum())
+                .budget(budget)
+                .budgetViolations(budgetViolations.sum())
+                .build();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.molla.configuration;
+
+import org.hibernate.BaseSessionEventListener;
+
+// Times JDBC execution; Hibernate creates one instance per session
+public class SqlStatsSessionListener extends BaseSessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        RequestSqlStats stats = SqlStatsContext.current();
+        if (stats != null) {
+            stats.executeStarted();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestSqlStats stats = SqlStatsContext.current();
+        if (stats != null) {
+            stats.executeFinished();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        jdbcExecuteStatementStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        jdbcExecuteStatementEnd();
+    }
+}
@@ -0,0 +1,16 @@
+package com.molla.configuration;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Counts statements per request and remembers the SQL text for the slow-query log
+public class SqlStatsStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestSqlStats stats = SqlStatsContext.current();
+        if (stats != null) {
+            stats.statementPrepared(sql);
+        }
+        return sql;
+    }
+}
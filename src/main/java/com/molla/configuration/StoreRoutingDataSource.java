@@ -0,0 +1,35 @@
+package com.molla.configuration;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out connections from the current store's shard. The lookup happens when a
+ * connection is acquired, so the tenant must be set before a transaction or the
+ * request's first query starts.
+ */
+public class StoreRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final StoreShardRouter router;
+
+    public StoreRoutingDataSource(StoreShardRouter router, Map<String, DataSource> shards) {
+        this.router = router;
+        setTargetDataSources(new HashMap<>(shards));
+        setDefaultTargetDataSource(shards.get(router.getDefaultShard()));
+        // An unknown shard name is a configuration bug, not a reason to write to the default shard
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return router.currentShard();
+    }
+
+    public StoreShardRouter getRouter() {
+        return router;
+    }
+}
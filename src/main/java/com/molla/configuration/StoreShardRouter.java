@@ -0,0 +1,54 @@
+package com.molla.configuration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Resolves which shard serves a store; unknown stores fall back to the default shard
+public class StoreShardRouter {
+
+    private final String defaultShard;
+    private final Map<Long, String> storeShards;
+    private final List<String> shardNames;
+
+    public StoreShardRouter(String defaultShard, Map<Long, String> storeShards, List<String> shardNames) {
+        this.defaultShard = defaultShard;
+        this.storeShards = Map.copyOf(storeShards);
+        List<String> names = new ArrayList<>();
+        names.add(defaultShard);
+        shardNames.stream().filter(name -> !name.equals(defaultShard)).forEach(names::add);
+        this.shardNames = Collections.unmodifiableList(names);
+
+        storeShards.forEach((storeId, shard) -> {
+            if (!this.shardNames.contains(shard)) {
+                throw new IllegalStateException("Store " + storeId + " is assigned to unknown shard " + shard);
+            }
+        });
+    }
+
+    public static StoreShardRouter singleShard(String name) {
+        return new StoreShardRouter(name, Map.of(), List.of());
+    }
+
+    public String shardFor(Long storeId) {
+        if (storeId == null) {
+            return defaultShard;
+        }
+        return storeShards.getOrDefault(storeId, defaultShard);
+    }
+
+    // A pinned shard wins over the current store
+    public String currentShard() {
+        String pinned = TenantContext.getShard();
+        return pinned != null ? pinned : shardFor(TenantContext.getStoreId());
+    }
+
+    public String getDefaultShard() {
+        return defaultShard;
+    }
+
+    public List<String> getShardNames() {
+        return shardNames;
+    }
+}
@@ -0,0 +1,52 @@
+package com.molla.configuration;
+
+import java.util.concurrent.Callable;
+
+/**
+ * The store the current thread is working for, which picks the shard its connections come
+ * from. Set per request from the caller's token; a shard can also be pinned explicitly for
+ * fan-out work that is not tied to one store.
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<Long> STORE_ID = new ThreadLocal<>();
+    private static final ThreadLocal<String> SHARD = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static Long getStoreId() {
+        return STORE_ID.get();
+    }
+
+    public static void setStoreId(Long storeId) {
+        if (storeId == null) {
+            STORE_ID.remove();
+        } else {
+            STORE_ID.set(storeId);
+        }
+    }
+
+    public static String getShard() {
+        return SHARD.get();
+    }
+
+    public static void clear() {
+        STORE_ID.remove();
+        SHARD.remove();
+    }
+
+    public static <T> T callInShard(String shard, Callable<T> work) throws Exception {
+        String previous = SHARD.get();
+        SHARD.set(shard);
+        try {
+            return work.call();
+        } finally {
+            if (previous == null) {
+                SHARD.remove();
+            } else {
+                SHARD.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.molla.configuration;
+
+import com.molla.repository.UserDirectoryRepository;
+import com.molla.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Which shard holds the user with a given email. Logins carry nothing but the email, and
+ * no store is bound yet, so the shard has to be found from the email alone. The directory
+ * lives on the default shard and is filled as users are found: an email it does not know,
+ * or one no longer on the shard it names, is looked for on every shard and the answer
+ * recorded. With a single shard there is nothing to look up.
+ * <p>
+ * User lookups run on the named shard, so callers must not be inside a transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserDirectory {
+
+    private final UserDirectoryRepository directoryRepository;
+    private final UserRepository userRepository;
+    private final StoreShardRouter router;
+    private final ShardFanOut fanOut;
+
+    // The default shard when no shard has the email, where the caller's lookup finds nothing
+    public String shardForEmail(String email) {
+        String defaultShard = router.getDefaultShard();
+        if (email == null || router.getShardNames().size() < 2) {
+            return defaultShard;
+        }
+        String key = email.trim().toLowerCase(Locale.ROOT);
+        String known = inShard(defaultShard, () -> directoryRepository.findShardByEmail(key));
+        if (known != null && router.getShardNames().contains(known)
+                && inShard(known, () -> userRepository.existsByEmail(email))) {
+            return known;
+        }
+        for (Map.Entry<String, Boolean> found : fanOut.onEachShard(() -> userRepository.existsByEmail(email)).entrySet()) {
+            if (found.getValue()) {
+                inShard(defaultShard, () -> {
+                    directoryRepository.record(key, found.getKey());
+                    return null;
+                });
+                return found.getKey();
+            }
+        }
+        return defaultShard;
+    }
+
+    private <T> T inShard(String shard, Callable<T> work) {
+        try {
+            return TenantContext.callInShard(shard, work);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
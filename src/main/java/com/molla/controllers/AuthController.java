@@ -1,15 +1,19 @@
 package com.molla.controllers;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.molla.exceptions.UserException;
+import com.molla.payload.dto.RefreshTokenDto;
 import com.molla.payload.dto.UserDto;
+import com.molla.payload.response.ApiResponse;
 import com.molla.payload.response.AuthResponse;
 import com.molla.service.AuthService;
 
@@ -25,8 +29,34 @@ public class AuthController {
         return new ResponseEntity<>(authService.signUp(userDto), HttpStatus.CREATED);
     }
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> loginHandler(@RequestBody UserDto userDto) throws UserException{
+    public ResponseEntity<AuthResponse> loginHandler(@RequestBody UserDto userDto, HttpServletRequest request) throws UserException{
 
-        return new ResponseEntity<>(authService.login(userDto), HttpStatus.OK);
+        return new ResponseEntity<>(authService.login(userDto, clientIp(request)), HttpStatus.OK);
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refreshHandler(@RequestBody RefreshTokenDto refreshTokenDto) throws UserException{
+
+        return new ResponseEntity<>(authService.refresh(refreshTokenDto.getRefreshToken()), HttpStatus.OK);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse> logoutHandler(
+            @RequestHeader(value = "Authorization", required = false) String jwt,
+            @RequestBody(required = false) RefreshTokenDto refreshTokenDto) throws UserException{
+
+        authService.logout(jwt, refreshTokenDto != null ? refreshTokenDto.getRefreshToken() : null);
+        return new ResponseEntity<>(new ApiResponse("Logged out successfully"), HttpStatus.OK);
+    }
+
+    // Fly's edge sets Fly-Client-IP itself, overwriting anything the client sent. Elsewhere the
+    // remote address is already resolved from X-Forwarded-For (server.forward-headers-strategy),
+    // trusting only the entries added by our own proxies rather than the client-supplied first one
+    private static String clientIp(HttpServletRequest request) {
+        String flyClientIp = request.getHeader("Fly-Client-IP");
+        if (flyClientIp != null && !flyClientIp.isBlank()) {
+            return flyClientIp.trim();
+        }
+        return request.getRemoteAddr();
     }
 }
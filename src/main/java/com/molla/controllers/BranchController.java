@@ -1,7 +1,6 @@
 package com.molla.controllers;
 
 import com.molla.exceptions.UserException;
-import com.molla.model.User;
 import com.molla.payload.response.ApiResponse;
 import com.molla.payload.dto.BranchDto;
 import com.molla.service.BranchService;
@@ -31,8 +30,7 @@ public class BranchController {
 
     @PostMapping
     public ResponseEntity<BranchDto> createBranch(@RequestBody BranchDto branchDto,@RequestHeader("Authorization") String jwt) throws UserException {
-        User user = userService.getUserFromJwt(jwt);
-        BranchDto createdBranch = branchService.createBranch(branchDto,user);
+        BranchDto createdBranch = branchService.createBranch(branchDto,userService.getCurrentPrincipal());
 
         return ResponseEntity.ok(createdBranch);
     }
@@ -48,8 +46,7 @@ public class BranchController {
     }
     @PutMapping("/{id}")
     public ResponseEntity<BranchDto> updateBranch(@PathVariable("id") Long id,@RequestBody BranchDto branchDto,@RequestHeader("Authorization") String jwt) throws UserException {
-        User user = userService.getUserFromJwt(jwt);
-        BranchDto updatedBranch = branchService.updateBranch(id,branchDto,user);
+        BranchDto updatedBranch = branchService.updateBranch(id,branchDto,userService.getCurrentPrincipal());
         return ResponseEntity.ok(updatedBranch);
     }
 
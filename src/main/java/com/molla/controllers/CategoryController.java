@@ -1,7 +1,7 @@
 package com.molla.controllers;
 
+import com.molla.configuration.PosPrincipal;
 import com.molla.exceptions.UserException;
-import com.molla.model.User;
 import com.molla.payload.dto.CategoryDto;
 import com.molla.payload.response.ApiResponse;
 import com.molla.service.CategoryService;
@@ -22,8 +22,8 @@ public class CategoryController {
 
     @PostMapping
     public ResponseEntity<CategoryDto> createCategory(@RequestBody CategoryDto categoryDto,@RequestHeader("Authorization") String jwt) throws UserException {
-        User user = userService.getUserFromJwt(jwt);
-        return ResponseEntity.ok(categoryService.createCategory(categoryDto,user));
+        PosPrincipal principal = userService.getCurrentPrincipal();
+        return ResponseEntity.ok(categoryService.createCategory(categoryDto,principal));
     }
 
     @GetMapping("/store/{storeId}")
@@ -33,18 +33,18 @@ public class CategoryController {
 
     @PutMapping("/{id}")
     public ResponseEntity<CategoryDto> updateCategory(@PathVariable("id") Long id,@RequestBody CategoryDto categoryDto,@RequestHeader("Authorization") String jwt) throws UserException {
-        User user = userService.getUserFromJwt(jwt);
-        return ResponseEntity.ok(categoryService.updateCategory(id,categoryDto,user));
+        PosPrincipal principal = userService.getCurrentPrincipal();
+        return ResponseEntity.ok(categoryService.updateCategory(id,categoryDto,principal));
     }
     @PutMapping("/{id}/moderate")
     public ResponseEntity<CategoryDto> moderateCategory(@PathVariable("id") Long id,@RequestBody CategoryDto categoryDto,@RequestHeader("Authorization") String jwt) throws UserException {
-        User user = userService.getUserFromJwt(jwt);
-        return ResponseEntity.ok(categoryService.moderateCategory(id,categoryDto,user));
+        PosPrincipal principal = userService.getCurrentPrincipal();
+        return ResponseEntity.ok(categoryService.moderateCategory(id,categoryDto,principal));
     }
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse> deleteCategory(@PathVariable("id") Long id,@RequestHeader("Authorization") String jwt) throws UserException {
-        User user = userService.getUserFromJwt(jwt);
-        categoryService.deleteCategory(id, user);
+        PosPrincipal principal = userService.getCurrentPrincipal();
+        categoryService.deleteCategory(id, principal);
         ApiResponse apiResponse = new ApiResponse("Category deleted successfully");
         return ResponseEntity.ok(apiResponse);
     }   
@@ -3,7 +3,12 @@ package com.molla.controllers;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.molla.domain.CustomerSort;
 import com.molla.model.Customer;
+import com.molla.payload.dto.CustomerListItemDto;
+import com.molla.payload.response.PageResponse;
+import com.molla.payload.dto.CustomerSummaryDto;
+import com.molla.service.CustomerSummaryService;
 import com.molla.service.CustomerService;
 import com.molla.payload.response.ApiResponse;
 
@@ -26,6 +31,7 @@ import lombok.RequiredArgsConstructor;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final CustomerSummaryService customerSummaryService;
 
     @PostMapping
     public ResponseEntity<Customer> createCustomer(@RequestBody Customer customer) {
@@ -44,9 +50,13 @@ public class CustomerController {
     }
 
 
-    @GetMapping 
-    public ResponseEntity<List<Customer>> getAllCustomers() throws Exception {
-        return ResponseEntity.ok(customerService.getAllCustomers());
+    @GetMapping
+    public ResponseEntity<PageResponse<CustomerListItemDto>> getCustomers(
+            @RequestParam(value = "storeId", required = false) Long storeId,
+            @RequestParam(value = "sort", defaultValue = "NAME") CustomerSort sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "50") int size) throws Exception {
+        return ResponseEntity.ok(customerService.getCustomers(storeId, sort, cursor, size));
     }
 
     @GetMapping("/{id}")
@@ -54,15 +64,22 @@ public class CustomerController {
         return ResponseEntity.ok(customerService.getCustomerById(id));
     }
 
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<CustomerSummaryDto> getCustomerSummary(@PathVariable("id") Long id) throws Exception {
+        return ResponseEntity.ok(customerSummaryService.getSummary(id));
+    }
+
     @GetMapping("/search")
     public ResponseEntity<List<Customer>> searchCustomers(
             @RequestParam(value = "keyword", required = false) String keyword,
-            @RequestParam(value = "q", required = false) String q) throws Exception {
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "storeId", required = false) Long storeId,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) throws Exception {
         // Accept both 'keyword' and 'q' parameters
         String searchTerm = keyword != null ? keyword : (q != null ? q : "");
         if (searchTerm.isEmpty()) {
             throw new IllegalArgumentException("Either 'keyword' or 'q' parameter is required");
         }
-        return ResponseEntity.ok(customerService.searchCustomers(searchTerm));
+        return ResponseEntity.ok(customerService.searchCustomers(searchTerm, storeId, limit));
     }
 }
@@ -2,8 +2,11 @@ package com.molla.controllers;
 
 import com.molla.domain.UserRole;
 import com.molla.exceptions.UserException;
+import com.molla.payload.dto.EmployeeListItemDto;
+import com.molla.payload.dto.EmployeeOnboardingReportDto;
 import com.molla.payload.dto.UserDto;
 import com.molla.payload.response.ApiResponse;
+import com.molla.payload.response.PageResponse;
 import com.molla.service.EmployeeService;
 import com.molla.service.UserService;
 import lombok.RequiredArgsConstructor;
@@ -25,7 +28,7 @@ public class EmployeeController {
             @PathVariable("storeId") Long storeId,
             @RequestBody UserDto employee,
             @RequestHeader("Authorization") String jwt) throws UserException {
-        userService.getUserFromJwt(jwt); // Validate JWT token
+        requirePrincipal(); // Validate JWT token
         UserDto createdEmployee = employeeService.createStoreEmployee(employee, storeId);
         return ResponseEntity.ok(createdEmployee);
     }
@@ -35,17 +38,26 @@ public class EmployeeController {
             @PathVariable("branchId") Long branchId,
             @RequestBody UserDto employeeDetails,
             @RequestHeader("Authorization") String jwt) throws UserException {
-        userService.getUserFromJwt(jwt); // Validate JWT token
+        requirePrincipal(); // Validate JWT token
         UserDto createdEmployee = employeeService.createBranchEmployee(employeeDetails, branchId);
         return ResponseEntity.ok(createdEmployee);
     }
 
+    @PostMapping("/branch/{branchId}/bulk")
+    public ResponseEntity<EmployeeOnboardingReportDto> onboardBranchEmployees(
+            @PathVariable("branchId") Long branchId,
+            @RequestBody List<UserDto> employees,
+            @RequestHeader("Authorization") String jwt) throws UserException {
+        requirePrincipal(); // Validate JWT token
+        return ResponseEntity.ok(employeeService.onboardBranchEmployees(employees, branchId));
+    }
+
     @PutMapping("/{employeeId}")
     public ResponseEntity<UserDto> updateEmployee(
             @PathVariable("employeeId") Long employeeId,
             @RequestBody UserDto employeeDetails,
             @RequestHeader("Authorization") String jwt) throws UserException {
-        userService.getUserFromJwt(jwt); // Validate JWT token
+        requirePrincipal(); // Validate JWT token
         UserDto updatedEmployee = employeeService.updateEmployee(employeeDetails, employeeId);
         return ResponseEntity.ok(updatedEmployee);
     }
@@ -54,30 +66,41 @@ public class EmployeeController {
     public ResponseEntity<ApiResponse> deleteEmployee(
             @PathVariable("employeeId") Long employeeId,
             @RequestHeader("Authorization") String jwt) throws UserException {
-        userService.getUserFromJwt(jwt); // Validate JWT token
+        requirePrincipal(); // Validate JWT token
         employeeService.deleteEmployee(employeeId);
         ApiResponse apiResponse = new ApiResponse("Employee deleted successfully");
         return ResponseEntity.ok(apiResponse);
     }
 
     @GetMapping("/store/{storeId}")
-    public ResponseEntity<List<UserDto>> findStoreEmployees(
+    public ResponseEntity<PageResponse<EmployeeListItemDto>> findStoreEmployees(
             @PathVariable("storeId") Long storeId,
             @RequestParam(required = false) UserRole role,
+            @RequestParam(required = false) Long branchId,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
             @RequestHeader("Authorization") String jwt) throws UserException {
-        userService.getUserFromJwt(jwt); // Validate JWT token
-        List<UserDto> employees = employeeService.findStoreEmployees(storeId, role);
-        return ResponseEntity.ok(employees);
+        requirePrincipal(); // Validate JWT token
+        return ResponseEntity.ok(employeeService.findStoreEmployees(storeId, role, branchId, active, page, size));
     }
 
     @GetMapping("/branch/{branchId}")
-    public ResponseEntity<List<UserDto>> findBranchEmployees(
+    public ResponseEntity<PageResponse<EmployeeListItemDto>> findBranchEmployees(
             @PathVariable("branchId") Long branchId,
             @RequestParam(required = false) UserRole role,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
             @RequestHeader("Authorization") String jwt) throws UserException {
-        userService.getUserFromJwt(jwt); // Validate JWT token
-        List<UserDto> employees = employeeService.findBranchEmployees(branchId, role);
-        return ResponseEntity.ok(employees);
+        requirePrincipal(); // Validate JWT token
+        return ResponseEntity.ok(employeeService.findBranchEmployees(branchId, role, active, page, size));
     }
-}
 
+    // The token was already checked by JwtValidator; an invalid or missing one leaves no principal
+    private void requirePrincipal() throws UserException {
+        if (userService.getCurrentPrincipal() == null) {
+            throw new UserException("User not found");
+        }
+    }
+}
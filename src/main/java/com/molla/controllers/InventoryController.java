@@ -2,8 +2,15 @@ package com.molla.controllers;
 
 import com.molla.exceptions.UserException;
 import com.molla.payload.dto.InventoryDto;
+import com.molla.payload.dto.InventoryMovementDto;
+import com.molla.payload.dto.InventoryReconciliationDto;
+import com.molla.payload.dto.LowStockAlertDto;
+import com.molla.payload.dto.StockTakeDto;
+import com.molla.payload.dto.StockTakeReportDto;
 import com.molla.payload.response.ApiResponse;
+import com.molla.service.InventoryLedgerService;
 import com.molla.service.InventoryService;
+import com.molla.service.LowStockAlertService;
 import com.molla.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +21,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -25,6 +33,8 @@ public class InventoryController {
 
     private final InventoryService inventoryService;
     private final UserService userService;
+    private final LowStockAlertService lowStockAlertService;
+    private final InventoryLedgerService inventoryLedgerService;
 
     @PostMapping
     public ResponseEntity<InventoryDto> createInventory(@RequestBody InventoryDto inventoryDto) throws UserException {
@@ -37,6 +47,12 @@ public class InventoryController {
         return ResponseEntity.ok(inventoryService.updateInventory(inventoryDto, id));
     }
 
+    @PostMapping("/branch/{branchId}/stock-take")
+    public ResponseEntity<StockTakeReportDto> applyStockTake(@PathVariable("branchId") Long branchId,
+                                                             @RequestBody StockTakeDto stockTakeDto) throws UserException {
+        return ResponseEntity.ok(inventoryService.applyStockTake(branchId, stockTakeDto));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse> deleteInventory(@PathVariable("id") Long id) throws UserException {
         inventoryService.deleteInventory(id);
@@ -54,4 +70,21 @@ public class InventoryController {
     public ResponseEntity<List<InventoryDto>> getInventoriesByBranchId(@PathVariable("branchId") Long branchId) throws UserException {
         return ResponseEntity.ok(inventoryService.getAllInventoriesByBranchId(branchId));
     }
+
+    @GetMapping("/branch/{branchId}/low-stock")
+    public ResponseEntity<List<LowStockAlertDto>> getLowStockAlerts(@PathVariable("branchId") Long branchId) throws UserException {
+        return ResponseEntity.ok(lowStockAlertService.getOpenAlertsByBranchId(branchId));
+    }
+
+    @GetMapping("/{id}/movements")
+    public ResponseEntity<List<InventoryMovementDto>> getMovements(@PathVariable("id") Long id,
+                                                                   @RequestParam(defaultValue = "0") int page,
+                                                                   @RequestParam(defaultValue = "50") int size) throws UserException {
+        return ResponseEntity.ok(inventoryLedgerService.getMovements(id, page, size));
+    }
+
+    @GetMapping("/{id}/reconciliation")
+    public ResponseEntity<InventoryReconciliationDto> reconcile(@PathVariable("id") Long id) throws UserException {
+        return ResponseEntity.ok(inventoryLedgerService.reconcile(id));
+    }
 }
@@ -1,5 +1,6 @@
 package com.molla.controllers;
 
+import com.molla.configuration.QueryBudget;
 import com.molla.domain.OrderStatus;
 import com.molla.domain.PaymentType;
 import com.molla.payload.dto.OrderDto;
@@ -37,11 +38,13 @@ public class OrderController {
     }
 
     @GetMapping("/{id}")
+    @QueryBudget(statements = 10)
     public ResponseEntity<OrderDto> getOrderById(@PathVariable("id") Long id) throws Exception {
         return ResponseEntity.ok(orderService.getOrderById(id));
     }
 
     @GetMapping("/branch/{branchId}")
+    @QueryBudget(statements = 15)
     public ResponseEntity<List<OrderDto>> getOrdersByBranch(
             @PathVariable("branchId") Long branchId,
             @RequestParam(required = false) Long customerId,
@@ -52,21 +55,28 @@ public class OrderController {
     }
 
     @GetMapping("/cashier/{cashierId}")
+    @QueryBudget(statements = 15)
     public ResponseEntity<List<OrderDto>> getOrdersByCashier(@PathVariable("cashierId") Long cashierId) throws Exception {
         return ResponseEntity.ok(orderService.getOrdersByCashier(cashierId));
     }
 
     @GetMapping("/today/branch/{id}")
+    @QueryBudget(statements = 15)
     public ResponseEntity<List<OrderDto>> getTodayOrder(@PathVariable("id") Long id) throws Exception {
         return ResponseEntity.ok(orderService.getTodayOrderbyBranch(id));
     }
 
     @GetMapping("/customer/{id}")
-    public ResponseEntity<List<OrderDto>> getCustomersOrder(@PathVariable("id") Long id) throws Exception {
-        return ResponseEntity.ok(orderService.getOrderByCustomerId(id));
+    @QueryBudget(statements = 15)
+    public ResponseEntity<List<OrderDto>> getCustomersOrder(
+            @PathVariable("id") Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) throws Exception {
+        return ResponseEntity.ok(orderService.getOrderByCustomerId(id, page, size));
     }
 
     @GetMapping("/recent/{branchId}")
+    @QueryBudget(statements = 15)
     public ResponseEntity<List<OrderDto>> getRecentOrder(@PathVariable("branchId") Long branchId) throws Exception {
         return ResponseEntity.ok(orderService.getTop5RecentOrdersByBranchId(branchId));
     }
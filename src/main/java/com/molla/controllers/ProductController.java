@@ -1,5 +1,7 @@
 package com.molla.controllers;
 
+import com.molla.configuration.PosPrincipal;
+import com.molla.configuration.QueryBudget;
 import com.molla.exceptions.UserException;
 import com.molla.model.User;
 import com.molla.payload.dto.ProductDto;
@@ -23,15 +25,8 @@ public class ProductController {
     @PostMapping
     public ResponseEntity<?> createProduct(@RequestBody ProductDto productDto,@RequestHeader(value = "Authorization", required = false) String jwt) {
         try {
-            User user = null;
-            if (jwt != null && !jwt.isEmpty()) {
-                try {
-                    user = userService.getUserFromJwt(jwt);
-                } catch (Exception e) {
-                    // If JWT is invalid, continue without user (for testing)
-                }
-            }
-            ProductDto createdProduct = productService.createProduct(productDto, user);
+            // Without a valid token the principal is null and the product is created anyway (for testing)
+            ProductDto createdProduct = productService.createProduct(productDto, userService.getCurrentPrincipal());
             return ResponseEntity.ok(createdProduct);
         } catch (RuntimeException e) {
             // Return 400 Bad Request for validation errors
@@ -52,8 +47,7 @@ public class ProductController {
 
     @PutMapping("/{id}")
     public ResponseEntity<ProductDto> updateProduct(@PathVariable("id") Long id,@RequestBody ProductDto productDto,@RequestHeader("Authorization") String jwt) throws UserException {
-        User user = userService.getUserFromJwt(jwt);
-        return ResponseEntity.ok(productService.updateProduct(id,productDto,user));
+        return ResponseEntity.ok(productService.updateProduct(id,productDto,userService.getCurrentPrincipal()));
     }
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse> deleteProduct(@PathVariable("id") Long id,@RequestHeader("Authorization") String jwt) throws UserException {
@@ -64,23 +58,29 @@ public class ProductController {
 
 
     @GetMapping("/storeId/{storeId}")
+    @QueryBudget(statements = 10)
     public ResponseEntity<List<ProductDto>> getProductsByStoreId(@PathVariable("storeId") Long storeId,@RequestHeader("Authorization") String jwt) throws UserException {
         return ResponseEntity.ok(productService.getProductsById(storeId));
     }
     
 
     @GetMapping("/search/{storeId}/{keyword}")
+    @QueryBudget(statements = 10)
     public ResponseEntity<List<ProductDto>> searchByKeyword(@PathVariable("storeId") Long storeId, @PathVariable("keyword") String keyword,@RequestHeader("Authorization") String jwt) throws UserException {
         return ResponseEntity.ok(productService.searchByKeyword(storeId,keyword));
     }
 
     @GetMapping("/all")
+    @QueryBudget(statements = 10)
     public ResponseEntity<List<ProductDto>> getAllProducts(@RequestHeader(value = "Authorization", required = false) String jwt) throws UserException {
         // If JWT is provided, use user's store, otherwise use default storeId (1) for testing
         Long storeId = 1L;
-        if (jwt != null && !jwt.isEmpty()) {
+        PosPrincipal principal = userService.getCurrentPrincipal();
+        if (principal != null && principal.storeId() != null) {
+            storeId = principal.storeId();
+        } else if (principal != null) {
             try {
-                User user = userService.getUserFromJwt(jwt);
+                User user = userService.getUser(principal);
                 storeId = user.getStore().getId();
             } catch (Exception e) {
                 // If JWT is invalid, fall back to default storeId
@@ -92,6 +92,7 @@ public class ProductController {
     
     // Public endpoint for testing (doesn't require authentication)
     @GetMapping("/public/all")
+    @QueryBudget(statements = 10)
     public ResponseEntity<List<ProductDto>> getAllProductsPublic() {
         try {
             // Return ALL products regardless of storeId (for testing/development)
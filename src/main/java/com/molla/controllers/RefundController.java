@@ -1,5 +1,6 @@
 package com.molla.controllers;
 
+import com.molla.configuration.QueryBudget;
 import com.molla.payload.dto.RefundDto;
 import com.molla.payload.response.ApiResponse;
 import com.molla.service.RefundService;
@@ -25,30 +26,35 @@ public class RefundController {
     }
 
     @GetMapping
+    @QueryBudget(statements = 15)
     public ResponseEntity<List<RefundDto>> getAllRefund() throws Exception {
         List<RefundDto> refunds = refundService.getAllRefunds();
         return ResponseEntity.ok(refunds);
     }
 
     @GetMapping("/cashier/{cashierId}")
+    @QueryBudget(statements = 15)
     public ResponseEntity<List<RefundDto>> getRefundByCashier(@PathVariable("cashierId") Long cashierId) throws Exception {
         List<RefundDto> refunds = refundService.getRefundByCashier(cashierId);
         return ResponseEntity.ok(refunds);
     }
 
     @GetMapping("/branch/{branchId}")
+    @QueryBudget(statements = 15)
     public ResponseEntity<List<RefundDto>> getRefundByBranch(@PathVariable("branchId") Long branchId) throws Exception {
         List<RefundDto> refunds = refundService.getRefundByBranch(branchId);
         return ResponseEntity.ok(refunds);
     }
 
     @GetMapping("/shift/{shiftReportId}")
+    @QueryBudget(statements = 15)
     public ResponseEntity<List<RefundDto>> getRefundByShift(@PathVariable("shiftReportId") Long shiftReportId) throws Exception {
         List<RefundDto> refunds = refundService.getRefundByShiftReport(shiftReportId);
         return ResponseEntity.ok(refunds);
     }
 
     @GetMapping("/cashier/{cashierId}/range")
+    @QueryBudget(statements = 15)
     public ResponseEntity<List<RefundDto>> getRefundByCashierAndDateRange(
             @PathVariable("cashierId") Long cashierId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
@@ -58,6 +64,7 @@ public class RefundController {
     }
 
     @GetMapping("/{id}")
+    @QueryBudget(statements = 10)
     public ResponseEntity<RefundDto> getRefundById(@PathVariable("id") Long id) throws Exception {
         RefundDto refund = refundService.getRefundById(id);
         return ResponseEntity.ok(refund);
@@ -1,5 +1,6 @@
 package com.molla.controllers;
 
+import com.molla.configuration.QueryBudget;
 import com.molla.exceptions.UserException;
 import com.molla.payload.dto.ShiftReportDto;
 import com.molla.service.ShiftReportService;
@@ -36,6 +37,7 @@ public class ShiftReportController {
     }
 
     @GetMapping("/current")
+    @QueryBudget(statements = 20)
     public ResponseEntity<ShiftReportDto> getCurrentShiftProgress(
             @RequestParam(required = false) Long cashierId) throws UserException {
         ShiftReportDto shiftReport = shiftReportService.getCurrentShiftProgress(cashierId);
@@ -43,6 +45,7 @@ public class ShiftReportController {
     }
 
     @GetMapping("/cashier/{cashierId}/by-date")
+    @QueryBudget(statements = 15)
     public ResponseEntity<ShiftReportDto> getShiftByCashierAndDate(
             @PathVariable("cashierId") Long cashierId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime date) throws UserException {
@@ -51,6 +54,7 @@ public class ShiftReportController {
     }
 
     @GetMapping("/cashier/{cashierId}")
+    @QueryBudget(statements = 20)
     public ResponseEntity<List<ShiftReportDto>> getShiftReportByCashier(
             @PathVariable("cashierId") Long cashierId) throws Exception {
         List<ShiftReportDto> shiftReports = shiftReportService.getShiftReportsByCashierId(cashierId);
@@ -58,6 +62,7 @@ public class ShiftReportController {
     }
 
     @GetMapping("/branch/{branchId}")
+    @QueryBudget(statements = 20)
     public ResponseEntity<List<ShiftReportDto>> getShiftReportsByBranch(
             @PathVariable("branchId") Long branchId) throws Exception {
         List<ShiftReportDto> shiftReports = shiftReportService.getShiftReportsByBranchId(branchId);
@@ -65,12 +70,14 @@ public class ShiftReportController {
     }
 
     @GetMapping
+    @QueryBudget(statements = 20)
     public ResponseEntity<List<ShiftReportDto>> getAllShiftReports() throws Exception {
         List<ShiftReportDto> shiftReports = shiftReportService.getAllShiftReports();
         return ResponseEntity.ok(shiftReports);
     }
 
     @GetMapping("/{id}")
+    @QueryBudget(statements = 15)
     public ResponseEntity<ShiftReportDto> getShiftReportById(@PathVariable("id") Long id) throws Exception {
         ShiftReportDto shiftReport = shiftReportService.getShiftReportById(id);
         return ResponseEntity.ok(shiftReport);
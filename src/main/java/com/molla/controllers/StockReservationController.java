@@ -0,0 +1,40 @@
+package com.molla.controllers;
+
+import com.molla.payload.dto.StockReservationDto;
+import com.molla.payload.response.ApiResponse;
+import com.molla.service.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reservations")
+@RequiredArgsConstructor
+public class StockReservationController {
+
+    private final StockReservationService stockReservationService;
+
+    @PostMapping
+    public ResponseEntity<StockReservationDto> reserve(@RequestBody StockReservationDto reservationDto) {
+        return ResponseEntity.ok(stockReservationService.reserve(reservationDto));
+    }
+
+    @GetMapping("/{cartId}")
+    public ResponseEntity<List<StockReservationDto>> getCartReservations(@PathVariable("cartId") String cartId) {
+        return ResponseEntity.ok(stockReservationService.getCartReservations(cartId));
+    }
+
+    @DeleteMapping("/{cartId}")
+    public ResponseEntity<ApiResponse> releaseCart(@PathVariable("cartId") String cartId) {
+        stockReservationService.releaseCart(cartId);
+        return ResponseEntity.ok(new ApiResponse("Reservations released successfully"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.molla.controllers;
+
+import com.molla.payload.dto.StockTransferDto;
+import com.molla.service.StockTransferService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/transfers")
+@RequiredArgsConstructor
+public class StockTransferController {
+
+    private final StockTransferService stockTransferService;
+
+    @PostMapping
+    public ResponseEntity<StockTransferDto> createTransfer(@RequestBody StockTransferDto transferDto) {
+        return ResponseEntity.ok(stockTransferService.createTransfer(transferDto));
+    }
+
+    @PostMapping("/{id}/apply")
+    public ResponseEntity<StockTransferDto> applyTransfer(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(stockTransferService.applyTransfer(id));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StockTransferDto> getTransferById(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(stockTransferService.getTransferById(id));
+    }
+
+    @GetMapping("/branch/{branchId}")
+    public ResponseEntity<List<StockTransferDto>> getTransfersByBranch(@PathVariable("branchId") Long branchId) {
+        return ResponseEntity.ok(stockTransferService.getTransfersByBranch(branchId));
+    }
+}
@@ -2,7 +2,7 @@ package com.molla.controllers;
 
 import com.molla.domain.StoreStatus;
 import com.molla.exceptions.UserException;
-import com.molla.model.User;
+import com.molla.configuration.PosPrincipal;
 import com.molla.payload.dto.StoreDto;
 import com.molla.payload.response.ApiResponse;
 import com.molla.service.StoreService;
@@ -24,8 +24,7 @@ public class StoreController {
 
    @PostMapping
    public ResponseEntity<StoreDto> createStore(@RequestBody StoreDto storeDto,@RequestHeader("Authorization") String jwt) throws UserException {
-    User user=userService.getUserFromJwt(jwt);
-    return ResponseEntity.ok(storeService.createStore(storeDto, user));
+    return ResponseEntity.ok(storeService.createStore(storeDto, userService.getCurrentPrincipal()));
    }
    @GetMapping("/{id}")
    public ResponseEntity<StoreDto> getStoreById(@PathVariable("id") Long id,@RequestHeader("Authorization") String jwt) throws UserException {
@@ -39,9 +38,9 @@ public class StoreController {
 
    @GetMapping("/admin")
    public ResponseEntity<List<StoreDto>> getStoreByAdmin(@RequestHeader("Authorization") String jwt) throws UserException {
-    User user = userService.getUserFromJwt(jwt);
+    PosPrincipal principal = userService.getCurrentPrincipal();
     try {
-    StoreDto store = storeService.getStoreByAdmin(user);
+    StoreDto store = storeService.getStoreByAdmin(principal);
     return ResponseEntity.ok(List.of(store));
     } catch (UserException e) {
         // If store not found, return empty list instead of throwing exception
@@ -53,9 +52,7 @@ public class StoreController {
    }
    @GetMapping("/employee")
    public ResponseEntity<StoreDto> getStoreByEmployee(@RequestHeader("Authorization") String jwt) throws UserException {
-     User user = userService.getUserFromJwt(jwt);
-     String brand = user.getStore() != null ? user.getStore().getBrand() : "";
-     return ResponseEntity.ok(storeService.getStoreByEmployee(brand));
+     return ResponseEntity.ok(storeService.getStoreByEmployee(userService.getCurrentPrincipal()));
    }
    @PutMapping("/{id}")
    public ResponseEntity<StoreDto> updateStore(@PathVariable("id") Long id,@RequestBody StoreDto storeDto,@RequestHeader("Authorization") String jwt) throws UserException {
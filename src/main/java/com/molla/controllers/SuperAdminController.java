@@ -0,0 +1,56 @@
+package com.molla.controllers;
+
+import com.molla.configuration.PoolTelemetry;
+import com.molla.configuration.SqlStatsRegistry;
+import com.molla.payload.dto.PoolStatsDto;
+import com.molla.payload.dto.ReferenceCacheStatsDto;
+import com.molla.payload.dto.ShardSummaryDto;
+import com.molla.payload.dto.SqlStatsReportDto;
+import com.molla.service.ReferenceDataService;
+import com.molla.service.StoreService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/super-admin")
+@RequiredArgsConstructor
+public class SuperAdminController {
+
+    private final ReferenceDataService referenceDataService;
+    private final StoreService storeService;
+    private final PoolTelemetry poolTelemetry;
+    private final SqlStatsRegistry sqlStatsRegistry;
+
+    @GetMapping("/reference-cache")
+    public ResponseEntity<ReferenceCacheStatsDto> getReferenceCacheStats() {
+        return ResponseEntity.ok(referenceDataService.getStats());
+    }
+
+    @GetMapping("/shards")
+    public ResponseEntity<List<ShardSummaryDto>> getShardSummaries() {
+        return ResponseEntity.ok(storeService.getShardSummaries());
+    }
+
+    @GetMapping("/pool-stats")
+    public ResponseEntity<List<PoolStatsDto>> getPoolStats() {
+        return ResponseEntity.ok(poolTelemetry.snapshot());
+    }
+
+    @GetMapping("/sql-stats")
+    public ResponseEntity<SqlStatsReportDto> getSqlStats(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(sqlStatsRegistry.snapshot(limit));
+    }
+
+    @DeleteMapping("/sql-stats")
+    public ResponseEntity<Void> resetSqlStats() {
+        sqlStatsRegistry.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -29,7 +29,7 @@ public class UserController {
             defaultUser.setBranchId(1L);
             return ResponseEntity.ok(defaultUser);
         }
-        User user = userService.getUserFromJwt(jwt);
+        User user = userService.getUser(userService.getCurrentPrincipal());
         return  ResponseEntity.ok(UserMapper.toDto(user));
 
     }
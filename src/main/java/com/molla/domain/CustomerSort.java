@@ -0,0 +1,6 @@
+package com.molla.domain;
+
+public enum CustomerSort {
+    NAME,
+    NEWEST
+}
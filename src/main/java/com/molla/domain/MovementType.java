@@ -0,0 +1,8 @@
+package com.molla.domain;
+
+public enum MovementType {
+    SALE,
+    REFUND,
+    ADJUSTMENT,
+    TRANSFER
+}
@@ -0,0 +1,27 @@
+package com.molla.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever an inventory row's quantity or reorder level changes.
+ * Listeners run synchronously on the writing thread.
+ */
+@Getter
+@AllArgsConstructor
+public class StockLevelChangedEvent {
+
+    private final Long inventoryId;
+
+    private final Long branchId;
+
+    private final Long productId;
+
+    private final Integer previousQuantity;
+
+    private final Integer quantity;
+
+    private final Integer previousReorderLevel;
+
+    private final Integer reorderLevel;
+}
@@ -0,0 +1,8 @@
+package com.molla.exceptions;
+
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(String endpoint, int budget) {
+        super("Query budget exceeded in " + endpoint + ": more than " + budget + " SQL statements");
+    }
+}
@@ -4,6 +4,8 @@ import com.molla.model.Branch;
 import com.molla.model.Store;
 import com.molla.payload.dto.BranchDto;
 
+import java.util.ArrayList;
+
 public class BranchMapper {
 
     public static BranchDto toDto(Branch branch) {
@@ -13,7 +15,8 @@ public class BranchMapper {
         .phone(branch.getPhone())
         .address(branch.getAddress())
         .email(branch.getEmail())
-        .workingDays(branch.getWorkingDays())
+        // Copied so the DTO does not hold on to Hibernate's lazy collection
+        .workingDays(branch.getWorkingDays() != null ? new ArrayList<>(branch.getWorkingDays()) : null)
         .openTime(branch.getOpenTime())
         .closeTime(branch.getCloseTime())
         .createdAt(branch.getCreatedAt())
@@ -14,6 +14,7 @@ public class InventoryMapper {
                 .branch(BranchMapper.toDto(inventory.getBranch()))
                 .product(ProductMapper.toDto(inventory.getProduct()))
                 .quantity(inventory.getQuantity())
+                .reorderLevel(inventory.getReorderLevel())
                 .lastUpdated(inventory.getLastUpdated())
                 .build();
     }
@@ -23,6 +24,7 @@ public class InventoryMapper {
                 .branch(branch)
                 .product(product)
                 .quantity(inventoryDto.getQuantity())
+                .reorderLevel(inventoryDto.getReorderLevel())
                 .lastUpdated(inventoryDto.getLastUpdated())
                 .build();
     }
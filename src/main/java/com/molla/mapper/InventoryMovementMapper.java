@@ -0,0 +1,24 @@
+package com.molla.mapper;
+
+import com.molla.model.InventoryMovement;
+import com.molla.payload.dto.InventoryMovementDto;
+
+public class InventoryMovementMapper {
+
+    public static InventoryMovementDto toDto(InventoryMovement movement) {
+        if (movement == null) {
+            return null;
+        }
+        return InventoryMovementDto.builder()
+            .id(movement.getId())
+            .inventoryId(movement.getInventoryId())
+            .branchId(movement.getBranchId())
+            .productId(movement.getProductId())
+            .type(movement.getType())
+            .delta(movement.getDelta())
+            .quantityAfter(movement.getQuantityAfter())
+            .reference(movement.getReference())
+            .createdAt(movement.getCreatedAt())
+            .build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.molla.mapper;
+
+import com.molla.model.LowStockAlert;
+import com.molla.payload.dto.LowStockAlertDto;
+
+public class LowStockAlertMapper {
+
+    public static LowStockAlertDto toDto(LowStockAlert alert) {
+        if (alert == null) {
+            return null;
+        }
+        return LowStockAlertDto.builder()
+            .id(alert.getId())
+            .inventoryId(alert.getInventory() != null ? alert.getInventory().getId() : null)
+            .branchId(alert.getBranch() != null ? alert.getBranch().getId() : null)
+            .productId(alert.getProduct() != null ? alert.getProduct().getId() : null)
+            .productName(alert.getProduct() != null ? alert.getProduct().getName() : null)
+            .sku(alert.getProduct() != null ? alert.getProduct().getSku() : null)
+            .quantityAtAlert(alert.getQuantity())
+            .currentQuantity(alert.getInventory() != null ? alert.getInventory().getQuantity() : null)
+            .reorderLevel(alert.getReorderLevel())
+            .createdAt(alert.getCreatedAt())
+            .build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.molla.mapper;
+
+import com.molla.model.StockTransfer;
+import com.molla.model.StockTransferLine;
+import com.molla.payload.dto.StockTransferDto;
+import com.molla.payload.dto.StockTransferLineDto;
+
+import java.util.stream.Collectors;
+
+public class StockTransferMapper {
+
+    public static StockTransferDto toDto(StockTransfer transfer) {
+        if (transfer == null) {
+            return null;
+        }
+        return StockTransferDto.builder()
+            .id(transfer.getId())
+            .fromBranchId(transfer.getFromBranch() != null ? transfer.getFromBranch().getId() : null)
+            .toBranchId(transfer.getToBranch() != null ? transfer.getToBranch().getId() : null)
+            .status(transfer.getStatus())
+            .reference(transfer.getReference())
+            .createdAt(transfer.getCreatedAt())
+            .appliedAt(transfer.getAppliedAt())
+            .lines(transfer.getLines() != null ?
+                transfer.getLines().stream().map(StockTransferMapper::toLineDto).collect(Collectors.toList()) :
+                null)
+            .build();
+    }
+
+    public static StockTransferLineDto toLineDto(StockTransferLine line) {
+        return StockTransferLineDto.builder()
+            .id(line.getId())
+            .productId(line.getProduct() != null ? line.getProduct().getId() : null)
+            .productName(line.getProduct() != null ? line.getProduct().getName() : null)
+            .quantity(line.getQuantity())
+            .build();
+    }
+}
@@ -28,6 +28,7 @@ public class UserMapper {
         userDto.setCreatedAt(newUser.getCreatedAt());
         userDto.setUpdatedAt(newUser.getUpdatedAt());
         userDto.setLastLoginAt(newUser.getLastLoginAt());
+        userDto.setActive(!Boolean.FALSE.equals(newUser.getActive()));
         userDto.setBranchId(newUser.getBranch()!=null?newUser.getBranch().getId():null);
         userDto.setStoreId(newUser.getStore()!=null?newUser.getStore().getId():null );
         return userDto;
@@ -45,6 +46,7 @@ public class UserMapper {
         createdUser.setCreatedAt(LocalDateTime.now());
         createdUser.setUpdatedAt(LocalDateTime.now());
         createdUser.setLastLoginAt(LocalDateTime.now());
+        createdUser.setActive(!Boolean.FALSE.equals(userDto.getActive()));
         return createdUser;
     }
 }
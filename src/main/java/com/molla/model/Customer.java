@@ -1,18 +1,26 @@
 package com.molla.model;
 
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import jakarta.persistence.Column;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
 @Getter
@@ -21,6 +29,16 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @EqualsAndHashCode
 @JsonIgnoreProperties(ignoreUnknown = true)
+@Table(indexes = {
+        @Index(name = "idx_customer_store_phone", columnList = "store_id, phone_key"),
+        @Index(name = "idx_customer_store_email", columnList = "store_id, email_key"),
+        @Index(name = "idx_customer_phone", columnList = "phone_key"),
+        @Index(name = "idx_customer_email", columnList = "email_key"),
+        @Index(name = "idx_customer_store_name", columnList = "store_id, name_key, id"),
+        @Index(name = "idx_customer_store_created", columnList = "store_id, created_at, id"),
+        @Index(name = "idx_customer_name", columnList = "name_key, id"),
+        @Index(name = "idx_customer_created", columnList = "created_at, id")
+})
 public class Customer {
 
     @Id
@@ -34,6 +52,28 @@ public class Customer {
 
     private String phone;
 
+    // Store the customer registered at; searches from a till stay within its store
+    private Long storeId;
+
+    // Search keys maintained by CustomerServiceImpl from name, email and phone
+    @JsonIgnore
+    private String phoneKey;
+
+    @JsonIgnore
+    private String emailKey;
+
+    @JsonIgnore
+    private String nameKey;
+
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ElementCollection
+    @CollectionTable(name = "customer_name_token",
+            joinColumns = @JoinColumn(name = "customer_id"),
+            indexes = @Index(name = "idx_customer_name_token", columnList = "token, customer_id"))
+    @Column(name = "token", nullable = false)
+    private Set<String> nameTokens = new HashSet<>();
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
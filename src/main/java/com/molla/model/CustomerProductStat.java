@@ -0,0 +1,30 @@
+package com.molla.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Units of a product a customer has bought; the top rows are their favourite products
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(
+        uniqueConstraints = @UniqueConstraint(name = "uk_customer_product_stat", columnNames = {"customer_id", "product_id"}),
+        indexes = @Index(name = "idx_customer_product_stat_top", columnList = "customer_id, quantity"))
+public class CustomerProductStat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long customerId;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+}
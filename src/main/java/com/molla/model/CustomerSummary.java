@@ -0,0 +1,33 @@
+package com.molla.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// One row per customer, kept current as orders and refunds are written so checkout
+// never has to aggregate a customer's full history
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerSummary {
+
+    @Id
+    private Long customerId;
+
+    @Column(nullable = false)
+    private Double totalSpent;
+
+    @Column(nullable = false)
+    private Double refundedAmount;
+
+    @Column(nullable = false)
+    private Integer orderCount;
+
+    private LocalDateTime lastOrderAt;
+
+    private LocalDateTime updatedAt;
+}
@@ -26,6 +26,9 @@ public class Inventory {
     @Column(nullable = false)
     private Integer quantity;
 
+    // Quantity at or below which the branch should reorder this product (null = no alerting)
+    private Integer reorderLevel;
+
     private LocalDateTime lastUpdated;
 
     @PreUpdate
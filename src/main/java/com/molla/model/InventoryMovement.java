@@ -0,0 +1,52 @@
+package com.molla.model;
+
+import com.molla.domain.MovementType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Append-only: rows are never updated or deleted. Plain id columns keep inserts to a single
+// statement without loading the inventory, branch or product entities. Identity ids follow
+// insertion order, which snapshot compaction relies on for its watermark.
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(indexes = {
+        @Index(name = "idx_inventory_movement_inventory", columnList = "inventory_id, id"),
+        @Index(name = "idx_inventory_movement_created", columnList = "created_at")
+})
+public class InventoryMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long inventoryId;
+
+    private Long branchId;
+
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private MovementType type;
+
+    @Column(nullable = false)
+    private Integer delta;
+
+    private Integer quantityAfter;
+
+    private String reference; // e.g. "order:42", "refund:7"
+
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
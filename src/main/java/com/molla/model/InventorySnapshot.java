@@ -0,0 +1,42 @@
+package com.molla.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Folded stock level of one inventory row up to and including lastMovementId
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(indexes = {
+        @Index(name = "idx_inventory_snapshot_inventory", columnList = "inventory_id, last_movement_id"),
+        @Index(name = "idx_inventory_snapshot_watermark", columnList = "last_movement_id")
+})
+public class InventorySnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long inventoryId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private Long lastMovementId;
+
+    private Integer movementCount; // movements folded into this snapshot since the previous one
+
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
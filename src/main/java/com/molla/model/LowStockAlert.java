@@ -0,0 +1,49 @@
+package com.molla.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(indexes = {
+        @Index(name = "idx_low_stock_alert_branch_open", columnList = "branch_id, resolved_at, created_at"),
+        @Index(name = "idx_low_stock_alert_inventory_open", columnList = "inventory_id, resolved_at")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_low_stock_alert_open", columnNames = "open_inventory_id")
+})
+public class LowStockAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @ManyToOne
+    private Inventory inventory;
+
+    @ManyToOne
+    private Branch branch;
+
+    @ManyToOne
+    private Product product;
+
+    private Integer quantity; // stock level at the moment the threshold was crossed
+
+    private Integer reorderLevel;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime resolvedAt; // null while the alert is still open
+
+    private Long openInventoryId; // the inventory id while open, null once resolved; unique, so one open alert per row
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
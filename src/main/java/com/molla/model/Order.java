@@ -16,7 +16,9 @@ import java.util.List;
 @RequiredArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_customer_created", columnList = "customer_id, created_at")
+})
 public class Order {
 
     @Id
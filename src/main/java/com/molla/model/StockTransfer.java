@@ -0,0 +1,51 @@
+package com.molla.model;
+
+import com.molla.domain.TransferStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(indexes = {
+        @Index(name = "idx_stock_transfer_from_branch", columnList = "from_branch_id, created_at"),
+        @Index(name = "idx_stock_transfer_to_branch", columnList = "to_branch_id, created_at")
+})
+public class StockTransfer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @ManyToOne
+    private Branch fromBranch; // Stock is debited here
+
+    @ManyToOne
+    private Branch toBranch; // and credited here
+
+    @OneToMany(mappedBy = "transfer", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<StockTransferLine> lines;
+
+    @Enumerated(EnumType.STRING)
+    private TransferStatus status;
+
+    private String reference;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime appliedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (status == null) {
+            status = TransferStatus.DRAFT;
+        }
+    }
+}
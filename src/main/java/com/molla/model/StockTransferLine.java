@@ -0,0 +1,26 @@
+package com.molla.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockTransferLine {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @ManyToOne
+    private StockTransfer transfer;
+
+    @ManyToOne
+    private Product product;
+
+    @Column(nullable = false)
+    private Integer quantity;
+}
@@ -8,13 +8,19 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.Email;
 import lombok.*;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_user_store_role", columnList = "store_id, role"),
+        @Index(name = "idx_user_branch_role", columnList = "branch_id, role")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -51,6 +57,12 @@ public class User {
     private  LocalDateTime updatedAt;
     private  LocalDateTime lastLoginAt;
 
+    // Bumped when branch, role or the active flag change so tokens carrying the old claims stop working
+    private Integer claimsVersion;
+
+    // Null on rows created before the flag existed; treated as active
+    private Boolean active;
+
     public String getEmail() {
         return email;
     }
@@ -0,0 +1,21 @@
+package com.molla.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Which shard holds the user with a login email; only the default shard's rows are used
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "user_directory")
+public class UserDirectoryEntry {
+
+    @Id
+    private String email;
+
+    @Column(nullable = false, length = 64)
+    private String shard;
+}
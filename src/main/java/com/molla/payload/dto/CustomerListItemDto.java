@@ -0,0 +1,25 @@
+package com.molla.payload.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Directory row: just what the customer list shows, selected directly into the DTO
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerListItemDto {
+    private Long id;
+    private String name;
+    private String email;
+    private String phone;
+    private LocalDateTime createdAt;
+
+    @JsonIgnore
+    private String nameKey;
+}
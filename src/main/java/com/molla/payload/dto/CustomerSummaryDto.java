@@ -0,0 +1,23 @@
+package com.molla.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerSummaryDto {
+    private Long customerId;
+    private Double totalSpent;
+    private Double refundedAmount;
+    private Double netSpent;
+    private Integer orderCount;
+    private LocalDateTime lastOrderAt;
+    private List<FavouriteProductDto> favouriteProducts;
+}
@@ -0,0 +1,26 @@
+package com.molla.payload.dto;
+
+import com.molla.domain.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Staff directory row: selected directly into the DTO, no store/branch entities loaded
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeListItemDto {
+    private Long id;
+    private String fullName;
+    private String email;
+    private String phone;
+    private UserRole role;
+    private Long storeId;
+    private Long branchId;
+    private Boolean active;
+    private LocalDateTime lastLoginAt;
+}
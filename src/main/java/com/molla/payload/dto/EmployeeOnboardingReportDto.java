@@ -0,0 +1,20 @@
+package com.molla.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Outcome of a bulk import: rows that were created and rows skipped with the reason
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeOnboardingReportDto {
+    private Long branchId;
+    private List<UserDto> created;
+    private List<RejectedEmployeeDto> rejected;
+    private Long managerId;
+}
@@ -0,0 +1,25 @@
+package com.molla.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EndpointSqlStatsDto {
+    private String endpoint;
+    private long requests;
+    private long statements;
+    private double meanStatements;
+    private long maxStatements;
+    private double jdbcMillis;
+    private double meanJdbcMillis;
+    private double maxJdbcMillis;
+    private long entitiesLoaded;
+    private long slowStatements;
+    private int budget;
+    private long budgetViolations;
+}
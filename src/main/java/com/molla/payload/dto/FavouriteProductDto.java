@@ -0,0 +1,16 @@
+package com.molla.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FavouriteProductDto {
+    private Long productId;
+    private String productName;
+    private Integer quantity;
+}
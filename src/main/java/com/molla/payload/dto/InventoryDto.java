@@ -18,6 +18,7 @@ public class InventoryDto {
     private BranchDto branch;
     private ProductDto product;
     private Integer quantity;
+    private Integer reorderLevel;
     private LocalDateTime lastUpdated;
 
     // IDs used when creating/updating inventory
@@ -0,0 +1,25 @@
+package com.molla.payload.dto;
+
+import com.molla.domain.MovementType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryMovementDto {
+    private Long id;
+    private Long inventoryId;
+    private Long branchId;
+    private Long productId;
+    private MovementType type;
+    private Integer delta;
+    private Integer quantityAfter;
+    private String reference;
+    private LocalDateTime createdAt;
+}
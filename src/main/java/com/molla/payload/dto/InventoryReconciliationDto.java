@@ -0,0 +1,24 @@
+package com.molla.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryReconciliationDto {
+    private Long inventoryId;
+    private Integer snapshotQuantity;
+    private Long snapshotMovementId;
+    private LocalDateTime snapshotCreatedAt;
+    private Integer movementsSinceSnapshot;
+    private Integer netChangeSinceSnapshot;
+    private Integer ledgerQuantity;
+    private Integer currentQuantity;
+    private Boolean balanced;
+}
@@ -0,0 +1,25 @@
+package com.molla.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LowStockAlertDto {
+    private Long id;
+    private Long inventoryId;
+    private Long branchId;
+    private Long productId;
+    private String productName;
+    private String sku;
+    private Integer quantityAtAlert;
+    private Integer currentQuantity;
+    private Integer reorderLevel;
+    private LocalDateTime createdAt;
+}
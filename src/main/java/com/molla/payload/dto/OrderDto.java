@@ -22,6 +22,7 @@ public class OrderDto {
     private Long branchId;
     private Long cashierId;
     private Long customerId;
+    private String cartId;
     private LocalDateTime createdAt;
     private BranchDto branch;
     private UserDto cashier;
@@ -0,0 +1,27 @@
+package com.molla.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PoolStatsDto {
+    private String pool;
+    private int active;
+    private int idle;
+    private int total;
+    private int pending;
+    private int max;
+    private long acquires;
+    private double meanAcquireMillis;
+    private double maxAcquireMillis;
+    private long slowAcquires;
+    private long timeouts;
+    private Map<String, Long> acquireHistogram;
+}
@@ -0,0 +1,19 @@
+package com.molla.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReferenceCacheStatsDto {
+    private int cachedStores;
+    private long hits;
+    private long misses;
+    private double hitRatio;
+    private long loads;
+    private long invalidations;
+}
@@ -0,0 +1,8 @@
+package com.molla.payload.dto;
+
+import lombok.Data;
+
+@Data
+public class RefreshTokenDto {
+    private String refreshToken;
+}
@@ -0,0 +1,13 @@
+package com.molla.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RejectedEmployeeDto {
+    private String email;
+    private String reason;
+}
@@ -0,0 +1,13 @@
+package com.molla.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardSummaryDto {
+    private String shard;
+    private long storeCount;
+}
@@ -0,0 +1,19 @@
+package com.molla.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlowQueryDto {
+    private String endpoint;
+    private String sql;
+    private double millis;
+    private LocalDateTime capturedAt;
+}
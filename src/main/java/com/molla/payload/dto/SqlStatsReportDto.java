@@ -0,0 +1,18 @@
+package com.molla.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SqlStatsReportDto {
+    private long slowQueryThresholdMs;
+    private List<EndpointSqlStatsDto> endpoints;
+    private List<SlowQueryDto> recentSlowQueries;
+}
@@ -0,0 +1,21 @@
+package com.molla.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationDto {
+    private String cartId;
+    private Long branchId;
+    private Long productId;
+    private Integer quantity;
+    private Integer available;
+    private LocalDateTime expiresAt;
+}
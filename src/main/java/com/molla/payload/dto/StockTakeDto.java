@@ -0,0 +1,17 @@
+package com.molla.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockTakeDto {
+    private String reference; // free text recorded on every ledger movement, e.g. "count 2025-03"
+    private List<StockCountDto> counts;
+}
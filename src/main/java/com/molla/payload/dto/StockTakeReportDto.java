@@ -0,0 +1,21 @@
+package com.molla.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockTakeReportDto {
+    private Long branchId;
+    private Integer productsCounted;
+    private Integer productsAdjusted;
+    private Integer inventoriesCreated;
+    private Integer totalVariance;
+    private List<StockVarianceDto> variances; // only lines whose count differed from stock
+}
@@ -0,0 +1,25 @@
+package com.molla.payload.dto;
+
+import com.molla.domain.TransferStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockTransferDto {
+    private Long id;
+    private Long fromBranchId;
+    private Long toBranchId;
+    private TransferStatus status;
+    private String reference;
+    private LocalDateTime createdAt;
+    private LocalDateTime appliedAt;
+    private List<StockTransferLineDto> lines;
+}
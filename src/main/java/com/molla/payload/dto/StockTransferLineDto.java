@@ -0,0 +1,17 @@
+package com.molla.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockTransferLineDto {
+    private Long id;
+    private Long productId;
+    private String productName;
+    private Integer quantity;
+}
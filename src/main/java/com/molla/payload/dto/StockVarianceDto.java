@@ -0,0 +1,18 @@
+package com.molla.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockVarianceDto {
+    private Long productId;
+    private Long inventoryId;
+    private Integer previousQuantity;
+    private Integer countedQuantity;
+    private Integer variance;
+}
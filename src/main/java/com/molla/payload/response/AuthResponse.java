@@ -7,6 +7,7 @@ import com.molla.payload.dto.UserDto;
 public class AuthResponse {
 
     private String jwt;
+    private String refreshToken;
     private String message;
     private UserDto user;
 
@@ -0,0 +1,16 @@
+package com.molla.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PageResponse<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+}
@@ -1,11 +1,13 @@
 package com.molla.repository;
 
 import com.molla.model.Branch;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
 
 public interface BranchRepository extends JpaRepository<Branch, Long> {
 
+    @EntityGraph(attributePaths = "workingDays")
     List<Branch> findByStoreId(Long storeId);
 }
@@ -0,0 +1,24 @@
+package com.molla.repository;
+
+import com.molla.model.CustomerProductStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface CustomerProductStatRepository extends JpaRepository<CustomerProductStat, Long> {
+
+    List<CustomerProductStat> findTop5ByCustomerIdOrderByQuantityDesc(Long customerId);
+
+    @Modifying
+    @Query("UPDATE CustomerProductStat s SET s.quantity = s.quantity + :quantity WHERE s.customerId = :customerId AND s.productId = :productId")
+    int addQuantity(@Param("customerId") Long customerId,
+                    @Param("productId") Long productId,
+                    @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("DELETE FROM CustomerProductStat s WHERE s.customerId = :customerId")
+    int deleteByCustomerId(@Param("customerId") Long customerId);
+}
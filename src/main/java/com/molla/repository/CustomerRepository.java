@@ -1,11 +1,32 @@
 package com.molla.repository;
 
 import com.molla.model.Customer;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
+import java.util.Optional;
+
+// Search finders only use exact or trailing-wildcard matches on the indexed search keys
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerRepositoryCustom {
+
+    List<Customer> findByEmailKey(String emailKey, Pageable pageable);
+
+    List<Customer> findByStoreIdAndEmailKey(Long storeId, String emailKey, Pageable pageable);
+
+    List<Customer> findByPhoneKeyStartingWithOrderByPhoneKey(String phonePrefix, Pageable pageable);
+
+    List<Customer> findByStoreIdAndPhoneKeyStartingWithOrderByPhoneKey(Long storeId, String phonePrefix, Pageable pageable);
 
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+    // Serialises writers of one customer's summary; taken before anything else touches the customer
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Customer c WHERE c.id = :id")
+    Optional<Customer> findByIdForUpdate(@Param("id") Long id);
 
-    List<Customer> findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(String name, String email);
-    
+    // Rows written before the search keys existed
+    List<Customer> findByNameKeyIsNull(Pageable pageable);
 }
@@ -0,0 +1,27 @@
+package com.molla.repository;
+
+import com.molla.domain.CustomerSort;
+import com.molla.model.Customer;
+import com.molla.payload.dto.CustomerListItemDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface CustomerRepositoryCustom {
+
+    /**
+     * Keyset page of the customer directory: rows strictly after the given position in
+     * the chosen order. Pass null position values for the first page. Rows without a sort
+     * key come last, by id; a position with an id but no key is one of those rows.
+     */
+    List<CustomerListItemDto> findDirectoryPage(Long storeId, CustomerSort sort,
+                                                String afterNameKey, LocalDateTime afterCreatedAt, Long afterId,
+                                                int limit);
+
+    /**
+     * Customers with a name token starting with each of the given prefixes, in name order.
+     * Each prefix must match a different token. The first prefix drives the token index
+     * lookup, so pass the most selective one first; only the first four are used.
+     */
+    List<Customer> findByNameTokenPrefixes(Long storeId, List<String> prefixes, int limit);
+}
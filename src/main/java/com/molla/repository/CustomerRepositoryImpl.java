@@ -0,0 +1,113 @@
+package com.molla.repository;
+
+import com.molla.domain.CustomerSort;
+import com.molla.model.Customer;
+import com.molla.payload.dto.CustomerListItemDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Each combination of store scope, sort and cursor produces a predicate that the
+// (store_id, name_key, id) or (store_id, created_at, id) index can seek to directly
+public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
+
+    // Each prefix adds a self-join on the token table, so a long query must not add dozens
+    static final int MAX_NAME_PREFIXES = 4;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Rows without a sort key (a NULL created_at or name_key) follow all keyed rows, in id order.
+    // Keeping them out of the keyed query keeps NULL ordering out of SQL, where it differs by database.
+    @Override
+    public List<CustomerListItemDto> findDirectoryPage(Long storeId, CustomerSort sort,
+                                                       String afterNameKey, LocalDateTime afterCreatedAt, Long afterId,
+                                                       int limit) {
+        boolean byName = sort == CustomerSort.NAME;
+        Object afterKey = byName ? afterNameKey : afterCreatedAt;
+        boolean inUnkeyedTail = afterId != null && afterKey == null;
+
+        List<CustomerListItemDto> rows = new ArrayList<>();
+        if (!inUnkeyedTail) {
+            rows.addAll(directoryQuery(storeId, byName, true, afterKey, afterId, limit));
+        }
+        if (rows.size() < limit) {
+            rows.addAll(directoryQuery(storeId, byName, false, null, inUnkeyedTail ? afterId : null, limit - rows.size()));
+        }
+        return rows;
+    }
+
+    private List<CustomerListItemDto> directoryQuery(Long storeId, boolean byName, boolean keyed,
+                                                     Object afterKey, Long afterId, int limit) {
+        String key = byName ? "c.nameKey" : "c.createdAt";
+        StringBuilder jpql = new StringBuilder(
+            "SELECT new com.molla.payload.dto.CustomerListItemDto(c.id, c.name, c.email, c.phone, c.createdAt, c.nameKey) "
+                + "FROM Customer c WHERE " + key + (keyed ? " IS NOT NULL" : " IS NULL"));
+        if (storeId != null) {
+            jpql.append(" AND c.storeId = :storeId");
+        }
+
+        if (afterId != null) {
+            if (keyed) {
+                jpql.append(byName
+                    ? " AND (c.nameKey > :afterKey OR (c.nameKey = :afterKey AND c.id > :afterId))"
+                    : " AND (c.createdAt < :afterKey OR (c.createdAt = :afterKey AND c.id < :afterId))");
+            } else {
+                jpql.append(byName ? " AND c.id > :afterId" : " AND c.id < :afterId");
+            }
+        }
+        if (keyed) {
+            jpql.append(byName ? " ORDER BY c.nameKey ASC, c.id ASC" : " ORDER BY c.createdAt DESC, c.id DESC");
+        } else {
+            jpql.append(byName ? " ORDER BY c.id ASC" : " ORDER BY c.id DESC");
+        }
+
+        TypedQuery<CustomerListItemDto> query = entityManager.createQuery(jpql.toString(), CustomerListItemDto.class);
+        if (storeId != null) {
+            query.setParameter("storeId", storeId);
+        }
+        if (afterId != null) {
+            if (keyed) {
+                query.setParameter("afterKey", afterKey);
+            }
+            query.setParameter("afterId", afterId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    // One join per token, so every token is matched in the database and a page holds
+    // only full matches; the extra joins are seeks on the (customer_id, token) key.
+    // The joined tokens must differ, so "jo jon" needs two names and not just "jonathan"
+    @Override
+    public List<Customer> findByNameTokenPrefixes(Long storeId, List<String> allPrefixes, int limit) {
+        List<String> prefixes = allPrefixes.subList(0, Math.min(allPrefixes.size(), MAX_NAME_PREFIXES));
+        StringBuilder jpql = new StringBuilder("SELECT DISTINCT c FROM Customer c");
+        for (int i = 0; i < prefixes.size(); i++) {
+            jpql.append(" JOIN c.nameTokens t").append(i);
+        }
+        jpql.append(" WHERE 1 = 1");
+        if (storeId != null) {
+            jpql.append(" AND c.storeId = :storeId");
+        }
+        for (int i = 0; i < prefixes.size(); i++) {
+            jpql.append(" AND t").append(i).append(" LIKE :prefix").append(i);
+            for (int j = 0; j < i; j++) {
+                jpql.append(" AND t").append(i).append(" <> t").append(j);
+            }
+        }
+        jpql.append(" ORDER BY c.nameKey ASC, c.id ASC");
+
+        TypedQuery<Customer> query = entityManager.createQuery(jpql.toString(), Customer.class);
+        if (storeId != null) {
+            query.setParameter("storeId", storeId);
+        }
+        for (int i = 0; i < prefixes.size(); i++) {
+            query.setParameter("prefix" + i, prefixes.get(i) + "%");
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,37 @@
+package com.molla.repository;
+
+import com.molla.model.CustomerSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface CustomerSummaryRepository extends JpaRepository<CustomerSummary, Long> {
+
+    // Relative updates so concurrent checkouts for the same customer both count
+    @Modifying
+    @Query("""
+        UPDATE CustomerSummary s
+        SET s.totalSpent = s.totalSpent + :amount,
+            s.orderCount = s.orderCount + 1,
+            s.lastOrderAt = CASE WHEN s.lastOrderAt IS NULL OR s.lastOrderAt < :orderedAt THEN :orderedAt ELSE s.lastOrderAt END,
+            s.updatedAt = :now
+        WHERE s.customerId = :customerId
+    """)
+    int addOrder(@Param("customerId") Long customerId,
+                 @Param("amount") double amount,
+                 @Param("orderedAt") LocalDateTime orderedAt,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+        UPDATE CustomerSummary s
+        SET s.refundedAmount = s.refundedAmount + :amount, s.updatedAt = :now
+        WHERE s.customerId = :customerId
+    """)
+    int addRefund(@Param("customerId") Long customerId,
+                  @Param("amount") double amount,
+                  @Param("now") LocalDateTime now);
+}
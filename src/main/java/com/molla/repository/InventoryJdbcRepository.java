@@ -0,0 +1,80 @@
+package com.molla.repository;
+
+import com.molla.model.InventoryMovement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Set-based stock writes that would otherwise cost one entity load and save per row
+@Repository
+@RequiredArgsConstructor
+public class InventoryJdbcRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Applies each movement's delta to its inventory row as a relative update
+    public void applyDeltas(List<InventoryMovement> movements) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+            "UPDATE inventory SET quantity = quantity + ?, last_updated = ? WHERE id = ?",
+            movements, BATCH_SIZE,
+            (ps, movement) -> {
+                ps.setInt(1, movement.getDelta());
+                ps.setTimestamp(2, now);
+                ps.setLong(3, movement.getInventoryId());
+            });
+    }
+
+    // Debits each movement's quantity only where the row still holds at least that much.
+    // Returns the ids of rows that could not cover their debit.
+    public List<Long> debitIfAvailable(List<InventoryMovement> debits) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(
+            "UPDATE inventory SET quantity = quantity - ?, last_updated = ? WHERE id = ? AND quantity >= ?",
+            debits, BATCH_SIZE,
+            (ps, movement) -> {
+                int quantity = -movement.getDelta();
+                ps.setInt(1, quantity);
+                ps.setTimestamp(2, now);
+                ps.setLong(3, movement.getInventoryId());
+                ps.setInt(4, quantity);
+            });
+
+        List<Long> shortRows = new ArrayList<>();
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count != 1) {
+                    shortRows.add(debits.get(i).getInventoryId());
+                }
+                i++;
+            }
+        }
+        return shortRows;
+    }
+
+    public void insertMovements(List<InventoryMovement> movements) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO inventory_movement (inventory_id, branch_id, product_id, type, delta, quantity_after, reference, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+            movements, BATCH_SIZE,
+            (ps, movement) -> {
+                ps.setLong(1, movement.getInventoryId());
+                ps.setObject(2, movement.getBranchId());
+                ps.setObject(3, movement.getProductId());
+                ps.setString(4, movement.getType().name());
+                ps.setInt(5, movement.getDelta());
+                ps.setObject(6, movement.getQuantityAfter());
+                ps.setString(7, movement.getReference());
+                ps.setTimestamp(8, now);
+            });
+    }
+}
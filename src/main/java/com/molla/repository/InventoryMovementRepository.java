@@ -0,0 +1,29 @@
+package com.molla.repository;
+
+import com.molla.model.InventoryMovement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long> {
+
+    List<InventoryMovement> findByInventoryIdOrderByIdDesc(Long inventoryId, Pageable pageable);
+
+    List<InventoryMovement> findByInventoryIdAndIdGreaterThanOrderByIdAsc(Long inventoryId, Long afterId);
+
+    @Query("SELECT MAX(m.id) FROM InventoryMovement m WHERE m.createdAt < :before")
+    Long findMaxIdCreatedBefore(@Param("before") LocalDateTime before);
+
+    // One row per inventory: [inventoryId, sum(delta), count, min(id), max(id)]
+    @Query("""
+        SELECT m.inventoryId, SUM(m.delta), COUNT(m), MIN(m.id), MAX(m.id)
+        FROM InventoryMovement m
+        WHERE m.id > :afterId AND m.id <= :uptoId
+        GROUP BY m.inventoryId
+    """)
+    List<Object[]> foldRange(@Param("afterId") Long afterId, @Param("uptoId") Long uptoId);
+}
@@ -2,7 +2,12 @@ package com.molla.repository;
 
 import com.molla.model.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +16,44 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     Optional<Inventory> findByProductIdAndBranchId(Long productId, Long branchId);
 
     List<Inventory> findByBranchId(Long branchId);
+
+    @Query("SELECT i.id FROM Inventory i WHERE i.product.id = :productId AND i.branch.id = :branchId")
+    Optional<Long> findIdByProductIdAndBranchId(@Param("productId") Long productId, @Param("branchId") Long branchId);
+
+    // Relative update so concurrent tills never overwrite each other's decrements
+    @Modifying
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity + :delta, i.lastUpdated = :now WHERE i.id = :id")
+    int addToQuantity(@Param("id") Long id, @Param("delta") int delta, @Param("now") LocalDateTime now);
+
+    // Debits only while the row still holds enough, so two tills cannot both sell the last unit
+    @Modifying
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity - :quantity, i.lastUpdated = :now WHERE i.id = :id AND i.quantity >= :quantity")
+    int subtractIfAvailable(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Inventory i SET i.reorderLevel = :reorderLevel WHERE i.id = :id")
+    int updateReorderLevel(@Param("id") Long id, @Param("reorderLevel") Integer reorderLevel);
+
+    @Query("""
+        SELECT i.id AS id, i.branch.id AS branchId, i.product.id AS productId,
+               i.quantity AS quantity, i.reorderLevel AS reorderLevel
+        FROM Inventory i WHERE i.id = :id
+    """)
+    Optional<StockLevel> findStockLevelById(@Param("id") Long id);
+
+    @Query("""
+        SELECT i.id AS id, i.branch.id AS branchId, i.product.id AS productId,
+               i.quantity AS quantity, i.reorderLevel AS reorderLevel
+        FROM Inventory i WHERE i.branch.id = :branchId AND i.product.id IN :productIds
+    """)
+    List<StockLevel> findStockLevelsByBranchIdAndProductIdIn(@Param("branchId") Long branchId,
+                                                             @Param("productIds") Collection<Long> productIds);
+
+    interface StockLevel {
+        Long getId();
+        Long getBranchId();
+        Long getProductId();
+        Integer getQuantity();
+        Integer getReorderLevel();
+    }
 }
@@ -0,0 +1,27 @@
+package com.molla.repository;
+
+import com.molla.model.InventorySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshot, Long> {
+
+    Optional<InventorySnapshot> findTopByInventoryIdOrderByLastMovementIdDesc(Long inventoryId);
+
+    @Query("SELECT MAX(s.lastMovementId) FROM InventorySnapshot s")
+    Long findCompactionWatermark();
+
+    @Query("""
+        SELECT s FROM InventorySnapshot s
+        WHERE s.inventoryId IN :inventoryIds
+        AND s.lastMovementId = (
+            SELECT MAX(s2.lastMovementId) FROM InventorySnapshot s2 WHERE s2.inventoryId = s.inventoryId
+        )
+    """)
+    List<InventorySnapshot> findLatestByInventoryIdIn(@Param("inventoryIds") Collection<Long> inventoryIds);
+}
@@ -0,0 +1,16 @@
+package com.molla.repository;
+
+import com.molla.model.LowStockAlert;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface LowStockAlertRepository extends JpaRepository<LowStockAlert, Long> {
+
+    Optional<LowStockAlert> findFirstByInventoryIdAndResolvedAtIsNull(Long inventoryId);
+
+    List<LowStockAlert> findByBranchIdAndResolvedAtIsNullOrderByCreatedAtDesc(Long branchId);
+
+    void deleteByInventoryId(Long inventoryId);
+}
@@ -1,16 +1,22 @@
 package com.molla.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 
 import com.molla.model.Order;
 import com.molla.model.User;
+import jakarta.persistence.LockModeType;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByCustomerId(Long customerId);
+    List<Order> findByCustomerIdOrderByCreatedAtDescIdDesc(Long customerId, Pageable pageable);
     List<Order> findByBranchId(Long branchId);
     List<Order> findByCashierId(Long cashierId);
     List<Order> findByBranchIdAndCreatedAtBetween(Long branchId, LocalDateTime startDate, LocalDateTime endDate);
@@ -18,4 +24,16 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     List<Order> findTop5ByBranchIdOrderByCreatedAtDesc(Long branchId);
 
+    // Serialises refunds of one order so their running total is read consistently
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    // Full-history aggregates, only used to rebuild a missing customer summary
+    @Query("SELECT COUNT(o), COALESCE(SUM(o.totalAmount), 0), MAX(o.createdAt) FROM Order o WHERE o.customer.id = :customerId")
+    List<Object[]> summarizeByCustomerId(@Param("customerId") Long customerId);
+
+    @Query("SELECT oi.product.id, SUM(oi.quantity) FROM OrderItem oi WHERE oi.order.customer.id = :customerId GROUP BY oi.product.id")
+    List<Object[]> sumQuantitiesByProductForCustomer(@Param("customerId") Long customerId);
+
 }
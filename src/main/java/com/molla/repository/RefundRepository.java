@@ -3,6 +3,8 @@ package com.molla.repository;
 import com.molla.model.Refund;
 import com.molla.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -16,5 +18,11 @@ public interface RefundRepository extends JpaRepository<Refund, Long> {
     List<Refund> findByShiftReportId(Long shiftReportId);
     
     List<Refund> findByBranchId(Long branchId);
+
+    @Query("SELECT COALESCE(SUM(r.amount), 0) FROM Refund r WHERE r.order.id = :orderId")
+    Double sumAmountByOrderId(@Param("orderId") Long orderId);
+
+    @Query("SELECT COALESCE(SUM(r.amount), 0) FROM Refund r WHERE r.order.customer.id = :customerId")
+    Double sumAmountByCustomerId(@Param("customerId") Long customerId);
 }
 
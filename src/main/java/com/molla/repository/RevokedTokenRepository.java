@@ -0,0 +1,32 @@
+package com.molla.repository;
+
+import com.molla.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    // A plain INSERT, unlike save's merge: a jti that is already there fails on the primary key.
+    // Its own transaction, so that failure does not leave a caller's transaction rollback-only
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "INSERT INTO revoked_token (jti, expires_at, revoked_at) VALUES (:jti, :expiresAt, :revokedAt)",
+            nativeQuery = true)
+    void insert(@Param("jti") String jti, @Param("expiresAt") LocalDateTime expiresAt,
+                @Param("revokedAt") LocalDateTime revokedAt);
+
+    @Query("SELECT r.jti FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<String> findActiveJtis(@Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
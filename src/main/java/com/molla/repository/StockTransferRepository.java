@@ -0,0 +1,24 @@
+package com.molla.repository;
+
+import com.molla.domain.TransferStatus;
+import com.molla.model.StockTransfer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StockTransferRepository extends JpaRepository<StockTransfer, Long> {
+
+    List<StockTransfer> findByFromBranchIdOrToBranchIdOrderByCreatedAtDesc(Long fromBranchId, Long toBranchId);
+
+    // Claims the transfer for applying; a second concurrent apply finds nothing to update
+    @Modifying
+    @Query("UPDATE StockTransfer t SET t.status = :applied, t.appliedAt = :now WHERE t.id = :id AND t.status = :draft")
+    int markApplied(@Param("id") Long id,
+                    @Param("draft") TransferStatus draft,
+                    @Param("applied") TransferStatus applied,
+                    @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,26 @@
+package com.molla.repository;
+
+import com.molla.model.UserDirectoryEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Each call runs in its own transaction, so its connection comes from the shard the caller
+// pinned rather than one a surrounding transaction already holds
+public interface UserDirectoryRepository extends JpaRepository<UserDirectoryEntry, String> {
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    @Query("SELECT d.shard FROM UserDirectoryEntry d WHERE d.email = :email")
+    String findShardByEmail(@Param("email") String email);
+
+    // An upsert, so two logins recording the same email at once cannot collide
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "INSERT INTO user_directory (email, shard) VALUES (:email, :shard) "
+            + "ON DUPLICATE KEY UPDATE shard = VALUES(shard)",
+            nativeQuery = true)
+    void record(@Param("email") String email, @Param("shard") String shard);
+}
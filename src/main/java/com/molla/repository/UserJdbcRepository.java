@@ -0,0 +1,44 @@
+package com.molla.repository;
+
+import com.molla.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+// Batched user inserts for bulk onboarding, bypassing per-entity persist and IDENTITY round trips
+@Repository
+@RequiredArgsConstructor
+public class UserJdbcRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // All or nothing: a duplicate email that slipped past the pre-check rolls back the whole import
+    @Transactional
+    public void insertUsers(List<User> users) {
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO `user` (full_name, email, password, store_id, branch_id, phone, role, "
+                + "created_at, updated_at, last_login_at, claims_version, active) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            users, BATCH_SIZE,
+            (ps, user) -> {
+                ps.setString(1, user.getFullName());
+                ps.setString(2, user.getEmail());
+                ps.setString(3, user.getPassword());
+                ps.setObject(4, user.getStore() != null ? user.getStore().getId() : null);
+                ps.setObject(5, user.getBranch() != null ? user.getBranch().getId() : null);
+                ps.setString(6, user.getPhone());
+                ps.setString(7, user.getRole().name());
+                ps.setTimestamp(8, Timestamp.valueOf(user.getCreatedAt()));
+                ps.setTimestamp(9, Timestamp.valueOf(user.getUpdatedAt()));
+                ps.setObject(10, user.getLastLoginAt() != null ? Timestamp.valueOf(user.getLastLoginAt()) : null);
+                ps.setInt(11, user.getClaimsVersion() != null ? user.getClaimsVersion() : 0);
+                ps.setBoolean(12, !Boolean.FALSE.equals(user.getActive()));
+            });
+    }
+}
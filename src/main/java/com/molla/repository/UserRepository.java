@@ -3,18 +3,55 @@ package com.molla.repository;
 import com.molla.domain.UserRole;
 import com.molla.model.Store;
 import com.molla.model.User;
+import com.molla.payload.dto.EmployeeListItemDto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     User findByEmail(String email);
-    List<User> findByStore(Store store);
+    boolean existsByEmail(String email);
+    List<User> findByEmailIn(Collection<String> emails);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
     List<User> findByStoreAndRoleIn(Store store, List<UserRole> roles);
-    
-    @Query("SELECT u FROM User u WHERE u.branch.id = :branchId")
-    List<User> findByBranchId(@Param("branchId") Long branchId);
+
+    @Query("""
+            SELECT new com.molla.payload.dto.EmployeeListItemDto(
+                u.id, u.fullName, u.email, u.phone, u.role, u.store.id, u.branch.id, COALESCE(u.active, true), u.lastLoginAt)
+            FROM User u
+            WHERE u.store.id = :storeId
+              AND (:role IS NULL OR u.role = :role)
+              AND (:branchId IS NULL OR u.branch.id = :branchId)
+              AND (:active IS NULL OR COALESCE(u.active, true) = :active)
+            """)
+    Slice<EmployeeListItemDto> findStoreEmployees(@Param("storeId") Long storeId,
+                                                  @Param("role") UserRole role,
+                                                  @Param("branchId") Long branchId,
+                                                  @Param("active") Boolean active,
+                                                  Pageable pageable);
+
+    @Query("""
+            SELECT new com.molla.payload.dto.EmployeeListItemDto(
+                u.id, u.fullName, u.email, u.phone, u.role, u.store.id, u.branch.id, COALESCE(u.active, true), u.lastLoginAt)
+            FROM User u
+            WHERE u.branch.id = :branchId
+              AND (:role IS NULL OR u.role = :role)
+              AND (:active IS NULL OR COALESCE(u.active, true) = :active)
+            """)
+    Slice<EmployeeListItemDto> findBranchEmployees(@Param("branchId") Long branchId,
+                                                   @Param("role") UserRole role,
+                                                   @Param("active") Boolean active,
+                                                   Pageable pageable);
+
+    @Query("SELECT COALESCE(u.claimsVersion, 0) FROM User u WHERE u.id = :id")
+    Optional<Integer> findClaimsVersionById(@Param("id") Long id);
 }
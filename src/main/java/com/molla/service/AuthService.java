@@ -8,5 +8,7 @@ public interface AuthService {
 
 
     AuthResponse signUp(UserDto user) throws UserException;
-    AuthResponse login(UserDto user) throws UserException;
+    AuthResponse login(UserDto user, String clientIp) throws UserException;
+    AuthResponse refresh(String refreshToken) throws UserException;
+    void logout(String accessToken, String refreshToken) throws UserException;
 }
@@ -1,18 +1,18 @@
 package com.molla.service;
 
 import com.molla.exceptions.UserException;
-import com.molla.model.User;
+import com.molla.configuration.PosPrincipal;
 import com.molla.payload.dto.BranchDto;
 
 import java.util.List;
 
 public interface BranchService {
 
-    BranchDto createBranch(BranchDto branchDto, User user) throws UserException;
+    BranchDto createBranch(BranchDto branchDto, PosPrincipal principal) throws UserException;
     BranchDto getBranchById(Long id);
     // List<BranchDto> getAllBranches();
     List<BranchDto> getBranchesByStoreId(Long storeId);
-    BranchDto updateBranch(Long id, BranchDto branchDto, User user) throws UserException;
+    BranchDto updateBranch(Long id, BranchDto branchDto, PosPrincipal principal) throws UserException;
     void deleteBranch(Long id) throws UserException;
     
 }
@@ -1,6 +1,9 @@
 package com.molla.service;
 
+import com.molla.domain.CustomerSort;
 import com.molla.model.Customer;
+import com.molla.payload.dto.CustomerListItemDto;
+import com.molla.payload.response.PageResponse;
 import java.util.List;
 
 
@@ -10,8 +13,8 @@ public interface CustomerService {
     Customer updateCustomer(Customer customer,Long id) throws Exception;
     void deleteCustomer(Long id) throws Exception;
     Customer getCustomerById(Long id) throws Exception; 
-    List<Customer> getAllCustomers() throws Exception;
-    List<Customer>  searchCustomers(String keyword) throws Exception;
+    PageResponse<CustomerListItemDto> getCustomers(Long storeId, CustomerSort sort, String cursor, int size) throws Exception;
+    List<Customer>  searchCustomers(String keyword, Long storeId, int limit) throws Exception;
 
     
 }
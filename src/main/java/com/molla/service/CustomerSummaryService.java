@@ -0,0 +1,14 @@
+package com.molla.service;
+
+import com.molla.model.Order;
+import com.molla.model.Refund;
+import com.molla.payload.dto.CustomerSummaryDto;
+
+public interface CustomerSummaryService {
+
+    void recordOrder(Order order) ;
+    void recordRefund(Refund refund) ;
+    void removeOrder(Order order) ;
+    void removeRefund(Refund refund) ;
+    CustomerSummaryDto getSummary(Long customerId) ;
+}
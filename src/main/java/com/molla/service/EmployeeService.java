@@ -2,16 +2,20 @@ package com.molla.service;
 
 import com.molla.domain.UserRole;
 import com.molla.exceptions.UserException;
+import com.molla.payload.dto.EmployeeListItemDto;
+import com.molla.payload.dto.EmployeeOnboardingReportDto;
 import com.molla.payload.dto.UserDto;
+import com.molla.payload.response.PageResponse;
 
 import java.util.List;
 
 public interface EmployeeService {
     UserDto createStoreEmployee(UserDto employee,Long storeId) throws UserException;
     UserDto createBranchEmployee(UserDto employeeDetails, Long branchId) throws UserException;
+    EmployeeOnboardingReportDto onboardBranchEmployees(List<UserDto> employees, Long branchId) throws UserException;
     UserDto updateEmployee(UserDto employeeDetails, Long employeeId) throws UserException;
 
     void deleteEmployee(Long employeeId) throws UserException;
-    List<UserDto> findStoreEmployees(Long storeId,UserRole role) throws UserException;
-    List<UserDto> findBranchEmployees(Long branchId,UserRole role) throws UserException;
+    PageResponse<EmployeeListItemDto> findStoreEmployees(Long storeId, UserRole role, Long branchId, Boolean active, int page, int size) throws UserException;
+    PageResponse<EmployeeListItemDto> findBranchEmployees(Long branchId, UserRole role, Boolean active, int page, int size) throws UserException;
 }
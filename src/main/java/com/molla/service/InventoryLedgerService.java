@@ -0,0 +1,18 @@
+package com.molla.service;
+
+import com.molla.domain.MovementType;
+import com.molla.payload.dto.InventoryMovementDto;
+import com.molla.payload.dto.InventoryReconciliationDto;
+
+import java.util.List;
+
+public interface InventoryLedgerService {
+
+    void recordMovement(Long inventoryId, Long branchId, Long productId, MovementType type, int delta, Integer quantityAfter, String reference);
+
+    List<InventoryMovementDto> getMovements(Long inventoryId, int page, int size);
+
+    InventoryReconciliationDto reconcile(Long inventoryId);
+
+    int compact();
+}
@@ -2,12 +2,18 @@ package com.molla.service;
 
 import java.util.List;
 
+import com.molla.domain.MovementType;
 import com.molla.payload.dto.InventoryDto;
+import com.molla.payload.dto.StockTakeDto;
+import com.molla.payload.dto.StockTakeReportDto;
 
 public interface InventoryService {
 
     InventoryDto createInventory(InventoryDto inventoryDto) ;
     InventoryDto updateInventory( InventoryDto inventoryDto, Long id) ;
+    void adjustStock(Long productId, Long branchId, int delta, MovementType type, String reference) ;
+    void debitStock(Long productId, Long branchId, int quantity, MovementType type, String reference) ;
+    StockTakeReportDto applyStockTake(Long branchId, StockTakeDto stockTakeDto) ;
     void deleteInventory(Long id) ;
     InventoryDto getInventoryByProductIdAndBranchId(Long productId, Long branchId) ;
     List<InventoryDto> getAllInventoriesByBranchId(Long branchId) ;
@@ -0,0 +1,10 @@
+package com.molla.service;
+
+import com.molla.payload.dto.LowStockAlertDto;
+
+import java.util.List;
+
+public interface LowStockAlertService {
+
+    List<LowStockAlertDto> getOpenAlertsByBranchId(Long branchId);
+}
@@ -14,6 +14,6 @@ public interface OrderService {
     List<OrderDto> getOrdersByBranch(Long branchId, Long customerId, Long cashierId, PaymentType paymentType, OrderStatus orderStatus) throws Exception;
     List<OrderDto> getOrdersByCashier(Long cashierId) throws Exception;
     List<OrderDto> getTodayOrderbyBranch(Long branchId) throws Exception;
-    List<OrderDto> getOrderByCustomerId(Long customerId) throws Exception;
+    List<OrderDto> getOrderByCustomerId(Long customerId, int page, int size) throws Exception;
     List<OrderDto> getTop5RecentOrdersByBranchId(Long branchId) throws Exception;
 }
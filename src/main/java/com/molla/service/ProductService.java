@@ -1,15 +1,15 @@
 package com.molla.service;
 
-import com.molla.model.User;
+import com.molla.configuration.PosPrincipal;
 import com.molla.payload.dto.ProductDto;
 
 import java.util.List;
 
 public interface ProductService {
 
-    ProductDto createProduct(ProductDto productDto, User user) ;
-    ProductDto updateProduct(Long id, ProductDto productDto,User user) ;
-    void deleteProduct(Long id,User user);
+    ProductDto createProduct(ProductDto productDto, PosPrincipal principal) ;
+    ProductDto updateProduct(Long id, ProductDto productDto,PosPrincipal principal) ;
+    void deleteProduct(Long id,PosPrincipal principal);
     List<ProductDto>getProductsById(Long storeId) ;
     List<ProductDto>searchByKeyword(Long storeId,String keyword) ;
     List<ProductDto>getAllProducts(Long storeId) ;
@@ -0,0 +1,26 @@
+package com.molla.service;
+
+import com.molla.payload.dto.BranchDto;
+import com.molla.payload.dto.CategoryDto;
+import com.molla.payload.dto.ReferenceCacheStatsDto;
+import com.molla.payload.dto.StoreDto;
+
+import java.util.List;
+
+// Read-mostly store, branch and category data, cached per store and invalidated by version.
+// Returned DTOs are shared between callers and must not be modified.
+public interface ReferenceDataService {
+
+    StoreDto getStore(Long storeId);
+
+    BranchDto getBranch(Long branchId);
+
+    List<BranchDto> getBranches(Long storeId);
+
+    List<CategoryDto> getCategories(Long storeId);
+
+    // Called after any write to the store's own row, its branches or its categories
+    void invalidate(Long storeId);
+
+    ReferenceCacheStatsDto getStats();
+}
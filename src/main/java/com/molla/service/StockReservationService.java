@@ -0,0 +1,15 @@
+package com.molla.service;
+
+import com.molla.payload.dto.StockReservationDto;
+
+import java.util.List;
+import java.util.Map;
+
+public interface StockReservationService {
+
+    StockReservationDto reserve(StockReservationDto reservationDto) ;
+    List<StockReservationDto> getCartReservations(String cartId) ;
+    void releaseCart(String cartId) ;
+    void checkout(String cartId, Long branchId, Map<Long, Integer> quantities) ;
+    int sweepExpired() ;
+}
@@ -0,0 +1,13 @@
+package com.molla.service;
+
+import com.molla.payload.dto.StockTransferDto;
+
+import java.util.List;
+
+public interface StockTransferService {
+
+    StockTransferDto createTransfer(StockTransferDto transferDto) ;
+    StockTransferDto applyTransfer(Long id) ;
+    StockTransferDto getTransferById(Long id) ;
+    List<StockTransferDto> getTransfersByBranch(Long branchId) ;
+}
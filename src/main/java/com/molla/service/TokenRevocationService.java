@@ -0,0 +1,11 @@
+package com.molla.service;
+
+import java.time.LocalDateTime;
+
+public interface TokenRevocationService {
+
+    boolean isRevoked(String jti) ;
+    // False when the token was already revoked, here or on another instance
+    boolean revoke(String jti, LocalDateTime expiresAt) ;
+    void reload() ;
+}
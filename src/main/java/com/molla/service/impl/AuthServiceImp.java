@@ -1,7 +1,11 @@
 package com.molla.service.impl;
 
 import com.molla.configuration.JwtProvider;
+import com.molla.configuration.StoreShardRouter;
+import com.molla.configuration.TenantContext;
+import com.molla.configuration.UserDirectory;
 import com.molla.domain.UserRole;
+import com.molla.exceptions.TooManyRequestsException;
 import com.molla.exceptions.UserException;
 import com.molla.mapper.UserMapper;
 import com.molla.model.User;
@@ -9,15 +13,31 @@ import com.molla.payload.dto.UserDto;
 import com.molla.payload.response.AuthResponse;
 import com.molla.repository.UserRepository;
 import com.molla.service.AuthService;
+import com.molla.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @RequiredArgsConstructor
@@ -30,6 +50,20 @@ public class AuthServiceImp implements AuthService {
 
     private  final CustomUserImplementation customUserImplementation;
 
+    private final LoginAttemptThrottle loginAttemptThrottle;
+
+    private final TokenRevocationService tokenRevocationService;
+
+    private final UserDirectory userDirectory;
+
+    private final StoreShardRouter router;
+
+    @Qualifier("loginExecutor")
+    private final ThreadPoolTaskExecutor loginExecutor;
+
+    @Value("${pos.auth.login.timeout-seconds:10}")
+    private long loginTimeoutSeconds;
+
 
 
 
@@ -62,10 +96,11 @@ public class AuthServiceImp implements AuthService {
         SecurityContextHolder.getContext()
                 .setAuthentication(authentication);
 
-        String jwt=jwtProvider.generateToken(authentication);
+        String jwt=jwtProvider.generateToken(authentication, newUser);
 
         AuthResponse authResponse=new AuthResponse();
         authResponse.setJwt(jwt);
+        authResponse.setRefreshToken(jwtProvider.generateRefreshToken(newUser));
         authResponse.setMessage("User registered successfully");
         authResponse.setUser(UserMapper.toDto(newUser));
 
@@ -76,41 +111,169 @@ public class AuthServiceImp implements AuthService {
         return authResponse;
     }
 
+    // Not transactional so no connection is held while the password is checked; the lookup
+    // and the last-login update each run in their own short repository transaction.
+    // /auth requests carry no store, so every lookup is pinned to the shard holding the email
     @Override
-    public AuthResponse login(UserDto user) throws UserException {
+    public AuthResponse login(UserDto user, String clientIp) throws UserException {
         String email=user.getEmail();
         String password=user.getPassword();
-        Authentication authentication=authenticate(email,password);
+
+        // Throttled keys are turned away before any hashing is spent on them
+        loginAttemptThrottle.checkAllowed(email, clientIp);
+
+        String shard=userDirectory.shardForEmail(email);
+        PasswordCheck check=verifyOnLoginExecutor(email,password,shard);
+        Authentication authentication=check.authentication();
         
         // Check if authentication failed
         if (authentication == null) {
+            loginAttemptThrottle.recordFailure(email, clientIp);
             throw new UserException("Invalid email or password");
         }
+        loginAttemptThrottle.recordSuccess(email, clientIp);
         
-        String jwt=jwtProvider.generateToken(authentication);
-
-        User foundUser=userRepository.findByEmail(email);
+        User foundUser=inShard(shard, () -> userRepository.findByEmail(email));
         
         if (foundUser == null) {
             throw new UserException("User not found");
         }
 
+        String jwt=jwtProvider.generateToken(authentication, foundUser);
+
+        // Hashes made with an older, cheaper cost are upgraded while the password is at hand
+        if (check.rehashedPassword() != null) {
+            foundUser.setPassword(check.rehashedPassword());
+        }
         foundUser.setLastLoginAt(LocalDateTime.now());
 
-        userRepository.save(foundUser);
+        inShard(shard, () -> userRepository.save(foundUser));
 
         AuthResponse authResponse=new AuthResponse();
         authResponse.setJwt(jwt);
+        authResponse.setRefreshToken(jwtProvider.generateRefreshToken(foundUser));
         authResponse.setMessage("Login successfully");
         authResponse.setUser(UserMapper.toDto(foundUser));
 
         return authResponse;
     }
 
+    // Refresh tokens are single use: each refresh revokes the presented token and issues a new pair.
+    // Revoking is the check, so two refreshes with the same token cannot both get a new pair
+    @Override
+    public AuthResponse refresh(String refreshToken) throws UserException {
+        Claims claims = parseOrReject(refreshToken, JwtProvider.REFRESH_TOKEN);
+        if (claims.getId() == null
+                || !tokenRevocationService.revoke(claims.getId(), toLocalDateTime(claims.getExpiration()))) {
+            throw new UserException("Refresh token has been revoked");
+        }
+
+        // User ids are only unique within a shard, so the user is looked up on the shard of the
+        // token's store and must still have the token's email; otherwise a token could load
+        // whoever has the same id on another shard. Tokens from before the store was
+        // included find the shard from the email instead
+        Long userId = claims.get("uid", Long.class);
+        Long storeId = claims.get("sid", Long.class);
+        String shard = storeId != null ? router.shardFor(storeId) : userDirectory.shardForEmail(claims.getSubject());
+        User foundUser = userId != null ? inShard(shard, () -> userRepository.findById(userId).orElse(null)) : null;
+        if (foundUser == null || !foundUser.getEmail().equalsIgnoreCase(claims.getSubject())) {
+            throw new UserException("User not found");
+        }
+        if (Boolean.FALSE.equals(foundUser.getActive())) {
+            throw new UserException("User is deactivated");
+        }
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                foundUser.getEmail(), null,
+                List.of(new SimpleGrantedAuthority(foundUser.getRole().name())));
+
+        AuthResponse authResponse=new AuthResponse();
+        authResponse.setJwt(jwtProvider.generateToken(authentication, foundUser));
+        authResponse.setRefreshToken(jwtProvider.generateRefreshToken(foundUser));
+        authResponse.setMessage("Token refreshed successfully");
+        authResponse.setUser(UserMapper.toDto(foundUser));
+        return authResponse;
+    }
+
+    @Override
+    public void logout(String accessToken, String refreshToken) throws UserException {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            Claims claims = parseOrReject(refreshToken, JwtProvider.REFRESH_TOKEN);
+            if (claims.getId() != null) {
+                tokenRevocationService.revoke(claims.getId(), toLocalDateTime(claims.getExpiration()));
+            }
+        }
+        if (accessToken != null && !accessToken.isBlank()) {
+            Claims claims = parseOrReject(accessToken, JwtProvider.ACCESS_TOKEN);
+            if (claims.getId() != null) {
+                tokenRevocationService.revoke(claims.getId(), toLocalDateTime(claims.getExpiration()));
+            }
+        }
+    }
+
+    private Claims parseOrReject(String token, String expectedType) throws UserException {
+        if (token == null || token.isBlank()) {
+            throw new UserException("Token is required");
+        }
+        try {
+            return jwtProvider.parseToken(token, expectedType);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new UserException("Invalid or expired token");
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    private static <T> T inShard(String shard, Callable<T> work) {
+        try {
+            return TenantContext.callInShard(shard, work);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // The executor thread does not inherit the caller's shard, so it is pinned there again
+    private PasswordCheck verifyOnLoginExecutor(String email, String password, String shard) {
+        Future<PasswordCheck> pending;
+        try {
+            pending = loginExecutor.submit(() -> TenantContext.callInShard(shard, () -> verifyPassword(email, password)));
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("Login service is busy, try again shortly", 1);
+        }
+        try {
+            return pending.get(loginTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            pending.cancel(true);
+            throw new TooManyRequestsException("Login service is busy, try again shortly", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Login interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Login failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private PasswordCheck verifyPassword(String email, String password) {
+        Authentication authentication = authenticate(email, password);
+        String rehashed = null;
+        if (authentication != null && authentication.getCredentials() instanceof String storedHash
+                && passwordEncoder.upgradeEncoding(storedHash)) {
+            rehashed = passwordEncoder.encode(password);
+        }
+        return new PasswordCheck(authentication, rehashed);
+    }
+
+    private record PasswordCheck(Authentication authentication, String rehashedPassword) {
+    }
+
     private  Authentication authenticate(String email,String password){
         try {
             UserDetails userDetails=customUserImplementation.loadUserByUsername(email);
-            if(!userDetails.getUsername().equals(email)){
+            if(!userDetails.getUsername().equals(email) || !userDetails.isEnabled()){
                 return  null;
             }
 
@@ -1,21 +1,22 @@
 package com.molla.service.impl;
 
+import com.molla.configuration.PosPrincipal;
 import com.molla.service.BranchService;
 import com.molla.exceptions.UserException;
 import com.molla.mapper.BranchMapper;
 import com.molla.model.Branch;
 import com.molla.model.Store;
-import com.molla.model.User;
 import com.molla.payload.dto.BranchDto;
 import com.molla.repository.BranchRepository;
 import com.molla.repository.StoreRepository;
+import com.molla.service.ReferenceDataService;
 import com.molla.service.UserService;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,33 +24,32 @@ public class BranchServiceImp implements BranchService {
     private final BranchRepository branchRepository;
     private final StoreRepository storeRepository;
     private final UserService userService;
+    private final ReferenceDataService referenceDataService;
+
     @Override
-    public BranchDto createBranch(BranchDto branchDto, User user) throws UserException {
-        User currentUser=userService.getCurrentUser();
-        Store store = storeRepository.findByStoreAdminId(currentUser.getId());
+    @Transactional(rollbackFor = Exception.class)
+    public BranchDto createBranch(BranchDto branchDto, PosPrincipal principal) throws UserException {
+        Store store = storeRepository.findByStoreAdminId(userService.getUserId(principal));
 
         Branch branch = BranchMapper.toEntity(branchDto, store);
         Branch savedBranch = branchRepository.save(branch);
+        referenceDataService.invalidate(storeId(savedBranch));
         return BranchMapper.toDto(savedBranch);
     }
 
     @Override
     public BranchDto getBranchById(Long id) {
-        Branch branch = branchRepository.findById(id)
-        .orElseThrow(() -> new RuntimeException("Branch not found"));
-        return BranchMapper.toDto(branch);
-        
-      
+        return referenceDataService.getBranch(id);
     }
 
     @Override
     public List<BranchDto> getBranchesByStoreId(Long storeId) {
-        List<Branch> branches = branchRepository.findByStoreId(storeId);
-        return branches.stream().map(BranchMapper::toDto).collect(Collectors.toList());
+        return referenceDataService.getBranches(storeId);
     }
 
     @Override
-    public BranchDto updateBranch(Long id, BranchDto branchDto, User user) throws UserException {
+    @Transactional(rollbackFor = Exception.class)
+    public BranchDto updateBranch(Long id, BranchDto branchDto, PosPrincipal principal) throws UserException {
         Branch existingBranch = branchRepository.findById(id)
         .orElseThrow(() -> new RuntimeException("Branch not found"));
         existingBranch.setName(branchDto.getName());
@@ -60,14 +60,21 @@ public class BranchServiceImp implements BranchService {
         existingBranch.setOpenTime(branchDto.getOpenTime());
         existingBranch.setCloseTime(branchDto.getCloseTime());
         Branch savedBranch = branchRepository.save(existingBranch);
+        referenceDataService.invalidate(storeId(savedBranch));
         return BranchMapper.toDto(savedBranch);
 
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void deleteBranch(Long id) throws UserException {
         Branch branch = branchRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Branch not found"));
         branchRepository.delete(branch);
+        referenceDataService.invalidate(storeId(branch));
+    }
+
+    private Long storeId(Branch branch) {
+        return branch.getStore() != null ? branch.getStore().getId() : null;
     }
 }
\ No newline at end of file
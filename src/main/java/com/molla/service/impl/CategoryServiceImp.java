@@ -1,87 +1,103 @@
 package com.molla.service.impl;
 
+import com.molla.configuration.PosPrincipal;
 import com.molla.domain.UserRole;
 import com.molla.exceptions.UserException;
 import com.molla.mapper.CategoryMapper;
 import com.molla.model.Category;
 import com.molla.model.Store;
-import com.molla.model.User;
 import com.molla.payload.dto.CategoryDto;
 import com.molla.repository.CategoryRepository;
 import com.molla.repository.StoreRepository;
 import com.molla.service.CategoryService;
+import com.molla.service.ReferenceDataService;
+import com.molla.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CategoryServiceImp implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final StoreRepository storeRepository;
+    private final ReferenceDataService referenceDataService;
+    private final UserService userService;
+
     @Override
-    public CategoryDto createCategory(CategoryDto categoryDto, User user) throws UserException {
+    @Transactional(rollbackFor = Exception.class)
+    public CategoryDto createCategory(CategoryDto categoryDto, PosPrincipal principal) throws UserException {
         Store store = storeRepository.findById(categoryDto.getStoreId())
                 .orElseThrow(() -> new RuntimeException("Store not found"));
-        checkAuthority(user, store);
+        checkAuthority(principal, store);
         
         Category category = new Category();
         category.setName(categoryDto.getName());
         category.setDescription(categoryDto.getDescription());
         category.setStore(store);
-       
-        return CategoryMapper.toDto(categoryRepository.save(category));
+
+        Category savedCategory = categoryRepository.save(category);
+        referenceDataService.invalidate(store.getId());
+        return CategoryMapper.toDto(savedCategory);
     }
     @Override
     public List<CategoryDto> getCategoriesByStoreId(Long storeId) throws UserException {
-        List<Category> categories = categoryRepository.findByStoreId(storeId);
-        return categories.stream().map(CategoryMapper::toDto).collect(Collectors.toList());
+        return referenceDataService.getCategories(storeId);
     }
 
     @Override
-    public CategoryDto updateCategory(Long id, CategoryDto categoryDto, User user) throws UserException {
+    @Transactional(rollbackFor = Exception.class)
+    public CategoryDto updateCategory(Long id, CategoryDto categoryDto, PosPrincipal principal) throws UserException {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found"));
 
         category.setName(categoryDto.getName());
         category.setDescription(categoryDto.getDescription());
-        checkAuthority(user, category.getStore()); 
+        checkAuthority(principal, category.getStore()); 
 
-        return CategoryMapper.toDto(categoryRepository.save(category));
+        Category savedCategory = categoryRepository.save(category);
+        referenceDataService.invalidate(category.getStore().getId());
+        return CategoryMapper.toDto(savedCategory);
     }
     
     @Override
-    public CategoryDto moderateCategory(Long id, CategoryDto categoryDto, User user) throws UserException {
+    @Transactional(rollbackFor = Exception.class)
+    public CategoryDto moderateCategory(Long id, CategoryDto categoryDto, PosPrincipal principal) throws UserException {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found"));
-        checkAuthority(user, category.getStore());
+        checkAuthority(principal, category.getStore());
         
         category.setName(categoryDto.getName());
         category.setDescription(categoryDto.getDescription());
-        return CategoryMapper.toDto(categoryRepository.save(category));
+        Category savedCategory = categoryRepository.save(category);
+        referenceDataService.invalidate(category.getStore().getId());
+        return CategoryMapper.toDto(savedCategory);
     }
     
     @Override
-    public void deleteCategory(Long id, User user) throws UserException {
+    @Transactional(rollbackFor = Exception.class)
+    public void deleteCategory(Long id, PosPrincipal principal) throws UserException {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found"));
-        checkAuthority(user, category.getStore()); 
+        checkAuthority(principal, category.getStore()); 
         categoryRepository.delete(category);
+        referenceDataService.invalidate(category.getStore().getId());
     }
 
-    private void checkAuthority(User user, Store store) throws UserException {
+    private void checkAuthority(PosPrincipal principal, Store store) throws UserException {
         if(store == null) {
             throw new UserException("Store not found");
         }
+        Long userId = userService.getUserId(principal);
         
-        boolean isAdmin = user.getRole().equals(UserRole.ROLE_STORE_ADMIN);
-        boolean isManager = user.getRole().equals(UserRole.ROLE_STORE_MANAGER);
+        boolean isAdmin = UserRole.ROLE_STORE_ADMIN.name().equals(principal.role());
+        boolean isManager = UserRole.ROLE_STORE_MANAGER.name().equals(principal.role());
         
         boolean isSameStore = false;
-        if(store.getStoreAdmin() != null && user.getId() != null) {
-            isSameStore = user.getId().equals(store.getStoreAdmin().getId());
+        if(store.getStoreAdmin() != null) {
+            isSameStore = userId.equals(store.getStoreAdmin().getId());
         }
 
         if(!(isAdmin || isManager) && !isSameStore) {
@@ -1,5 +1,7 @@
 package com.molla.service.impl;
 
+import com.molla.configuration.TenantContext;
+import com.molla.configuration.UserDirectory;
 import com.molla.model.User;
 import com.molla.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,12 +21,27 @@ public class CustomUserImplementation implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDirectory userDirectory;
+
+    // Not transactional: the shard has to be chosen before a connection is taken
     @Override
     public UserDetails loadUserByUsername(String username)
             throws UsernameNotFoundException {
 
-        // 1. Fetch user from database using email
-        User user = userRepository.findByEmail(username);
+        // 1. Fetch user from database using email, on the shard the caller pinned or the one
+        //    the directory names
+        String shard = TenantContext.getShard() != null
+                ? TenantContext.getShard()
+                : userDirectory.shardForEmail(username);
+        User user;
+        try {
+            user = TenantContext.callInShard(shard, () -> userRepository.findByEmail(username));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
 
         // 2. If user not found → throw exception
         if (user == null) {
@@ -40,10 +57,14 @@ public class CustomUserImplementation implements UserDetailsService {
         Collection<GrantedAuthority> authorities =
                 Collections.singletonList(authority);
 
-        // 4. Return Spring Security User object
+        // 4. Return Spring Security User object; deactivated staff come back disabled
         return new org.springframework.security.core.userdetails.User(
                 user.getEmail(),
                 user.getPassword(),
+                !Boolean.FALSE.equals(user.getActive()),
+                true,
+                true,
+                true,
                 authorities
         );
     }
@@ -1,39 +1,86 @@
 package com.molla.service.impl;
 
+import com.molla.configuration.PosPrincipal;
+import com.molla.configuration.StoreShardRouter;
+import com.molla.configuration.TenantContext;
+import com.molla.domain.CustomerSort;
+import com.molla.domain.UserRole;
 import com.molla.model.Customer;
+import com.molla.model.User;
+import com.molla.payload.dto.CustomerListItemDto;
+import com.molla.payload.response.PageResponse;
 import com.molla.service.CustomerService;
 
+import com.molla.service.UserService;
+import com.molla.util.CustomerSearchKeys;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import com.molla.repository.CustomerRepository;  
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CustomerServiceImpl implements CustomerService{
+    private static final Logger logger = LoggerFactory.getLogger(CustomerServiceImpl.class);
+
+    private static final int MAX_SEARCH_RESULTS = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int BACKFILL_BATCH = 500;
+    // Cursor key of a row with no created_at or name key. Name keys are lowercase alphanumerics and
+    // spaces, and a date never starts with a dash, so no real key can collide with it.
+    private static final String NO_KEY_CURSOR = "-";
+
     private final CustomerRepository customerRepository;
+    private final UserService userService;
+    private final StoreShardRouter router;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
+    @Transactional
     public Customer createCustomer(Customer customer) {
         // Ignore id if provided - it should be auto-generated
         customer.setId(null);
+        if (customer.getStoreId() == null) {
+            customer.setStoreId(currentStoreId());
+        }
         customer.setCreatedAt(java.time.LocalDateTime.now());
         customer.setUpdatedAt(java.time.LocalDateTime.now());
+        applySearchKeys(customer);
         return customerRepository.save(customer);
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public Customer updateCustomer(Customer customer, Long id) throws Exception {
          Customer customerToUpdate=customerRepository.findById(id).orElseThrow(() -> new RuntimeException("Customer not found"));
          customerToUpdate.setName(customer.getName());
          customerToUpdate.setEmail(customer.getEmail());
          customerToUpdate.setPhone(customer.getPhone());
+         customerToUpdate.setUpdatedAt(java.time.LocalDateTime.now());
+         applySearchKeys(customerToUpdate);
 
          return customerRepository.save(customerToUpdate);
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void deleteCustomer(Long id) throws Exception {
         Customer customerToDelete=customerRepository.findById(id).orElseThrow(() -> new RuntimeException("Customer not found"));
         customerRepository.delete(customerToDelete);
@@ -41,17 +88,164 @@ public class CustomerServiceImpl implements CustomerService{
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Customer getCustomerById(Long id) throws Exception {
         return customerRepository.findById(id).orElseThrow(() -> new RuntimeException("Customer not found"));
     }
 
     @Override
-    public List<Customer> getAllCustomers() throws Exception {
-        return customerRepository.findAll();
+    @Transactional(readOnly = true)
+    public PageResponse<CustomerListItemDto> getCustomers(Long storeId, CustomerSort sort, String cursor, int size) throws Exception {
+        CustomerScope customerScope = customerScope(storeId);
+        if (!customerScope.visible()) {
+            return new PageResponse<>(List.of(), null, false);
+        }
+        Long scope = customerScope.storeId();
+        CustomerSort order = sort != null ? sort : CustomerSort.NAME;
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        String afterNameKey = null;
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String decoded;
+            try {
+                decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int split = decoded.lastIndexOf('|');
+                afterId = Long.parseLong(decoded.substring(split + 1));
+                String key = decoded.substring(0, split);
+                // With no key, the repository continues among the rows that have none
+                if (!key.equals(NO_KEY_CURSOR)) {
+                    if (order == CustomerSort.NAME) {
+                        afterNameKey = key;
+                    } else {
+                        afterCreatedAt = LocalDateTime.parse(key);
+                    }
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor for sort " + order);
+            }
+        }
+
+        // One extra row tells us whether another page exists without a count query
+        List<CustomerListItemDto> rows = customerRepository.findDirectoryPage(scope, order, afterNameKey, afterCreatedAt, afterId, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<CustomerListItemDto> items = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            CustomerListItemDto last = items.get(items.size() - 1);
+            Object lastKey = order == CustomerSort.NAME ? last.getNameKey() : last.getCreatedAt();
+            String key = lastKey != null ? lastKey.toString() : NO_KEY_CURSOR;
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((key + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+        return new PageResponse<>(items, nextCursor, hasMore);
     }
 
+    // The shape of the query picks the index: an email is matched exactly, digits are a
+    // phone prefix, anything else is matched token by token against the name.
     @Override
-    public List<Customer> searchCustomers(String keyword) throws Exception {
-        return customerRepository.findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(keyword, keyword); 
+    @Transactional(readOnly = true)
+    public List<Customer> searchCustomers(String keyword, Long storeId, int limit) throws Exception {
+        CustomerScope customerScope = customerScope(storeId);
+        if (!customerScope.visible()) {
+            return List.of();
+        }
+        Long scope = customerScope.storeId();
+        String query = keyword.trim();
+        Pageable page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+
+        if (CustomerSearchKeys.looksLikeEmail(query)) {
+            String email = CustomerSearchKeys.email(query);
+            return scope != null
+                ? customerRepository.findByStoreIdAndEmailKey(scope, email, page)
+                : customerRepository.findByEmailKey(email, page);
+        }
+        if (CustomerSearchKeys.looksLikePhone(query)) {
+            String phonePrefix = CustomerSearchKeys.phone(query);
+            return scope != null
+                ? customerRepository.findByStoreIdAndPhoneKeyStartingWithOrderByPhoneKey(scope, phonePrefix, page)
+                : customerRepository.findByPhoneKeyStartingWithOrderByPhoneKey(phonePrefix, page);
+        }
+
+        Set<String> tokens = CustomerSearchKeys.nameTokens(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        // The longest token is the most selective, so it goes first and drives the index lookup
+        List<String> prefixes = tokens.stream()
+            .sorted(Comparator.comparingInt(String::length).reversed())
+            .collect(Collectors.toList());
+        return customerRepository.findByNameTokenPrefixes(scope, prefixes, page.getPageSize());
+    }
+
+    // Customers saved before the search keys existed are indexed once at startup, on every
+    // shard; each shard is pinned before its transaction starts so the connection comes from it
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSearchKeys() throws Exception {
+        for (String shard : router.getShardNames()) {
+            Integer indexed = TenantContext.callInShard(shard,
+                    () -> new TransactionTemplate(transactionManager).execute(status -> indexMissingSearchKeys()));
+            if (indexed != null && indexed > 0) {
+                logger.info("Indexed search keys for {} existing customers on shard {}", indexed, shard);
+            }
+        }
+    }
+
+    private int indexMissingSearchKeys() {
+        int indexed = 0;
+        List<Customer> batch;
+        while (!(batch = customerRepository.findByNameKeyIsNull(PageRequest.of(0, BACKFILL_BATCH))).isEmpty()) {
+            batch.forEach(CustomerServiceImpl::applySearchKeys);
+            customerRepository.saveAllAndFlush(batch);
+            indexed += batch.size();
+        }
+        return indexed;
+    }
+
+    private static void applySearchKeys(Customer customer) {
+        customer.setPhoneKey(CustomerSearchKeys.phone(customer.getPhone()));
+        customer.setEmailKey(CustomerSearchKeys.email(customer.getEmail()));
+        customer.setNameKey(CustomerSearchKeys.name(customer.getName()));
+        customer.getNameTokens().clear();
+        customer.getNameTokens().addAll(CustomerSearchKeys.nameTokens(customer.getName()));
+    }
+
+    // Callers only see their own store's customers. An admin may name any store, and with
+    // no store of their own and none named sees every store. A caller with no store, or no
+    // principal at all, sees none
+    private CustomerScope customerScope(Long requestedStoreId) {
+        PosPrincipal principal = userService.getCurrentPrincipal();
+        if (principal == null) {
+            return CustomerScope.NONE;
+        }
+        if (UserRole.ROLE_ADMIN.name().equals(principal.role())) {
+            return new CustomerScope(true, requestedStoreId != null ? requestedStoreId : currentStoreId());
+        }
+        Long ownStoreId = currentStoreId();
+        return ownStoreId != null ? new CustomerScope(true, ownStoreId) : CustomerScope.NONE;
+    }
+
+    // A null store id with visible set means every store
+    private record CustomerScope(boolean visible, Long storeId) {
+        static final CustomerScope NONE = new CustomerScope(false, null);
+    }
+
+    private Long currentStoreId() {
+        PosPrincipal principal = userService.getCurrentPrincipal();
+        if (principal == null) {
+            return null;
+        }
+        if (principal.storeId() != null || principal.userId() != null) {
+            return principal.storeId();
+        }
+        try {
+            // Token issued before the store claim
+            User user = userService.getUser(principal);
+            return user.getStore() != null ? user.getStore().getId() : null;
+        } catch (Exception e) {
+            return null;
+        }
     }
 }
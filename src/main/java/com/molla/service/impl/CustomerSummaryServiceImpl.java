@@ -0,0 +1,191 @@
+package com.molla.service.impl;
+
+import com.molla.model.CustomerProductStat;
+import com.molla.model.CustomerSummary;
+import com.molla.model.Order;
+import com.molla.model.OrderItem;
+import com.molla.model.Product;
+import com.molla.model.Refund;
+import com.molla.payload.dto.CustomerSummaryDto;
+import com.molla.payload.dto.FavouriteProductDto;
+import com.molla.repository.CustomerProductStatRepository;
+import com.molla.repository.CustomerRepository;
+import com.molla.repository.CustomerSummaryRepository;
+import com.molla.repository.OrderRepository;
+import com.molla.repository.ProductRepository;
+import com.molla.repository.RefundRepository;
+import com.molla.service.CustomerSummaryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class CustomerSummaryServiceImpl implements CustomerSummaryService {
+
+    private final CustomerSummaryRepository customerSummaryRepository;
+    private final CustomerProductStatRepository customerProductStatRepository;
+    private final CustomerRepository customerRepository;
+    private final OrderRepository orderRepository;
+    private final RefundRepository refundRepository;
+    private final ProductRepository productRepository;
+
+    // The caller holds the customer's row lock (CustomerRepository.findByIdForUpdate), so two first
+    // orders cannot both find no summary and both insert one
+    @Override
+    @Transactional
+    public void recordOrder(Order order) {
+        if (order.getCustomer() == null) {
+            return;
+        }
+        Long customerId = order.getCustomer().getId();
+        double amount = order.getTotalAmount() != null ? order.getTotalAmount() : 0.0;
+        if (customerSummaryRepository.addOrder(customerId, amount, order.getCreatedAt(), LocalDateTime.now()) == 0) {
+            // First order since summaries were introduced; the rebuild already counts this one
+            rebuild(customerId);
+            return;
+        }
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        List<CustomerProductStat> firstPurchases = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> {
+            if (customerProductStatRepository.addQuantity(customerId, productId, quantity) == 0) {
+                firstPurchases.add(CustomerProductStat.builder()
+                    .customerId(customerId)
+                    .productId(productId)
+                    .quantity(quantity)
+                    .build());
+            }
+        });
+        customerProductStatRepository.saveAll(firstPurchases);
+    }
+
+    // Only the amount is netted off. Refunds carry no line items, so favourite products keep
+    // counting gross purchases, refunded ones included
+    @Override
+    @Transactional
+    public void recordRefund(Refund refund) {
+        if (refund.getOrder() == null || refund.getOrder().getCustomer() == null) {
+            return;
+        }
+        Long customerId = refund.getOrder().getCustomer().getId();
+        // Taken before the update: the update alone leaves refunds of two orders free to both rebuild
+        customerRepository.findByIdForUpdate(customerId);
+        double amount = refund.getAmount() != null ? refund.getAmount() : 0.0;
+        if (customerSummaryRepository.addRefund(customerId, amount, LocalDateTime.now()) == 0) {
+            rebuild(customerId);
+        }
+    }
+
+    // A deleted order can carry the latest order date or a product's only purchase, so the
+    // customer is recomputed rather than decremented. Nothing to do until they have a summary.
+    @Override
+    @Transactional
+    public void removeOrder(Order order) {
+        if (order.getCustomer() == null) {
+            return;
+        }
+        Long customerId = order.getCustomer().getId();
+        customerRepository.findByIdForUpdate(customerId);
+        if (customerSummaryRepository.existsById(customerId)) {
+            rebuild(customerId);
+        }
+    }
+
+    // Called once the refund row is gone, so the rebuild no longer counts it
+    @Override
+    @Transactional
+    public void removeRefund(Refund refund) {
+        if (refund.getOrder() == null || refund.getOrder().getCustomer() == null) {
+            return;
+        }
+        Long customerId = refund.getOrder().getCustomer().getId();
+        customerRepository.findByIdForUpdate(customerId);
+        if (customerSummaryRepository.existsById(customerId)) {
+            rebuild(customerId);
+        }
+    }
+
+    // Customers without a summary yet are computed on the fly; the next order or refund stores it
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerSummaryDto getSummary(Long customerId) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new RuntimeException("Customer not found");
+        }
+        CustomerSummary summary = customerSummaryRepository.findById(customerId).orElse(null);
+        List<CustomerProductStat> top;
+        if (summary != null) {
+            top = customerProductStatRepository.findTop5ByCustomerIdOrderByQuantityDesc(customerId);
+        } else {
+            summary = summarize(customerId);
+            top = productStats(customerId).stream()
+                .sorted(Comparator.comparingInt(CustomerProductStat::getQuantity).reversed())
+                .limit(5)
+                .collect(Collectors.toList());
+        }
+
+        Map<Long, Product> products = productRepository.findAllById(
+                top.stream().map(CustomerProductStat::getProductId).collect(Collectors.toList())).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        return CustomerSummaryDto.builder()
+            .customerId(customerId)
+            .totalSpent(summary.getTotalSpent())
+            .refundedAmount(summary.getRefundedAmount())
+            .netSpent(summary.getTotalSpent() - summary.getRefundedAmount())
+            .orderCount(summary.getOrderCount())
+            .lastOrderAt(summary.getLastOrderAt())
+            .favouriteProducts(top.stream()
+                .map(stat -> FavouriteProductDto.builder()
+                    .productId(stat.getProductId())
+                    .productName(products.containsKey(stat.getProductId()) ? products.get(stat.getProductId()).getName() : null)
+                    .quantity(stat.getQuantity())
+                    .build())
+                .collect(Collectors.toList()))
+            .build();
+    }
+
+    // Recomputes and stores a customer's summary and product counts from their full history
+    private CustomerSummary rebuild(Long customerId) {
+        customerProductStatRepository.deleteByCustomerId(customerId);
+        customerProductStatRepository.saveAll(productStats(customerId));
+        return customerSummaryRepository.save(summarize(customerId));
+    }
+
+    private CustomerSummary summarize(Long customerId) {
+        Object[] totals = orderRepository.summarizeByCustomerId(customerId).get(0);
+        Double refunded = refundRepository.sumAmountByCustomerId(customerId);
+
+        return CustomerSummary.builder()
+            .customerId(customerId)
+            .orderCount(((Number) totals[0]).intValue())
+            .totalSpent(((Number) totals[1]).doubleValue())
+            .lastOrderAt((LocalDateTime) totals[2])
+            .refundedAmount(refunded != null ? refunded : 0.0)
+            .updatedAt(LocalDateTime.now())
+            .build();
+    }
+
+    private List<CustomerProductStat> productStats(Long customerId) {
+        return orderRepository.sumQuantitiesByProductForCustomer(customerId).stream()
+            .map(row -> CustomerProductStat.builder()
+                .customerId(customerId)
+                .productId((Long) row[0])
+                .quantity(((Number) row[1]).intValue())
+                .build())
+            .collect(Collectors.toList());
+    }
+}
@@ -1,32 +1,68 @@
 package com.molla.service.impl;
 
+import com.molla.configuration.ClaimsVersionRegistry;
 import com.molla.domain.UserRole;
 import com.molla.exceptions.UserException;
 import com.molla.mapper.UserMapper;
 import com.molla.model.Branch;
 import com.molla.model.Store;
 import com.molla.model.User;
+import com.molla.payload.dto.EmployeeListItemDto;
+import com.molla.payload.dto.EmployeeOnboardingReportDto;
+import com.molla.payload.dto.RejectedEmployeeDto;
 import com.molla.payload.dto.UserDto;
+import com.molla.payload.response.PageResponse;
 import com.molla.repository.BranchRepository;
 import com.molla.repository.StoreRepository;
+import com.molla.repository.UserJdbcRepository;
 import com.molla.repository.UserRepository;
 import com.molla.service.EmployeeService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 public class EmployeeServiceImpl implements EmployeeService {
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Sort EMPLOYEE_ORDER = Sort.by("fullName", "id");
+    private static final int LOOKUP_CHUNK = 1000;
+
     private final UserRepository userRepository;
     private final StoreRepository storeRepository;
     private final BranchRepository branchRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ClaimsVersionRegistry claimsVersionRegistry;
+    private final UserJdbcRepository userJdbcRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Qualifier("onboardingExecutor")
+    private final ThreadPoolTaskExecutor onboardingExecutor;
+
+    @Value("${pos.employees.onboarding.max-batch:1000}")
+    private int maxOnboardingBatch;
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public UserDto createStoreEmployee(UserDto employee, Long storeId) throws UserException {
        Store store=storeRepository.findById(storeId).orElseThrow(() -> new RuntimeException("Store not found"));
        Branch branch=null;
@@ -48,12 +84,14 @@ public class EmployeeServiceImpl implements EmployeeService {
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public UserDto createBranchEmployee(UserDto employeeDetails, Long branchId) throws UserException {
         Branch branch=branchRepository.findById(branchId).orElseThrow(() -> new RuntimeException("Branch not found"));
 
         if(employeeDetails.getRole()==UserRole.ROLE_BRANCH_CASHIER || employeeDetails.getRole()==UserRole.ROLE_BRANCH_MANAGER){
             User user = UserMapper.toEntity(employeeDetails, passwordEncoder);
             user.setBranch(branch);
+            user.setStore(branch.getStore());
             User savedUser=userRepository.save(user);
             if(employeeDetails.getRole()==UserRole.ROLE_BRANCH_MANAGER){
                 branch.setManager(savedUser);
@@ -65,15 +103,131 @@ public class EmployeeServiceImpl implements EmployeeService {
         throw new UserException("Invalid role for branch employee");
     }
 
+    // Deliberately not transactional: no connection is held while the pool hashes passwords.
+    // The inserts and the manager assignment then commit together in one transaction
     @Override
+    public EmployeeOnboardingReportDto onboardBranchEmployees(List<UserDto> employees, Long branchId) throws UserException {
+        if (employees == null || employees.isEmpty()) {
+            throw new UserException("At least one employee is required");
+        }
+        if (employees.size() > maxOnboardingBatch) {
+            throw new UserException("At most " + maxOnboardingBatch + " employees can be onboarded at once");
+        }
+        Branch branch = branchRepository.findById(branchId).orElseThrow(() -> new RuntimeException("Branch not found"));
+
+        List<RejectedEmployeeDto> rejected = new ArrayList<>();
+        Map<String, UserDto> accepted = new LinkedHashMap<>();
+        for (UserDto employee : employees) {
+            String reason = onboardingRejection(employee);
+            if (reason == null && accepted.putIfAbsent(employee.getEmail().trim().toLowerCase(Locale.ROOT), employee) != null) {
+                reason = "Duplicate email in request";
+            }
+            if (reason != null) {
+                rejected.add(new RejectedEmployeeDto(employee != null ? employee.getEmail() : null, reason));
+            }
+        }
+
+        // One IN query per chunk instead of a findByEmail per row
+        Set<String> taken = new HashSet<>();
+        List<String> emails = accepted.values().stream().map(e -> e.getEmail().trim()).toList();
+        for (int i = 0; i < emails.size(); i += LOOKUP_CHUNK) {
+            userRepository.findExistingEmails(emails.subList(i, Math.min(i + LOOKUP_CHUNK, emails.size())))
+                    .forEach(email -> taken.add(email.toLowerCase(Locale.ROOT)));
+        }
+        accepted.entrySet().removeIf(entry -> {
+            if (taken.contains(entry.getKey())) {
+                rejected.add(new RejectedEmployeeDto(entry.getValue().getEmail(), "Email already registered"));
+                return true;
+            }
+            return false;
+        });
+
+        // BCrypt dominates the cost of an import, so hash on the bounded pool rather than in a loop
+        List<CompletableFuture<User>> pending = accepted.values().stream()
+                .map(employee -> CompletableFuture.supplyAsync(() -> newBranchEmployee(employee, branch), onboardingExecutor))
+                .toList();
+        List<User> users = pending.stream().map(CompletableFuture::join).toList();
+        if (users.isEmpty()) {
+            return new EmployeeOnboardingReportDto(branchId, List.of(), rejected, null);
+        }
+        return new TransactionTemplate(transactionManager).execute(status -> saveOnboarded(users, branchId, rejected));
+    }
+
+    private EmployeeOnboardingReportDto saveOnboarded(List<User> users, Long branchId, List<RejectedEmployeeDto> rejected) {
+        userJdbcRepository.insertUsers(users);
+
+        List<User> saved = new ArrayList<>();
+        List<String> created = users.stream().map(User::getEmail).toList();
+        for (int i = 0; i < created.size(); i += LOOKUP_CHUNK) {
+            saved.addAll(userRepository.findByEmailIn(created.subList(i, Math.min(i + LOOKUP_CHUNK, created.size()))));
+        }
+
+        // A branch has a single manager; the last one listed wins and the branch is saved once
+        Map<String, User> byEmail = new LinkedHashMap<>();
+        saved.forEach(user -> byEmail.put(user.getEmail().toLowerCase(Locale.ROOT), user));
+        User manager = null;
+        for (User user : users) {
+            User persisted = byEmail.get(user.getEmail().toLowerCase(Locale.ROOT));
+            if (persisted != null && persisted.getRole() == UserRole.ROLE_BRANCH_MANAGER) {
+                manager = persisted;
+            }
+        }
+        if (manager != null) {
+            Branch branch = branchRepository.findById(branchId).orElseThrow(() -> new RuntimeException("Branch not found"));
+            branch.setManager(manager);
+            branchRepository.save(branch);
+        }
+
+        return EmployeeOnboardingReportDto.builder()
+                .branchId(branchId)
+                .created(byEmail.values().stream().map(UserMapper::toDto).toList())
+                .rejected(rejected)
+                .managerId(manager != null ? manager.getId() : null)
+                .build();
+    }
+
+    private String onboardingRejection(UserDto employee) {
+        if (employee == null || employee.getEmail() == null || employee.getEmail().isBlank()) {
+            return "Email is required";
+        }
+        if (employee.getFullName() == null || employee.getFullName().isBlank()) {
+            return "Full name is required";
+        }
+        if (employee.getPassword() == null || employee.getPassword().isEmpty()) {
+            return "Password is required";
+        }
+        if (employee.getRole() != UserRole.ROLE_BRANCH_CASHIER && employee.getRole() != UserRole.ROLE_BRANCH_MANAGER) {
+            return "Invalid role for branch employee";
+        }
+        return null;
+    }
+
+    private User newBranchEmployee(UserDto employee, Branch branch) {
+        User user = UserMapper.toEntity(employee, passwordEncoder);
+        user.setEmail(employee.getEmail().trim());
+        user.setBranch(branch);
+        user.setStore(branch.getStore());
+        user.setClaimsVersion(0);
+        return user;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
     public UserDto updateEmployee(UserDto employeeDetails, Long employeeId) throws UserException {
         User existingUser = userRepository.findById(employeeId)
                 .orElseThrow(() -> new RuntimeException("Employee not found with this id"));
 
+        UserRole previousRole = existingUser.getRole();
+        Long previousBranchId = existingUser.getBranch() != null ? existingUser.getBranch().getId() : null;
+        boolean previouslyActive = !Boolean.FALSE.equals(existingUser.getActive());
+
         existingUser.setFullName(employeeDetails.getFullName());
         existingUser.setEmail(employeeDetails.getEmail());
         existingUser.setPhone(employeeDetails.getPhone());
         existingUser.setRole(employeeDetails.getRole());
+        if (employeeDetails.getActive() != null) {
+            existingUser.setActive(employeeDetails.getActive());
+        }
         
         // Only update password if provided
         if (employeeDetails.getPassword() != null && !employeeDetails.getPassword().isEmpty()) {
@@ -87,11 +241,26 @@ public class EmployeeServiceImpl implements EmployeeService {
             existingUser.setBranch(branch);
         }
         
+        // Tokens still carrying the old branch or role must not keep working, nor may those of
+        // someone just deactivated
+        Long branchId = existingUser.getBranch() != null ? existingUser.getBranch().getId() : null;
+        boolean active = !Boolean.FALSE.equals(existingUser.getActive());
+        boolean claimsChanged = existingUser.getRole() != previousRole || !Objects.equals(branchId, previousBranchId)
+                || active != previouslyActive;
+        if (claimsChanged) {
+            int version = existingUser.getClaimsVersion() != null ? existingUser.getClaimsVersion() : 0;
+            existingUser.setClaimsVersion(version + 1);
+        }
+
         User savedUser = userRepository.save(existingUser);
+        if (claimsChanged) {
+            claimsVersionRegistry.update(savedUser.getId(), savedUser.getClaimsVersion());
+        }
         return UserMapper.toDto(savedUser);
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void deleteEmployee(Long employeeId) throws UserException {
         User existingUser = userRepository.findById(employeeId)
                 .orElseThrow(() -> new RuntimeException("Employee not found"));
@@ -99,19 +268,34 @@ public class EmployeeServiceImpl implements EmployeeService {
     }
 
     @Override
-    public List<UserDto> findStoreEmployees(Long storeId, UserRole role) throws UserException {
-        Store store=storeRepository.findById(storeId).orElseThrow(() -> new RuntimeException("Store not found"));
-        return userRepository.findByStore(store).stream().filter(user -> role==null || user.getRole().equals(role)).map(UserMapper::toDto).collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public PageResponse<EmployeeListItemDto> findStoreEmployees(Long storeId, UserRole role, Long branchId, Boolean active,
+                                                               int page, int size) throws UserException {
+        Slice<EmployeeListItemDto> slice = userRepository.findStoreEmployees(storeId, role, branchId, active, pageRequest(page, size));
+        // Only an empty first page needs to tell "no such store" apart from "no matching staff"
+        if (!slice.hasContent() && slice.isFirst() && !storeRepository.existsById(storeId)) {
+            throw new RuntimeException("Store not found");
+        }
+        return toPage(slice);
     }
 
     @Override
-    public List<UserDto> findBranchEmployees(Long branchId, UserRole role) throws UserException {
-        branchRepository.findById(branchId)
-                .orElseThrow(() -> new RuntimeException("Branch not found"));
-        List<User> employees = userRepository.findByBranchId(branchId);
-        return employees.stream()
-                .filter(user -> role == null || user.getRole().equals(role))
-                .map(UserMapper::toDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public PageResponse<EmployeeListItemDto> findBranchEmployees(Long branchId, UserRole role, Boolean active,
+                                                                int page, int size) throws UserException {
+        Slice<EmployeeListItemDto> slice = userRepository.findBranchEmployees(branchId, role, active, pageRequest(page, size));
+        if (!slice.hasContent() && slice.isFirst() && !branchRepository.existsById(branchId)) {
+            throw new RuntimeException("Branch not found");
+        }
+        return toPage(slice);
+    }
+
+    private PageRequest pageRequest(int page, int size) {
+        return PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)), EMPLOYEE_ORDER);
+    }
+
+    private PageResponse<EmployeeListItemDto> toPage(Slice<EmployeeListItemDto> slice) {
+        String nextCursor = slice.hasNext() ? String.valueOf(slice.getNumber() + 1) : null;
+        return new PageResponse<>(slice.getContent(), nextCursor, slice.hasNext());
     }
 }
@@ -0,0 +1,197 @@
+package com.molla.service.impl;
+
+import com.molla.configuration.StoreShardRouter;
+import com.molla.configuration.TenantContext;
+import com.molla.domain.MovementType;
+import com.molla.mapper.InventoryMovementMapper;
+import com.molla.model.InventoryMovement;
+import com.molla.model.InventorySnapshot;
+import com.molla.payload.dto.InventoryMovementDto;
+import com.molla.payload.dto.InventoryReconciliationDto;
+import com.molla.repository.InventoryMovementRepository;
+import com.molla.repository.InventoryRepository;
+import com.molla.repository.InventorySnapshotRepository;
+import com.molla.service.InventoryLedgerService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryLedgerServiceImpl implements InventoryLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryLedgerServiceImpl.class);
+
+    private static final long COMPACTION_BATCH = 10_000;
+
+    private final InventoryMovementRepository movementRepository;
+    private final InventorySnapshotRepository snapshotRepository;
+    private final InventoryRepository inventoryRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final StoreShardRouter router;
+
+    // Movements younger than this may still belong to an open transaction, so they are
+    // left for the next compaction run
+    @Value("${pos.inventory.ledger.compaction-grace-seconds:300}")
+    private long compactionGraceSeconds;
+
+    @Override
+    @Transactional
+    public void recordMovement(Long inventoryId, Long branchId, Long productId, MovementType type, int delta, Integer quantityAfter, String reference) {
+        InventoryMovement movement = InventoryMovement.builder()
+            .inventoryId(inventoryId)
+            .branchId(branchId)
+            .productId(productId)
+            .type(type)
+            .delta(delta)
+            .quantityAfter(quantityAfter)
+            .reference(reference)
+            .build();
+        movementRepository.save(movement);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<InventoryMovementDto> getMovements(Long inventoryId, int page, int size) {
+        return movementRepository.findByInventoryIdOrderByIdDesc(inventoryId, PageRequest.of(page, size)).stream()
+            .map(InventoryMovementMapper::toDto)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InventoryReconciliationDto reconcile(Long inventoryId) {
+        Integer currentQuantity = inventoryRepository.findStockLevelById(inventoryId)
+            .orElseThrow(() -> new RuntimeException("Inventory not found"))
+            .getQuantity();
+
+        InventorySnapshot snapshot = snapshotRepository.findTopByInventoryIdOrderByLastMovementIdDesc(inventoryId)
+            .orElse(null);
+        long afterId = snapshot != null ? snapshot.getLastMovementId() : 0L;
+        List<InventoryMovement> movements = movementRepository.findByInventoryIdAndIdGreaterThanOrderByIdAsc(inventoryId, afterId);
+
+        int netChange = movements.stream().mapToInt(InventoryMovement::getDelta).sum();
+        Integer base;
+        if (snapshot != null) {
+            base = snapshot.getQuantity();
+        } else if (!movements.isEmpty()) {
+            base = openingQuantity(movements.get(0));
+        } else {
+            base = currentQuantity; // never moved since the ledger was introduced
+        }
+        int ledgerQuantity = base + netChange;
+
+        return InventoryReconciliationDto.builder()
+            .inventoryId(inventoryId)
+            .snapshotQuantity(snapshot != null ? snapshot.getQuantity() : null)
+            .snapshotMovementId(snapshot != null ? snapshot.getLastMovementId() : null)
+            .snapshotCreatedAt(snapshot != null ? snapshot.getCreatedAt() : null)
+            .movementsSinceSnapshot(movements.size())
+            .netChangeSinceSnapshot(netChange)
+            .ledgerQuantity(ledgerQuantity)
+            .currentQuantity(currentQuantity)
+            .balanced(currentQuantity != null && ledgerQuantity == currentQuantity)
+            .build();
+    }
+
+    // compact() is called on this instance, not the proxy, so the transaction is started here,
+    // once per shard with the shard pinned first so its connection comes from that shard.
+    // The catch stays outside it: a failure that marks the transaction rollback-only only
+    // surfaces at commit, and must not escape to the scheduler or skip the other shards.
+    @Scheduled(
+        fixedDelayString = "${pos.inventory.ledger.compaction-interval-ms:300000}",
+        initialDelayString = "${pos.inventory.ledger.compaction-initial-delay-ms:60000}")
+    public void scheduledCompaction() {
+        for (String shard : router.getShardNames()) {
+            try {
+                Integer written = TenantContext.callInShard(shard,
+                        () -> new TransactionTemplate(transactionManager).execute(status -> compact()));
+                if (written != null && written > 0) {
+                    logger.info("Inventory ledger compaction wrote {} snapshots on shard {}", written, shard);
+                }
+            } catch (Exception e) {
+                logger.warn("Inventory ledger compaction failed on shard {}: {}", shard, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public int compact() {
+        Long upto = movementRepository.findMaxIdCreatedBefore(LocalDateTime.now().minusSeconds(compactionGraceSeconds));
+        if (upto == null) {
+            return 0;
+        }
+        Long watermark = snapshotRepository.findCompactionWatermark();
+        long from = watermark != null ? watermark : 0L;
+
+        int written = 0;
+        while (from < upto) {
+            long batchEnd = Math.min(upto, from + COMPACTION_BATCH);
+            written += foldBatch(from, batchEnd);
+            from = batchEnd;
+        }
+        return written;
+    }
+
+    // Folds movements in (afterId, uptoId] into one new snapshot per touched inventory row
+    private int foldBatch(long afterId, long uptoId) {
+        List<Object[]> folds = movementRepository.foldRange(afterId, uptoId);
+        if (folds.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> inventoryIds = folds.stream().map(row -> (Long) row[0]).collect(Collectors.toList());
+        Map<Long, InventorySnapshot> previous = snapshotRepository.findLatestByInventoryIdIn(inventoryIds).stream()
+            .collect(Collectors.toMap(InventorySnapshot::getInventoryId, Function.identity(), (a, b) -> a));
+
+        // Rows without a snapshot start from the stock they held before their first movement
+        List<Long> firstMovementIds = folds.stream()
+            .filter(row -> !previous.containsKey((Long) row[0]))
+            .map(row -> (Long) row[3])
+            .collect(Collectors.toList());
+        Map<Long, InventoryMovement> firstMovements = movementRepository.findAllById(firstMovementIds).stream()
+            .collect(Collectors.toMap(InventoryMovement::getInventoryId, Function.identity()));
+
+        List<InventorySnapshot> snapshots = new ArrayList<>(folds.size());
+        for (Object[] row : folds) {
+            Long inventoryId = (Long) row[0];
+            int netChange = ((Number) row[1]).intValue();
+            int count = ((Number) row[2]).intValue();
+            Long lastMovementId = (Long) row[4];
+
+            InventorySnapshot prior = previous.get(inventoryId);
+            int base = prior != null ? prior.getQuantity() : openingQuantity(firstMovements.get(inventoryId));
+
+            snapshots.add(InventorySnapshot.builder()
+                .inventoryId(inventoryId)
+                .quantity(base + netChange)
+                .lastMovementId(lastMovementId)
+                .movementCount(count)
+                .build());
+        }
+        snapshotRepository.saveAll(snapshots);
+        return snapshots.size();
+    }
+
+    private static int openingQuantity(InventoryMovement firstMovement) {
+        if (firstMovement == null || firstMovement.getQuantityAfter() == null) {
+            return 0;
+        }
+        return firstMovement.getQuantityAfter() - firstMovement.getDelta();
+    }
+}
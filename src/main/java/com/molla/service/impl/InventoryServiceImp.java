@@ -1,28 +1,53 @@
 package com.molla.service.impl;
 
+import com.molla.domain.MovementType;
+import com.molla.event.StockLevelChangedEvent;
 import com.molla.mapper.InventoryMapper;
 import com.molla.model.Branch;
 import com.molla.model.Inventory;
+import com.molla.model.InventoryMovement;
 import com.molla.model.Product;
 import com.molla.payload.dto.InventoryDto;
+import com.molla.payload.dto.StockCountDto;
+import com.molla.payload.dto.StockTakeDto;
+import com.molla.payload.dto.StockTakeReportDto;
+import com.molla.payload.dto.StockVarianceDto;
 import com.molla.repository.BranchRepository;
+import com.molla.repository.InventoryJdbcRepository;
 import com.molla.repository.InventoryRepository;
+import com.molla.repository.LowStockAlertRepository;
 import com.molla.repository.ProductRepository;
+import com.molla.service.InventoryLedgerService;
 import com.molla.service.InventoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class InventoryServiceImp implements InventoryService {
+    private static final int LOOKUP_CHUNK = 1000;
+
     private final InventoryRepository inventoryRepository;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
     private final BranchRepository branchRepository;
     private final ProductRepository productRepository;
+    private final LowStockAlertRepository lowStockAlertRepository;
+    private final InventoryLedgerService inventoryLedgerService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
     public InventoryDto createInventory(InventoryDto inventoryDto) {
         // Validate required fields
         if (inventoryDto.getBranchId() == null) {
@@ -43,26 +68,169 @@ public class InventoryServiceImp implements InventoryService {
 
         Inventory inventory = InventoryMapper.toEntity(inventoryDto, branch, product);
         Inventory savedInventory = inventoryRepository.save(inventory);
+        inventoryLedgerService.recordMovement(savedInventory.getId(), branch.getId(), product.getId(),
+                MovementType.ADJUSTMENT, savedInventory.getQuantity(), savedInventory.getQuantity(), "initial-stock");
+        eventPublisher.publishEvent(new StockLevelChangedEvent(savedInventory.getId(), branch.getId(), product.getId(),
+                null, savedInventory.getQuantity(), null, savedInventory.getReorderLevel()));
         return InventoryMapper.toDto(savedInventory);
     }
 
     @Override
+    @Transactional
     public InventoryDto updateInventory(InventoryDto inventoryDto, Long id) {
-        Inventory existingInventory = inventoryRepository.findById(id)
+        InventoryRepository.StockLevel current = inventoryRepository.findStockLevelById(id)
+                .orElseThrow(() -> new RuntimeException("Inventory not found"));
+
+        if (inventoryDto.getReorderLevel() != null && !inventoryDto.getReorderLevel().equals(current.getReorderLevel())) {
+            inventoryRepository.updateReorderLevel(id, inventoryDto.getReorderLevel());
+            eventPublisher.publishEvent(new StockLevelChangedEvent(id, current.getBranchId(), current.getProductId(),
+                    current.getQuantity(), current.getQuantity(), current.getReorderLevel(), inventoryDto.getReorderLevel()));
+        }
+
+        // A counted quantity is applied as the difference to the stock we read, so sales that
+        // land between the read and the write are kept rather than overwritten
+        if (inventoryDto.getQuantity() != null) {
+            int delta = inventoryDto.getQuantity() - current.getQuantity();
+            if (delta != 0) {
+                applyMovement(id, MovementType.ADJUSTMENT, delta, "manual-update");
+            }
+        }
+
+        Inventory updatedInventory = inventoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Inventory not found"));
-        existingInventory.setQuantity(inventoryDto.getQuantity());
-        Inventory updatedInventory = inventoryRepository.save(existingInventory);
         return InventoryMapper.toDto(updatedInventory);
     }
 
     @Override
+    @Transactional
+    public void adjustStock(Long productId, Long branchId, int delta, MovementType type, String reference) {
+        // Products that are not stocked at this branch are not tracked
+        inventoryRepository.findIdByProductIdAndBranchId(productId, branchId)
+                .ifPresent(inventoryId -> applyMovement(inventoryId, type, delta, reference));
+    }
+
+    @Override
+    @Transactional
+    public void debitStock(Long productId, Long branchId, int quantity, MovementType type, String reference) {
+        inventoryRepository.findIdByProductIdAndBranchId(productId, branchId).ifPresent(inventoryId -> {
+            if (inventoryRepository.subtractIfAvailable(inventoryId, quantity, LocalDateTime.now()) == 0) {
+                throw new RuntimeException("Insufficient stock for product " + productId);
+            }
+            recordMovement(inventoryId, type, -quantity, reference);
+        });
+    }
+
+    @Override
+    @Transactional
+    public StockTakeReportDto applyStockTake(Long branchId, StockTakeDto stockTakeDto) {
+        if (stockTakeDto.getCounts() == null || stockTakeDto.getCounts().isEmpty()) {
+            throw new RuntimeException("At least one counted product is required");
+        }
+        Branch branch = branchRepository.findById(branchId)
+                .orElseThrow(() -> new RuntimeException("Branch not found"));
+
+        // The same product counted in two places (shelf and back room) adds up
+        Map<Long, Integer> counted = new LinkedHashMap<>();
+        for (StockCountDto count : stockTakeDto.getCounts()) {
+            if (count.getProductId() == null || count.getCountedQuantity() == null) {
+                throw new RuntimeException("Product ID and counted quantity are required for every line");
+            }
+            if (count.getCountedQuantity() < 0) {
+                throw new RuntimeException("Counted quantity cannot be negative for product " + count.getProductId());
+            }
+            counted.merge(count.getProductId(), count.getCountedQuantity(), Integer::sum);
+        }
+
+        Map<Long, InventoryRepository.StockLevel> current = stockLevels(branchId, counted.keySet());
+
+        String reference = stockTakeDto.getReference() != null && !stockTakeDto.getReference().isBlank()
+                ? "stock-take:" + stockTakeDto.getReference()
+                : "stock-take";
+        List<InventoryMovement> movements = new ArrayList<>();
+        List<StockVarianceDto> variances = new ArrayList<>();
+        List<Long> newlyStocked = new ArrayList<>();
+
+        for (Map.Entry<Long, Integer> entry : counted.entrySet()) {
+            InventoryRepository.StockLevel level = current.get(entry.getKey());
+            if (level == null) {
+                newlyStocked.add(entry.getKey());
+                continue;
+            }
+            int delta = entry.getValue() - level.getQuantity();
+            if (delta == 0) {
+                continue;
+            }
+            movements.add(stockTakeMovement(level.getId(), branchId, entry.getKey(), delta, entry.getValue(), reference));
+            variances.add(variance(entry.getKey(), level.getId(), level.getQuantity(), entry.getValue()));
+        }
+
+        // Deltas rather than absolute values, so sales rung up during the count are kept
+        inventoryJdbcRepository.applyDeltas(movements);
+        int adjusted = movements.size();
+        // A sale during the count leaves the row below the counted value, so record what it actually holds
+        if (adjusted > 0) {
+            Map<Long, InventoryRepository.StockLevel> after = stockLevels(branchId,
+                    movements.stream().map(InventoryMovement::getProductId).toList());
+            for (InventoryMovement movement : movements) {
+                movement.setQuantityAfter(after.get(movement.getProductId()).getQuantity());
+            }
+        }
+
+        // Products counted at this branch for the first time get their own inventory row
+        List<Inventory> createdRows = new ArrayList<>();
+        if (!newlyStocked.isEmpty()) {
+            List<Product> products = productRepository.findAllById(newlyStocked);
+            if (products.size() != newlyStocked.size()) {
+                throw new RuntimeException("Product not found for one or more counted lines");
+            }
+            for (Product product : products) {
+                createdRows.add(Inventory.builder()
+                        .branch(branch)
+                        .product(product)
+                        .quantity(counted.get(product.getId()))
+                        .lastUpdated(LocalDateTime.now())
+                        .build());
+            }
+            inventoryRepository.saveAll(createdRows);
+            for (Inventory row : createdRows) {
+                Long productId = row.getProduct().getId();
+                movements.add(stockTakeMovement(row.getId(), branchId, productId, row.getQuantity(), row.getQuantity(), reference));
+                variances.add(variance(productId, row.getId(), 0, row.getQuantity()));
+            }
+        }
+        inventoryJdbcRepository.insertMovements(movements);
+
+        Map<Long, Integer> reorderLevels = new HashMap<>();
+        current.values().forEach(level -> reorderLevels.put(level.getId(), level.getReorderLevel()));
+        for (int i = 0; i < movements.size(); i++) {
+            InventoryMovement movement = movements.get(i);
+            Integer reorderLevel = reorderLevels.get(movement.getInventoryId());
+            Integer previousQuantity = i < adjusted ? movement.getQuantityAfter() - movement.getDelta() : null;
+            eventPublisher.publishEvent(new StockLevelChangedEvent(movement.getInventoryId(), branchId, movement.getProductId(),
+                    previousQuantity, movement.getQuantityAfter(), reorderLevel, reorderLevel));
+        }
+
+        return StockTakeReportDto.builder()
+                .branchId(branchId)
+                .productsCounted(counted.size())
+                .productsAdjusted(adjusted)
+                .inventoriesCreated(createdRows.size())
+                .totalVariance(variances.stream().mapToInt(StockVarianceDto::getVariance).sum())
+                .variances(variances)
+                .build();
+    }
+
+    @Override
+    @Transactional
     public void deleteInventory(Long id) {
         Inventory inventory = inventoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Inventory not found"));
+        lowStockAlertRepository.deleteByInventoryId(id);
         inventoryRepository.delete(inventory);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public InventoryDto getInventoryByProductIdAndBranchId(Long productId, Long branchId) {
         Inventory inventory = inventoryRepository.findByProductIdAndBranchId(productId, branchId)
                 .orElseThrow(() -> new RuntimeException("Inventory not found"));
@@ -70,10 +238,62 @@ public class InventoryServiceImp implements InventoryService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<InventoryDto> getAllInventoriesByBranchId(Long branchId) {
         List<Inventory> inventories = inventoryRepository.findByBranchId(branchId);
         return inventories.stream()
                 .map(InventoryMapper::toDto)
                 .collect(Collectors.toList());
     }
+
+    private void applyMovement(Long inventoryId, MovementType type, int delta, String reference) {
+        inventoryRepository.addToQuantity(inventoryId, delta, LocalDateTime.now());
+        recordMovement(inventoryId, type, delta, reference);
+    }
+
+    // Records a change already applied to the row and announces the level it left
+    private void recordMovement(Long inventoryId, MovementType type, int delta, String reference) {
+        InventoryRepository.StockLevel level = inventoryRepository.findStockLevelById(inventoryId)
+                .orElseThrow(() -> new RuntimeException("Inventory not found"));
+
+        inventoryLedgerService.recordMovement(inventoryId, level.getBranchId(), level.getProductId(),
+                type, delta, level.getQuantity(), reference);
+        eventPublisher.publishEvent(new StockLevelChangedEvent(inventoryId, level.getBranchId(), level.getProductId(),
+                level.getQuantity() - delta, level.getQuantity(), level.getReorderLevel(), level.getReorderLevel()));
+    }
+
+    // Stock levels of the given products at one branch, keyed by product id
+    private Map<Long, InventoryRepository.StockLevel> stockLevels(Long branchId, Collection<Long> productIds) {
+        Map<Long, InventoryRepository.StockLevel> levels = new HashMap<>();
+        List<Long> ids = new ArrayList<>(productIds);
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + LOOKUP_CHUNK));
+            for (InventoryRepository.StockLevel level : inventoryRepository.findStockLevelsByBranchIdAndProductIdIn(branchId, chunk)) {
+                levels.put(level.getProductId(), level);
+            }
+        }
+        return levels;
+    }
+
+    private static InventoryMovement stockTakeMovement(Long inventoryId, Long branchId, Long productId, int delta, int quantityAfter, String reference) {
+        return InventoryMovement.builder()
+                .inventoryId(inventoryId)
+                .branchId(branchId)
+                .productId(productId)
+                .type(MovementType.ADJUSTMENT)
+                .delta(delta)
+                .quantityAfter(quantityAfter)
+                .reference(reference)
+                .build();
+    }
+
+    private static StockVarianceDto variance(Long productId, Long inventoryId, int previousQuantity, int countedQuantity) {
+        return StockVarianceDto.builder()
+                .productId(productId)
+                .inventoryId(inventoryId)
+                .previousQuantity(previousQuantity)
+                .countedQuantity(countedQuantity)
+                .variance(countedQuantity - previousQuantity)
+                .build();
+    }
 }
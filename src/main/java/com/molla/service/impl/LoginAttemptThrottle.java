@@ -0,0 +1,121 @@
+package com.molla.service.impl;
+
+import com.molla.exceptions.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sliding-window counters of failed logins per email and client IP pair, per client IP and
+ * per email. A key that reaches its limit is refused until its oldest failure leaves the
+ * window, before any password hashing is spent on it. The per-email limit is much higher
+ * than the per-pair one: it only stops guessing spread over many addresses, so failures
+ * from one address lock the owner out of nothing but that address.
+ */
+@Component
+public class LoginAttemptThrottle {
+
+    // Only the newest failures decide whether a key is blocked
+    private static final int MAX_TRACKED_FAILURES = 100;
+
+    private final Map<String, Deque<Long>> failuresByEmailAndIp = new ConcurrentHashMap<>();
+    private final Map<String, Deque<Long>> failuresByIp = new ConcurrentHashMap<>();
+    private final Map<String, Deque<Long>> failuresByEmail = new ConcurrentHashMap<>();
+
+    @Value("${pos.auth.throttle.window-seconds:900}")
+    private long windowSeconds;
+
+    @Value("${pos.auth.throttle.max-failures-per-email-and-ip:5}")
+    private int maxFailuresPerEmailAndIp;
+
+    @Value("${pos.auth.throttle.max-failures-per-ip:20}")
+    private int maxFailuresPerIp;
+
+    @Value("${pos.auth.throttle.max-failures-per-email:50}")
+    private int maxFailuresPerEmail;
+
+    public void checkAllowed(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        long retryAfter = Math.max(Math.max(
+                retryAfterMillis(failuresByEmailAndIp.get(emailAndIp(email, clientIp)), maxFailuresPerEmailAndIp, now),
+                retryAfterMillis(clientIp != null ? failuresByIp.get(clientIp) : null, maxFailuresPerIp, now)),
+                retryAfterMillis(failuresByEmail.get(normalize(email)), maxFailuresPerEmail, now));
+        if (retryAfter > 0) {
+            throw new TooManyRequestsException("Too many failed login attempts, try again later",
+                    Math.max(1, retryAfter / 1000));
+        }
+    }
+
+    public void recordFailure(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        record(failuresByEmailAndIp, emailAndIp(email, clientIp), now);
+        record(failuresByEmail, normalize(email), now);
+        if (clientIp != null) {
+            record(failuresByIp, clientIp, now);
+        }
+    }
+
+    public void recordSuccess(String email, String clientIp) {
+        failuresByEmailAndIp.remove(emailAndIp(email, clientIp));
+        failuresByEmail.remove(normalize(email));
+    }
+
+    // Drops keys whose failures have all aged out of the window
+    @Scheduled(fixedDelayString = "${pos.auth.throttle.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - windowSeconds * 1000;
+        evictExpired(failuresByEmailAndIp, cutoff);
+        evictExpired(failuresByIp, cutoff);
+        evictExpired(failuresByEmail, cutoff);
+    }
+
+    private long retryAfterMillis(Deque<Long> failures, int limit, long now) {
+        if (failures == null) {
+            return 0;
+        }
+        long windowMillis = windowSeconds * 1000;
+        synchronized (failures) {
+            while (!failures.isEmpty() && failures.peekFirst() <= now - windowMillis) {
+                failures.pollFirst();
+            }
+            if (failures.size() < limit) {
+                return 0;
+            }
+            return failures.peekFirst() + windowMillis - now;
+        }
+    }
+
+    private void record(Map<String, Deque<Long>> counters, String key, long now) {
+        Deque<Long> failures = counters.computeIfAbsent(key, k -> new ArrayDeque<>());
+        synchronized (failures) {
+            failures.addLast(now);
+            if (failures.size() > MAX_TRACKED_FAILURES) {
+                failures.pollFirst();
+            }
+        }
+    }
+
+    private static void evictExpired(Map<String, Deque<Long>> counters, long cutoff) {
+        counters.entrySet().removeIf(entry -> {
+            Deque<Long> failures = entry.getValue();
+            synchronized (failures) {
+                Long newest = failures.peekLast();
+                return newest == null || newest <= cutoff;
+            }
+        });
+    }
+
+    private static String emailAndIp(String email, String clientIp) {
+        return normalize(email) + "|" + (clientIp != null ? clientIp : "");
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
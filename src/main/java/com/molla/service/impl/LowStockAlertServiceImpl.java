@@ -0,0 +1,105 @@
+package com.molla.service.impl;
+
+import com.molla.event.StockLevelChangedEvent;
+import com.molla.mapper.LowStockAlertMapper;
+import com.molla.model.LowStockAlert;
+import com.molla.payload.dto.LowStockAlertDto;
+import com.molla.repository.BranchRepository;
+import com.molla.repository.InventoryRepository;
+import com.molla.repository.LowStockAlertRepository;
+import com.molla.repository.ProductRepository;
+import com.molla.service.LowStockAlertService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class LowStockAlertServiceImpl implements LowStockAlertService {
+
+    private final LowStockAlertRepository lowStockAlertRepository;
+    private final InventoryRepository inventoryRepository;
+    private final BranchRepository branchRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate alertTransaction;
+
+    public LowStockAlertServiceImpl(LowStockAlertRepository lowStockAlertRepository,
+                                    InventoryRepository inventoryRepository,
+                                    BranchRepository branchRepository,
+                                    ProductRepository productRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.lowStockAlertRepository = lowStockAlertRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.branchRepository = branchRepository;
+        this.productRepository = productRepository;
+        // The stock change has already committed when alerts are written, so they need their own transaction
+        this.alertTransaction = new TransactionTemplate(transactionManager);
+        this.alertTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LowStockAlertDto> getOpenAlertsByBranchId(Long branchId) {
+        return lowStockAlertRepository.findByBranchIdAndResolvedAtIsNullOrderByCreatedAtDesc(branchId).stream()
+            .map(LowStockAlertMapper::toDto)
+            .collect(Collectors.toList());
+    }
+
+    // Only threshold crossings touch the alert table; ordinary sales above or below the
+    // reorder level cost nothing beyond the comparison below. Runs after the stock change commits,
+    // so a sale that rolls back raises no alert and a failed alert insert cannot undo the sale.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        boolean wasLow = isLow(event.getPreviousQuantity(), event.getPreviousReorderLevel());
+        boolean isLow = isLow(event.getQuantity(), event.getReorderLevel());
+
+        if (!wasLow && isLow) {
+            openAlert(event);
+        } else if (wasLow && !isLow) {
+            resolveAlert(event.getInventoryId());
+        }
+    }
+
+    private void openAlert(StockLevelChangedEvent event) {
+        try {
+            alertTransaction.executeWithoutResult(status -> {
+                // Deduplicate: a row that is already flagged keeps its original alert
+                if (lowStockAlertRepository.findFirstByInventoryIdAndResolvedAtIsNull(event.getInventoryId()).isPresent()) {
+                    return;
+                }
+                LowStockAlert alert = LowStockAlert.builder()
+                    .inventory(inventoryRepository.getReferenceById(event.getInventoryId()))
+                    .branch(branchRepository.getReferenceById(event.getBranchId()))
+                    .product(productRepository.getReferenceById(event.getProductId()))
+                    .quantity(event.getQuantity())
+                    .reorderLevel(event.getReorderLevel())
+                    .openInventoryId(event.getInventoryId())
+                    .build();
+                lowStockAlertRepository.saveAndFlush(alert);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent crossing opened it first; uk_low_stock_alert_open keeps that one
+        }
+    }
+
+    private void resolveAlert(Long inventoryId) {
+        alertTransaction.executeWithoutResult(status ->
+            lowStockAlertRepository.findFirstByInventoryIdAndResolvedAtIsNull(inventoryId)
+                .ifPresent(alert -> {
+                    alert.setResolvedAt(LocalDateTime.now());
+                    alert.setOpenInventoryId(null);
+                    lowStockAlertRepository.save(alert);
+                }));
+    }
+
+    private static boolean isLow(Integer quantity, Integer reorderLevel) {
+        return quantity != null && reorderLevel != null && quantity <= reorderLevel;
+    }
+}
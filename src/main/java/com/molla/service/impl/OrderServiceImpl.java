@@ -1,5 +1,7 @@
 package com.molla.service.impl;
 
+import com.molla.configuration.PosPrincipal;
+import com.molla.domain.MovementType;
 import com.molla.domain.OrderStatus;
 import com.molla.domain.PaymentType;
 import com.molla.mapper.OrderMapper;
@@ -16,14 +18,21 @@ import com.molla.repository.CustomerRepository;
 import com.molla.repository.OrderRepository;
 import com.molla.repository.ProductRepository;
 import com.molla.repository.UserRepository;
+import com.molla.service.CustomerSummaryService;
+import com.molla.service.InventoryService;
 import com.molla.service.OrderService;
+import com.molla.service.StockReservationService;
 import com.molla.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,16 +44,27 @@ public class OrderServiceImpl implements OrderService {
     private final CustomerRepository customerRepository;
     private final BranchRepository branchRepository;
     private final UserRepository userRepository;
+    private final InventoryService inventoryService;
+    private final StockReservationService stockReservationService;
+    private final CustomerSummaryService customerSummaryService;
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public OrderDto createOrder(OrderDto orderDto) throws Exception {
         // Get current user (cashier) - handle case where no authentication
         User cashier = null;
         Branch branch = null;
         
         try {
-            cashier = userService.getCurrentUser();
-            branch = cashier.getBranch();
+            PosPrincipal principal = userService.getCurrentPrincipal();
+            if (principal != null && principal.userId() != null && principal.branchId() != null) {
+                // Ids from the token's claims; the rows load only when the order is mapped back
+                cashier = userRepository.getReferenceById(principal.userId());
+                branch = branchRepository.getReferenceById(principal.branchId());
+            } else {
+                cashier = userService.getUser(principal);
+                branch = cashier.getBranch();
+            }
         } catch (Exception e) {
             // No authenticated user - use defaults for testing
             // Try to get branch from orderDto or use default branchId 1
@@ -66,10 +86,10 @@ public class OrderServiceImpl implements OrderService {
             throw new Exception("Cashier is required");
         }
 
-        // Get customer if customerId is provided
+        // Get customer if customerId is provided, locked so their summary is updated by one checkout at a time
         Customer customer = null;
         if (orderDto.getCustomerId() != null) {
-            customer = customerRepository.findById(orderDto.getCustomerId())
+            customer = customerRepository.findByIdForUpdate(orderDto.getCustomerId())
                 .orElseThrow(() -> new Exception("Customer not found"));
         }
 
@@ -122,12 +142,27 @@ public class OrderServiceImpl implements OrderService {
         order.setTotalAmount(totalAmount);
         order.setOrderItems(orderItems);
 
+        // Settle the cart's reservations against current stock before anything is written
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : orderItems) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        stockReservationService.checkout(orderDto.getCartId(), branch.getId(), quantities);
+
         // Save order
         Order savedOrder = orderRepository.save(order);
+
+        // Take sold quantities out of branch stock; a line the shelf can no longer cover fails the order
+        for (OrderItem item : savedOrder.getOrderItems()) {
+            inventoryService.debitStock(item.getProduct().getId(), branch.getId(), item.getQuantity(),
+                MovementType.SALE, "order:" + savedOrder.getId());
+        }
+        customerSummaryService.recordOrder(savedOrder);
         return OrderMapper.toDto(savedOrder);
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public OrderDto updateOrder(Long id, OrderDto orderDto) throws Exception {
         Order order = orderRepository.findById(id)
             .orElseThrow(() -> new Exception("Order not found"));
@@ -145,13 +180,16 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void deleteOrder(Long id) throws Exception {
         Order order = orderRepository.findById(id)
             .orElseThrow(() -> new Exception("Order not found with id " + id));
         orderRepository.delete(order);
+        customerSummaryService.removeOrder(order);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OrderDto getOrderById(Long id) throws Exception {
         Order order = orderRepository.findById(id)
             .orElseThrow(() -> new Exception("Order not found"));
@@ -159,6 +197,7 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDto> getOrdersByBranch(Long branchId, Long customerId, Long cashierId, PaymentType paymentType, OrderStatus orderStatus) throws Exception {
         return orderRepository.findByBranchId(branchId).stream()
             .filter(order -> customerId == null || (order.getCustomer() != null && order.getCustomer().getId().equals(customerId)))
@@ -170,6 +209,7 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDto> getOrdersByCashier(Long cashierId) throws Exception {
         return orderRepository.findByCashierId(cashierId).stream()
             .map(OrderMapper::toDto)
@@ -177,6 +217,7 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDto> getTodayOrderbyBranch(Long branchId) throws Exception {
         LocalDate today = LocalDate.now();
         LocalDateTime start = today.atStartOfDay();
@@ -188,13 +229,15 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    public List<OrderDto> getOrderByCustomerId(Long customerId) throws Exception {
-        return orderRepository.findByCustomerId(customerId).stream()
+    @Transactional(readOnly = true)
+    public List<OrderDto> getOrderByCustomerId(Long customerId, int page, int size) throws Exception {
+        return orderRepository.findByCustomerIdOrderByCreatedAtDescIdDesc(customerId, PageRequest.of(page, size)).stream()
             .map(OrderMapper::toDto)
             .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDto> getTop5RecentOrdersByBranchId(Long branchId) throws Exception {
         return orderRepository.findTop5ByBranchIdOrderByCreatedAtDesc(branchId).stream()
             .map(OrderMapper::toDto)
@@ -1,9 +1,9 @@
 package com.molla.service.impl;
 
+import com.molla.configuration.PosPrincipal;
 import com.molla.model.Category;
 import com.molla.model.Product;
 import com.molla.model.Store;
-import com.molla.model.User;
 import com.molla.mapper.ProductMapper;
 import com.molla.payload.dto.ProductDto;
 import com.molla.repository.CategoryRepository;
@@ -12,6 +12,7 @@ import com.molla.repository.StoreRepository;
 import com.molla.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -23,7 +24,8 @@ public class ProductServiceImp implements ProductService {
     private final StoreRepository storeRepository;
     private final CategoryRepository categoryRepository;
     @Override
-    public ProductDto createProduct(ProductDto productDto, User user) {
+    @Transactional
+    public ProductDto createProduct(ProductDto productDto, PosPrincipal principal) {
        Store store=storeRepository.findById(
         productDto.getStoreId()
        ).orElseThrow(() -> new RuntimeException("Store not found"));
@@ -51,7 +53,8 @@ public class ProductServiceImp implements ProductService {
     }
 
     @Override
-    public ProductDto updateProduct(Long id, ProductDto productDto, User user) {
+    @Transactional
+    public ProductDto updateProduct(Long id, ProductDto productDto, PosPrincipal principal) {
         Product product = productRepository.findById(id).orElseThrow(() -> new RuntimeException("Product not found"));
         
         product.setName(productDto.getName());
@@ -79,31 +82,36 @@ public class ProductServiceImp implements ProductService {
     }
 
     @Override
-    public void deleteProduct(Long id, User user) {
+    @Transactional
+    public void deleteProduct(Long id, PosPrincipal principal) {
         Product product=productRepository.findById(id).orElseThrow(() -> new RuntimeException("Product not found"));
         productRepository.delete(product);
 
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProductDto> getProductsById(Long storeId) {
     List<Product> products=productRepository.findByStoreId(storeId);
     return products.stream().map(ProductMapper::toDto).collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProductDto> searchByKeyword(Long storeId, String keyword) {
     List<Product> products=productRepository.searchByKeyword(storeId,keyword);
     return products.stream().map(ProductMapper::toDto).collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProductDto> getAllProducts(Long storeId) {
     List<Product> products=productRepository.findByStoreId(storeId);
     return products.stream().map(ProductMapper::toDto).collect(Collectors.toList());
     }
-    
+
     @Override
+    @Transactional(readOnly = true)
     public List<ProductDto> getAllProductsWithoutStoreFilter() {
         List<Product> products = productRepository.findAll();
         return products.stream().map(ProductMapper::toDto).collect(Collectors.toList());
@@ -0,0 +1,227 @@
+package com.molla.service.impl;
+
+import com.molla.configuration.StoreShardRouter;
+import com.molla.configuration.TenantContext;
+import com.molla.mapper.BranchMapper;
+import com.molla.mapper.CategoryMapper;
+import com.molla.mapper.StoreMapper;
+import com.molla.model.Branch;
+import com.molla.payload.dto.BranchDto;
+import com.molla.payload.dto.CategoryDto;
+import com.molla.payload.dto.ReferenceCacheStatsDto;
+import com.molla.payload.dto.StoreDto;
+import com.molla.repository.BranchRepository;
+import com.molla.repository.CategoryRepository;
+import com.molla.repository.StoreRepository;
+import com.molla.service.ReferenceDataService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Each store has a version counter and at most one snapshot of its store row, branches
+ * and categories. A snapshot is served while its version matches the counter; writes bump
+ * the counter so the next read reloads. The version is read before loading, so a write
+ * that lands mid-load leaves the snapshot already stale rather than silently outdated.
+ * The max age bounds staleness from writes made by other instances.
+ * Hits never touch the connection pool; only a reload opens a read-only transaction.
+ * <p>
+ * Store and branch ids are only unique within a shard, so entries are kept per shard. A
+ * store is loaded from its own shard in a transaction of its own, whichever store the
+ * caller's transaction is bound to.
+ */
+@Service
+public class ReferenceDataServiceImpl implements ReferenceDataService {
+
+    private final StoreRepository storeRepository;
+    private final BranchRepository branchRepository;
+    private final CategoryRepository categoryRepository;
+    private final StoreShardRouter router;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${pos.reference-cache.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    private final ConcurrentMap<ShardKey, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ShardKey, StoreSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ShardKey, Long> branchStores = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ReferenceDataServiceImpl(StoreRepository storeRepository, BranchRepository branchRepository,
+                                    CategoryRepository categoryRepository, StoreShardRouter router,
+                                    PlatformTransactionManager transactionManager) {
+        this.storeRepository = storeRepository;
+        this.branchRepository = branchRepository;
+        this.categoryRepository = categoryRepository;
+        this.router = router;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // A store or branch id on one shard
+    private record ShardKey(String shard, Long id) {
+    }
+
+    private record StoreSnapshot(long version, long loadedAtNanos, StoreDto store,
+                                 Map<Long, BranchDto> branches, List<CategoryDto> categories) {
+    }
+
+    @Override
+    public StoreDto getStore(Long storeId) {
+        StoreDto store = snapshot(storeId).store();
+        if (store == null) {
+            throw new RuntimeException("Store not found");
+        }
+        return store;
+    }
+
+    @Override
+    public BranchDto getBranch(Long branchId) {
+        // A bare branch id means a branch on the shard the caller works on
+        String shard = router.currentShard();
+        Long storeId = branchStores.get(new ShardKey(shard, branchId));
+        if (storeId == null) {
+            // First sighting of this branch: one lookup to learn its store, then the store is cached
+            misses.increment();
+            BranchDto branch = inShard(shard, () -> readOnlyTransaction.execute(status ->
+                    branchRepository.findById(branchId).map(BranchMapper::toDto).orElse(null)));
+            if (branch == null) {
+                throw new RuntimeException("Branch not found");
+            }
+            if (branch.getStoreId() == null) {
+                return branch;
+            }
+            storeId = branch.getStoreId();
+        }
+        BranchDto branch = snapshot(storeId).branches().get(branchId);
+        if (branch == null) {
+            throw new RuntimeException("Branch not found");
+        }
+        return branch;
+    }
+
+    @Override
+    public List<BranchDto> getBranches(Long storeId) {
+        return List.copyOf(snapshot(storeId).branches().values());
+    }
+
+    @Override
+    public List<CategoryDto> getCategories(Long storeId) {
+        return snapshot(storeId).categories();
+    }
+
+    @Override
+    public void invalidate(Long storeId) {
+        if (storeId == null) {
+            return;
+        }
+        bump(storeId);
+        invalidations.increment();
+        // Until the writer commits, a reload can still read the old rows under the new
+        // version, so the version is bumped again once the write is visible
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(storeId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public ReferenceCacheStatsDto getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return ReferenceCacheStatsDto.builder()
+                .cachedStores(snapshots.size())
+                .hits(hitCount)
+                .misses(missCount)
+                .hitRatio(total == 0 ? 0 : (double) hitCount / total)
+                .loads(loads.sum())
+                .invalidations(invalidations.sum())
+                .build();
+    }
+
+    private StoreSnapshot snapshot(Long storeId) {
+        ShardKey key = storeKey(storeId);
+        long version = version(key).get();
+        StoreSnapshot snapshot = snapshots.get(key);
+        if (snapshot != null && snapshot.version() == version && !expired(snapshot)) {
+            hits.increment();
+            return snapshot;
+        }
+        misses.increment();
+        StoreSnapshot loaded = inShard(key.shard(), () ->
+                readOnlyTransaction.execute(status -> load(key.shard(), storeId, version)));
+        // Never replace a snapshot taken at a newer version with this one
+        snapshots.merge(key, loaded, (current, fresh) -> current.version() > fresh.version() ? current : fresh);
+        return loaded;
+    }
+
+    private StoreSnapshot load(String shard, Long storeId, long version) {
+        loads.increment();
+        StoreDto store = storeRepository.findById(storeId).map(StoreMapper::toDTO).orElse(null);
+
+        Map<Long, BranchDto> branches = new LinkedHashMap<>();
+        for (Branch branch : branchRepository.findByStoreId(storeId)) {
+            branches.put(branch.getId(), BranchMapper.toDto(branch));
+            branchStores.put(new ShardKey(shard, branch.getId()), storeId);
+        }
+        List<CategoryDto> categories = categoryRepository.findByStoreId(storeId).stream()
+                .map(CategoryMapper::toDto)
+                .toList();
+
+        return new StoreSnapshot(version, System.nanoTime(), store,
+                Collections.unmodifiableMap(branches), categories);
+    }
+
+    private boolean expired(StoreSnapshot snapshot) {
+        return System.nanoTime() - snapshot.loadedAtNanos() > TimeUnit.SECONDS.toNanos(maxAgeSeconds);
+    }
+
+    private void bump(Long storeId) {
+        ShardKey key = storeKey(storeId);
+        version(key).incrementAndGet();
+        snapshots.remove(key);
+    }
+
+    private AtomicLong version(ShardKey key) {
+        return versions.computeIfAbsent(key, id -> new AtomicLong());
+    }
+
+    private ShardKey storeKey(Long storeId) {
+        return new ShardKey(router.shardFor(storeId), storeId);
+    }
+
+    private static <T> T inShard(String shard, Callable<T> work) {
+        try {
+            return TenantContext.callInShard(shard, work);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.molla.service.impl;
 
+import com.molla.domain.MovementType;
+import com.molla.domain.OrderStatus;
 import com.molla.mapper.RefundMapper;
 import com.molla.model.Branch;
 import com.molla.model.Order;
+import com.molla.model.OrderItem;
 import com.molla.model.Refund;
 import com.molla.model.ShiftReport;
 import com.molla.model.User;
@@ -11,10 +14,13 @@ import com.molla.repository.BranchRepository;
 import com.molla.repository.OrderRepository;
 import com.molla.repository.RefundRepository;
 import com.molla.repository.ShiftReportRepository;
+import com.molla.service.CustomerSummaryService;
+import com.molla.service.InventoryService;
 import com.molla.service.RefundService;
 import com.molla.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -29,8 +35,11 @@ public class RefundServiceImpl implements RefundService {
     private final UserService userService;
     private final BranchRepository branchRepository;
     private final ShiftReportRepository shiftReportRepository;
+    private final InventoryService inventoryService;
+    private final CustomerSummaryService customerSummaryService;
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public RefundDto createRefund(RefundDto refundDto) throws Exception {
         // Get cashier - use cashier from DTO if provided, otherwise use current user
         User cashier;
@@ -38,7 +47,7 @@ public class RefundServiceImpl implements RefundService {
             if (refundDto.getCashier() != null && refundDto.getCashier().getId() != null) {
                 cashier = userService.getUserById(refundDto.getCashier().getId());
             } else {
-                cashier = userService.getCurrentUser();
+                cashier = userService.getUser(userService.getCurrentPrincipal());
             }
         } catch (Exception e) {
             // No authenticated user - use cashier from DTO or order's cashier
@@ -55,9 +64,10 @@ public class RefundServiceImpl implements RefundService {
             }
         }
         
-        // Get order
-        Order order = orderRepository.findById(refundDto.getOrderId())
+        // Get order, locked so concurrent refunds of it are totalled one after another
+        Order order = orderRepository.findByIdForUpdate(refundDto.getOrderId())
             .orElseThrow(() -> new Exception("Order not found"));
+        double refundedBefore = refundRepository.sumAmountByOrderId(order.getId());
         
         // Get branch - use branch from DTO or from order
         Branch branch;
@@ -97,11 +107,26 @@ public class RefundServiceImpl implements RefundService {
 
         // Save refund
         Refund savedRefund = refundRepository.save(createdRefund);
+
+        // Refunds carry no line items, so only once the order is refunded in full (in one refund
+        // or several partial ones) do the goods go back on the shelf
+        if (isFullRefund(order, refundedBefore, savedRefund) && order.getStatus() != OrderStatus.REFUNDED) {
+            if (order.getOrderItems() != null) {
+                for (OrderItem item : order.getOrderItems()) {
+                    inventoryService.adjustStock(item.getProduct().getId(), branch.getId(), item.getQuantity(),
+                        MovementType.REFUND, "refund:" + savedRefund.getId());
+                }
+            }
+            order.setStatus(OrderStatus.REFUNDED);
+            orderRepository.save(order);
+        }
+        customerSummaryService.recordRefund(savedRefund);
         
         return RefundMapper.toDto(savedRefund);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<RefundDto> getAllRefunds() throws Exception {
         return refundRepository.findAll().stream()
             .map(RefundMapper::toDto)
@@ -109,6 +134,7 @@ public class RefundServiceImpl implements RefundService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<RefundDto> getRefundByCashier(Long cashierId) throws Exception {
         return refundRepository.findByCashierId(cashierId).stream()
             .map(RefundMapper::toDto)
@@ -116,6 +142,7 @@ public class RefundServiceImpl implements RefundService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<RefundDto> getRefundByShiftReport(Long shiftReportId) throws Exception {
         return refundRepository.findByShiftReportId(shiftReportId).stream()
             .map(RefundMapper::toDto)
@@ -123,6 +150,7 @@ public class RefundServiceImpl implements RefundService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<RefundDto> getRefundByCashierAndDateRange(Long cashierId, LocalDateTime startDate, LocalDateTime endDate) throws Exception {
         User cashier = userService.getUserById(cashierId);
         return refundRepository.findByCashierAndCreatedAtBetween(cashier, startDate, endDate).stream()
@@ -131,6 +159,7 @@ public class RefundServiceImpl implements RefundService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<RefundDto> getRefundByBranch(Long branchId) throws Exception {
         return refundRepository.findByBranchId(branchId).stream()
             .map(RefundMapper::toDto)
@@ -138,17 +167,47 @@ public class RefundServiceImpl implements RefundService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public RefundDto getRefundById(Long refundId) throws Exception {
         return refundRepository.findById(refundId)
             .map(RefundMapper::toDto)
             .orElseThrow(() -> new Exception("Refund not found"));
     }
 
+    // Undoes what createRefund did, in the same transaction: an order that is no longer
+    // refunded in full takes its goods back off the shelf and returns to COMPLETED, and the
+    // customer's summary stops counting the refund
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void deleteRefund(Long refundId) throws Exception {
-        // Check if refund exists
-        this.getRefundById(refundId);
-        refundRepository.deleteById(refundId);
+        Refund refund = refundRepository.findById(refundId)
+            .orElseThrow(() -> new Exception("Refund not found"));
+        Order order = refund.getOrder() != null
+            ? orderRepository.findByIdForUpdate(refund.getOrder().getId()).orElse(null)
+            : null;
+
+        refundRepository.delete(refund);
+        refundRepository.flush();
+
+        if (order != null && order.getStatus() == OrderStatus.REFUNDED
+                && !isFullRefund(order, refundRepository.sumAmountByOrderId(order.getId()), null)) {
+            Branch branch = refund.getBranch() != null ? refund.getBranch() : order.getBranch();
+            if (order.getOrderItems() != null && branch != null) {
+                for (OrderItem item : order.getOrderItems()) {
+                    // Fails if the goods have been sold again since, which keeps the refund
+                    inventoryService.debitStock(item.getProduct().getId(), branch.getId(), item.getQuantity(),
+                        MovementType.REFUND, "refund:" + refundId);
+                }
+            }
+            order.setStatus(OrderStatus.COMPLETED);
+            orderRepository.save(order);
+        }
+        customerSummaryService.removeRefund(refund);
+    }
+
+    private boolean isFullRefund(Order order, double refundedBefore, Refund refund) {
+        double amount = refund != null && refund.getAmount() != null ? refund.getAmount() : 0.0;
+        return order.getTotalAmount() != null && refundedBefore + amount >= order.getTotalAmount();
     }
 }
 
@@ -0,0 +1,115 @@
+package com.molla.service.impl;
+
+import com.molla.domain.PaymentType;
+import com.molla.model.Order;
+import com.molla.model.OrderItem;
+import com.molla.model.PaymentSummary;
+import com.molla.model.Product;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// In-memory shift figures computed from a shift's orders; public so they can be benchmarked
+public final class ShiftReportAggregates {
+
+    private ShiftReportAggregates() {
+    }
+
+    public static List<Product> topSellingProducts(List<Order> orders) {
+        if (orders == null || orders.isEmpty()) {
+            return null;
+        }
+
+        Map<Product, Integer> productSalesMap = new HashMap<>();
+
+        for (Order order : orders) {
+            if (order.getOrderItems() != null) {
+                for (OrderItem item : order.getOrderItems()) {
+                    Product product = item.getProduct();
+                    if (product != null) {
+                        int quantity = item.getQuantity() != null ? item.getQuantity() : 0;
+                        productSalesMap.put(product, productSalesMap.getOrDefault(product, 0) + quantity);
+                    }
+                }
+            }
+        }
+
+        // Quantity sold is reported in the product's quantity field, on a copy so the
+        // managed entity's stock is not overwritten and flushed with the shift report
+        return productSalesMap.entrySet().stream()
+            .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
+            .limit(5)
+            .map(entry -> withQuantity(entry.getKey(), entry.getValue()))
+            .collect(Collectors.toList());
+    }
+
+    public static List<PaymentSummary> paymentSummaries(List<Order> orders, double totalSales) {
+        if (orders == null || orders.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<PaymentType, List<Order>> grouped = orders.stream()
+            .collect(Collectors.groupingBy(order ->
+                order.getPaymentType() != null ? order.getPaymentType() : PaymentType.CASH));
+
+        List<PaymentSummary> summaries = new ArrayList<>();
+
+        for (Map.Entry<PaymentType, List<Order>> entry : grouped.entrySet()) {
+            double amount = entry.getValue().stream()
+                .mapToDouble(order -> order.getTotalAmount() != null ? order.getTotalAmount() : 0.0)
+                .sum();
+
+            int transactions = entry.getValue().size();
+            double percent = totalSales > 0 ? (amount / totalSales) * 100 : 0.0;
+
+            PaymentSummary ps = PaymentSummary.builder()
+                .type(entry.getKey())
+                .totalAmount(amount)
+                .transactionCount(transactions)
+                .percentage(percent)
+                .build();
+
+            summaries.add(ps);
+        }
+
+        return summaries;
+    }
+
+    public static List<Order> recentOrders(List<Order> orders) {
+        if (orders == null || orders.isEmpty()) {
+            return null;
+        }
+        return orders.stream()
+            .sorted((a, b) -> {
+                LocalDateTime aTime = a.getCreatedAt() != null ? a.getCreatedAt() : LocalDateTime.MIN;
+                LocalDateTime bTime = b.getCreatedAt() != null ? b.getCreatedAt() : LocalDateTime.MIN;
+                return bTime.compareTo(aTime);
+            })
+            .limit(10)
+            .collect(Collectors.toList());
+    }
+
+    // Copied field by field so a column added to Product cannot shift the arguments silently
+    private static Product withQuantity(Product product, int quantity) {
+        Product copy = new Product();
+        copy.setId(product.getId());
+        copy.setName(product.getName());
+        copy.setDescription(product.getDescription());
+        copy.setSku(product.getSku());
+        copy.setMrp(product.getMrp());
+        copy.setSellingPrice(product.getSellingPrice());
+        copy.setPrice(product.getPrice());
+        copy.setQuantity(quantity);
+        copy.setBrand(product.getBrand());
+        copy.setImage(product.getImage());
+        copy.setStore(product.getStore());
+        copy.setCategory(product.getCategory());
+        copy.setCreatedAt(product.getCreatedAt());
+        copy.setUpdatedAt(product.getUpdatedAt());
+        return copy;
+    }
+}
@@ -1,6 +1,5 @@
 package com.molla.service.impl;
 
-import com.molla.domain.PaymentType;
 import com.molla.exceptions.UserException;
 import com.molla.mapper.ShiftReportMapper;
 import com.molla.model.*;
@@ -10,6 +9,7 @@ import com.molla.service.ShiftReportService;
 import com.molla.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -26,13 +26,14 @@ public class ShiftReportServiceImpl implements ShiftReportService {
     private final BranchRepository branchRepository;
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public ShiftReportDto startShift(Long cashierId, Long branchId, LocalDateTime shiftStart) throws Exception {
         User cashier;
         try {
             if (cashierId != null) {
                 cashier = userService.getUserById(cashierId);
             } else {
-                cashier = userService.getCurrentUser();
+                cashier = userService.getUser(userService.getCurrentPrincipal());
             }
         } catch (Exception e) {
             // No authenticated user - use default cashierId for testing
@@ -83,8 +84,9 @@ public class ShiftReportServiceImpl implements ShiftReportService {
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public ShiftReportDto endShift(Long shiftReportId, LocalDateTime shiftEnd) throws Exception {
-        User currentUser = userService.getCurrentUser();
+        User currentUser = userService.getUser(userService.getCurrentPrincipal());
         
         // Find the shift report - if shiftReportId is null, find active shift
         ShiftReport shiftReport;
@@ -132,9 +134,9 @@ public class ShiftReportServiceImpl implements ShiftReportService {
         shiftReport.setTotalOrders(totalOrders);
 
         // Set transient fields
-        shiftReport.setRecentOrders(getRecentOrders(orders));
-        shiftReport.setTopSellingProducts(getTopSellingProducts(orders));
-        shiftReport.setPaymentSummaries(getPaymentSummaries(orders, totalSales));
+        shiftReport.setRecentOrders(ShiftReportAggregates.recentOrders(orders));
+        shiftReport.setTopSellingProducts(ShiftReportAggregates.topSellingProducts(orders));
+        shiftReport.setPaymentSummaries(ShiftReportAggregates.paymentSummaries(orders, totalSales));
         shiftReport.setRefunds(refunds);
 
         // Save and return
@@ -143,6 +145,7 @@ public class ShiftReportServiceImpl implements ShiftReportService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ShiftReportDto getShiftReportById(Long id) throws Exception {
         return shiftReportRepository.findById(id)
             .map(ShiftReportMapper::toDto)
@@ -150,6 +153,7 @@ public class ShiftReportServiceImpl implements ShiftReportService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ShiftReportDto> getAllShiftReports() throws Exception {
         List<ShiftReport> reports = shiftReportRepository.findAll();
         return reports.stream()
@@ -158,6 +162,7 @@ public class ShiftReportServiceImpl implements ShiftReportService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ShiftReportDto> getShiftReportsByBranchId(Long branchId) throws Exception {
         List<ShiftReport> reports = shiftReportRepository.findByBranchId(branchId);
         return reports.stream()
@@ -166,6 +171,7 @@ public class ShiftReportServiceImpl implements ShiftReportService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ShiftReportDto> getShiftReportsByCashierId(Long cashierId) throws Exception {
         List<ShiftReport> reports = shiftReportRepository.findByCashierId(cashierId);
         return reports.stream()
@@ -174,13 +180,14 @@ public class ShiftReportServiceImpl implements ShiftReportService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ShiftReportDto getCurrentShiftProgress(Long cashierId) throws UserException {
         User user;
         try {
             if (cashierId != null) {
                 user = userService.getUserById(cashierId);
             } else {
-                user = userService.getCurrentUser();
+                user = userService.getUser(userService.getCurrentPrincipal());
             }
         } catch (Exception e) {
             // Fallback to default cashierId if no authentication
@@ -232,15 +239,16 @@ public class ShiftReportServiceImpl implements ShiftReportService {
         shift.setTotalRefunds(totalRefunds);
         shift.setNetSales(netSales);
         shift.setTotalOrders(totalOrders);
-        shift.setRecentOrders(getRecentOrders(orders));
-        shift.setTopSellingProducts(getTopSellingProducts(orders));
-        shift.setPaymentSummaries(getPaymentSummaries(orders, totalSales));
+        shift.setRecentOrders(ShiftReportAggregates.recentOrders(orders));
+        shift.setTopSellingProducts(ShiftReportAggregates.topSellingProducts(orders));
+        shift.setPaymentSummaries(ShiftReportAggregates.paymentSummaries(orders, totalSales));
         shift.setRefunds(refunds);
 
         return ShiftReportMapper.toDto(shift);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ShiftReportDto getShiftByCashierAndDate(Long cashierId, LocalDateTime date) throws UserException {
         User cashier = userService.getUserById(cashierId);
         if (cashier == null) {
@@ -255,85 +263,4 @@ public class ShiftReportServiceImpl implements ShiftReportService {
 
         return ShiftReportMapper.toDto(report);
     }
-
-    // Helper methods
-    private List<Product> getTopSellingProducts(List<Order> orders) {
-        if (orders == null || orders.isEmpty()) {
-            return null;
-        }
-
-        Map<Product, Integer> productSalesMap = new HashMap<>();
-
-        for (Order order : orders) {
-            if (order.getOrderItems() != null) {
-                for (OrderItem item : order.getOrderItems()) {
-                    Product product = item.getProduct();
-                    if (product != null) {
-                        int quantity = item.getQuantity() != null ? item.getQuantity() : 0;
-                        productSalesMap.put(product, productSalesMap.getOrDefault(product, 0) + quantity);
-                    }
-                }
-            }
-        }
-
-        // Set quantity sold on products and return sorted list
-        return productSalesMap.entrySet().stream()
-            .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
-            .limit(5)
-            .map(entry -> {
-                Product product = entry.getKey();
-                // Temporarily store quantity sold in product's quantity field for top selling
-                // (Note: This overwrites stock quantity, but it's fine for display purposes)
-                product.setQuantity(entry.getValue());
-                return product;
-            })
-            .collect(Collectors.toList());
-    }
-
-    private List<PaymentSummary> getPaymentSummaries(List<Order> orders, double totalSales) {
-        if (orders == null || orders.isEmpty()) {
-            return new ArrayList<>();
-        }
-
-        Map<PaymentType, List<Order>> grouped = orders.stream()
-            .collect(Collectors.groupingBy(order -> 
-                order.getPaymentType() != null ? order.getPaymentType() : PaymentType.CASH));
-
-        List<PaymentSummary> summaries = new ArrayList<>();
-
-        for (Map.Entry<PaymentType, List<Order>> entry : grouped.entrySet()) {
-            double amount = entry.getValue().stream()
-                .mapToDouble(order -> order.getTotalAmount() != null ? order.getTotalAmount() : 0.0)
-                .sum();
-            
-            int transactions = entry.getValue().size();
-            double percent = totalSales > 0 ? (amount / totalSales) * 100 : 0.0;
-
-            PaymentSummary ps = PaymentSummary.builder()
-                .type(entry.getKey())
-                .totalAmount(amount)
-                .transactionCount(transactions)
-                .percentage(percent)
-                .build();
-
-            summaries.add(ps);
-        }
-
-        return summaries;
-    }
-
-    private List<Order> getRecentOrders(List<Order> orders) {
-        if (orders == null || orders.isEmpty()) {
-            return null;
-        }
-        return orders.stream()
-            .sorted((a, b) -> {
-                LocalDateTime aTime = a.getCreatedAt() != null ? a.getCreatedAt() : LocalDateTime.MIN;
-                LocalDateTime bTime = b.getCreatedAt() != null ? b.getCreatedAt() : LocalDateTime.MIN;
-                return bTime.compareTo(aTime);
-            })
-            .limit(10)
-            .collect(Collectors.toList());
-    }
 }
-
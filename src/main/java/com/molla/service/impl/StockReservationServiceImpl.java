@@ -0,0 +1,345 @@
+package com.molla.service.impl;
+
+import com.molla.event.StockLevelChangedEvent;
+import com.molla.payload.dto.StockReservationDto;
+import com.molla.repository.InventoryRepository;
+import com.molla.service.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds stock for open carts in memory so scanning an item never waits on the database.
+ * Each branch/product pool is guarded by one of a fixed set of striped locks; the stock
+ * figure a pool starts from is read once and then kept current from stock change events.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationServiceImpl.class);
+
+    private static final int STRIPES = 64;
+
+    private final InventoryRepository inventoryRepository;
+
+    @Value("${pos.inventory.reservations.ttl-seconds:900}")
+    private long ttlSeconds;
+
+    private final ReentrantLock[] stripes = newStripes();
+    private final ConcurrentHashMap<StockKey, StockPool> pools = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<StockKey>> cartIndex = new ConcurrentHashMap<>();
+
+    @Override
+    public StockReservationDto reserve(StockReservationDto reservationDto) {
+        String cartId = reservationDto.getCartId();
+        if (cartId == null || cartId.isBlank()) {
+            throw new RuntimeException("Cart ID is required");
+        }
+        if (reservationDto.getBranchId() == null || reservationDto.getProductId() == null) {
+            throw new RuntimeException("Branch ID and product ID are required");
+        }
+        int quantity = reservationDto.getQuantity() != null ? reservationDto.getQuantity() : 0;
+        if (quantity < 0) {
+            throw new RuntimeException("Reserved quantity cannot be negative");
+        }
+
+        StockKey key = new StockKey(reservationDto.getBranchId(), reservationDto.getProductId());
+        ReentrantLock lock = stripeFor(key);
+        while (true) {
+            StockPool pool = poolFor(key);
+            lock.lock();
+            try {
+                // The sweeper may have dropped this pool between lookup and lock
+                if (pools.get(key) != pool) {
+                    continue;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                for (String expiredCartId : pool.purgeExpired(now)) {
+                    unindex(expiredCartId, key);
+                }
+
+                // The quantity is the cart's whole line, so re-sending it is idempotent
+                int available = pool.onHand - pool.reservedExcept(cartId);
+                if (quantity > available) {
+                    throw new RuntimeException("Insufficient stock for product " + key.productId()
+                        + ": " + Math.max(available, 0) + " available");
+                }
+
+                LocalDateTime expiresAt = null;
+                if (quantity == 0) {
+                    pool.holds.remove(cartId);
+                    unindex(cartId, key);
+                } else {
+                    expiresAt = now.plusSeconds(ttlSeconds);
+                    pool.holds.put(cartId, new Hold(quantity, expiresAt));
+                    cartIndex.computeIfAbsent(cartId, id -> ConcurrentHashMap.newKeySet()).add(key);
+                }
+
+                return StockReservationDto.builder()
+                    .cartId(cartId)
+                    .branchId(key.branchId())
+                    .productId(key.productId())
+                    .quantity(quantity)
+                    .available(available - quantity)
+                    .expiresAt(expiresAt)
+                    .build();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public List<StockReservationDto> getCartReservations(String cartId) {
+        List<StockReservationDto> reservations = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (StockKey key : cartIndex.getOrDefault(cartId, Set.of())) {
+            StockPool pool = pools.get(key);
+            Hold hold = pool != null ? pool.holds.get(cartId) : null;
+            if (hold != null && hold.expiresAt().isAfter(now)) {
+                reservations.add(StockReservationDto.builder()
+                    .cartId(cartId)
+                    .branchId(key.branchId())
+                    .productId(key.productId())
+                    .quantity(hold.quantity())
+                    .expiresAt(hold.expiresAt())
+                    .build());
+            }
+        }
+        return reservations;
+    }
+
+    @Override
+    public void releaseCart(String cartId) {
+        Set<StockKey> keys = cartIndex.remove(cartId);
+        if (keys == null) {
+            return;
+        }
+        for (StockKey key : keys) {
+            ReentrantLock lock = stripeFor(key);
+            lock.lock();
+            try {
+                StockPool pool = pools.get(key);
+                if (pool != null) {
+                    pool.holds.remove(cartId);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void checkout(String cartId, Long branchId, Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        // A plain read: it only decides whether other carts' holds leave enough. The debit itself is a
+        // conditional update (InventoryService.debitStock), which is what keeps two tills from selling the same unit.
+        Map<Long, Integer> onHand = new HashMap<>();
+        for (InventoryRepository.StockLevel level : inventoryRepository.findStockLevelsByBranchIdAndProductIdIn(branchId, quantities.keySet())) {
+            onHand.put(level.getProductId(), level.getQuantity());
+        }
+
+        // Stripes are always taken in ascending order so two multi-line checkouts cannot deadlock
+        Set<Integer> stripeIndexes = new TreeSet<>();
+        for (Long productId : quantities.keySet()) {
+            stripeIndexes.add(stripeIndex(new StockKey(branchId, productId)));
+        }
+        List<ReentrantLock> held = new ArrayList<>(stripeIndexes.size());
+        try {
+            for (Integer index : stripeIndexes) {
+                stripes[index].lock();
+                held.add(stripes[index]);
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                Integer stock = onHand.get(line.getKey());
+                if (stock == null) {
+                    continue; // not stocked at this branch, so not tracked
+                }
+                StockPool pool = pools.get(new StockKey(branchId, line.getKey()));
+                int reservedByOthers = 0;
+                if (pool != null) {
+                    for (String expiredCartId : pool.purgeExpired(now)) {
+                        unindex(expiredCartId, new StockKey(branchId, line.getKey()));
+                    }
+                    reservedByOthers = pool.reservedExcept(cartId);
+                }
+                int available = stock - reservedByOthers;
+                if (line.getValue() > available) {
+                    throw new RuntimeException("Insufficient stock for product " + line.getKey()
+                        + ": " + Math.max(available, 0) + " available");
+                }
+            }
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        }
+
+        if (cartId == null) {
+            return;
+        }
+        // The cart keeps its holds until the sale commits, so a failed or rolled-back order can be retried.
+        // Pools pick up the lower stock from the committed decrement's StockLevelChangedEvent.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    releaseCart(cartId);
+                }
+            });
+        } else {
+            releaseCart(cartId);
+        }
+    }
+
+    @Scheduled(
+        fixedDelayString = "${pos.inventory.reservations.sweep-interval-ms:15000}",
+        initialDelayString = "${pos.inventory.reservations.sweep-interval-ms:15000}")
+    public void scheduledSweep() {
+        int reclaimed = sweepExpired();
+        if (reclaimed > 0) {
+            logger.debug("Reclaimed {} expired stock reservations", reclaimed);
+        }
+    }
+
+    @Override
+    public int sweepExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int reclaimed = 0;
+        for (Map.Entry<StockKey, StockPool> entry : pools.entrySet()) {
+            StockKey key = entry.getKey();
+            ReentrantLock lock = stripeFor(key);
+            lock.lock();
+            try {
+                StockPool pool = entry.getValue();
+                for (String cartId : pool.purgeExpired(now)) {
+                    unindex(cartId, key);
+                    reclaimed++;
+                }
+                // Pools without holds are dropped so their cached stock cannot go stale
+                if (pool.holds.isEmpty()) {
+                    pools.remove(key, pool);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return reclaimed;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        StockKey key = new StockKey(event.getBranchId(), event.getProductId());
+        if (!pools.containsKey(key) || event.getQuantity() == null) {
+            return;
+        }
+        ReentrantLock lock = stripeFor(key);
+        lock.lock();
+        try {
+            StockPool pool = pools.get(key);
+            if (pool != null) {
+                pool.onHand = event.getQuantity();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private StockPool poolFor(StockKey key) {
+        StockPool pool = pools.get(key);
+        if (pool != null) {
+            return pool;
+        }
+        // Loaded outside the stripe lock so a slow read never blocks other products
+        int quantity = inventoryRepository.findStockLevelsByBranchIdAndProductIdIn(key.branchId(), List.of(key.productId())).stream()
+            .findFirst()
+            .map(InventoryRepository.StockLevel::getQuantity)
+            .orElseThrow(() -> new RuntimeException("Inventory not found for product " + key.productId() + " at this branch"));
+        return pools.computeIfAbsent(key, k -> new StockPool(quantity));
+    }
+
+    private void unindex(String cartId, StockKey key) {
+        cartIndex.computeIfPresent(cartId, (id, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private ReentrantLock stripeFor(StockKey key) {
+        return stripes[stripeIndex(key)];
+    }
+
+    private static int stripeIndex(StockKey key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    private static ReentrantLock[] newStripes() {
+        ReentrantLock[] locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    private record StockKey(Long branchId, Long productId) {
+    }
+
+    private record Hold(int quantity, LocalDateTime expiresAt) {
+    }
+
+    // Guarded by the stripe lock of its key
+    private static final class StockPool {
+        private int onHand;
+        private final Map<String, Hold> holds = new HashMap<>();
+
+        private StockPool(int onHand) {
+            this.onHand = onHand;
+        }
+
+        private int reservedExcept(String cartId) {
+            int reserved = 0;
+            for (Map.Entry<String, Hold> entry : holds.entrySet()) {
+                if (!entry.getKey().equals(cartId)) {
+                    reserved += entry.getValue().quantity();
+                }
+            }
+            return reserved;
+        }
+
+        private List<String> purgeExpired(LocalDateTime now) {
+            List<String> expired = new ArrayList<>();
+            Iterator<Map.Entry<String, Hold>> it = holds.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Hold> entry = it.next();
+                if (!entry.getValue().expiresAt().isAfter(now)) {
+                    expired.add(entry.getKey());
+                    it.remove();
+                }
+            }
+            return expired;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.molla.service.impl;
+
+import com.molla.configuration.PosPrincipal;
+import com.molla.domain.MovementType;
+import com.molla.domain.TransferStatus;
+import com.molla.domain.UserRole;
+import com.molla.event.StockLevelChangedEvent;
+import com.molla.mapper.StockTransferMapper;
+import com.molla.model.Branch;
+import com.molla.model.Inventory;
+import com.molla.model.InventoryMovement;
+import com.molla.model.Product;
+import com.molla.model.StockTransfer;
+import com.molla.model.StockTransferLine;
+import com.molla.payload.dto.StockTransferDto;
+import com.molla.payload.dto.StockTransferLineDto;
+import com.molla.repository.BranchRepository;
+import com.molla.repository.InventoryJdbcRepository;
+import com.molla.repository.InventoryRepository;
+import com.molla.repository.ProductRepository;
+import com.molla.repository.StockTransferRepository;
+import com.molla.service.StockTransferService;
+import com.molla.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class StockTransferServiceImpl implements StockTransferService {
+
+    private final StockTransferRepository stockTransferRepository;
+    private final BranchRepository branchRepository;
+    private final ProductRepository productRepository;
+    private final InventoryRepository inventoryRepository;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserService userService;
+
+    @Override
+    @Transactional
+    public StockTransferDto createTransfer(StockTransferDto transferDto) {
+        if (transferDto.getFromBranchId() == null || transferDto.getToBranchId() == null) {
+            throw new RuntimeException("Source and destination branch are required");
+        }
+        if (transferDto.getFromBranchId().equals(transferDto.getToBranchId())) {
+            throw new RuntimeException("Source and destination branch must differ");
+        }
+        if (transferDto.getLines() == null || transferDto.getLines().isEmpty()) {
+            throw new RuntimeException("Transfer must have at least one line");
+        }
+        Branch fromBranch = branchRepository.findById(transferDto.getFromBranchId())
+            .orElseThrow(() -> new RuntimeException("Source branch not found"));
+        Branch toBranch = branchRepository.findById(transferDto.getToBranchId())
+            .orElseThrow(() -> new RuntimeException("Destination branch not found"));
+        checkSameStore(fromBranch, toBranch);
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (StockTransferLineDto lineDto : transferDto.getLines()) {
+            if (lineDto.getProductId() == null || lineDto.getQuantity() == null || lineDto.getQuantity() <= 0) {
+                throw new RuntimeException("Every transfer line needs a product ID and a positive quantity");
+            }
+            quantities.merge(lineDto.getProductId(), lineDto.getQuantity(), Integer::sum);
+        }
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        if (products.size() != quantities.size()) {
+            throw new RuntimeException("Product not found for one or more transfer lines");
+        }
+
+        StockTransfer transfer = StockTransfer.builder()
+            .fromBranch(fromBranch)
+            .toBranch(toBranch)
+            .reference(transferDto.getReference())
+            .status(TransferStatus.DRAFT)
+            .build();
+        List<StockTransferLine> lines = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> lines.add(StockTransferLine.builder()
+            .transfer(transfer)
+            .product(products.get(productId))
+            .quantity(quantity)
+            .build()));
+        transfer.setLines(lines);
+
+        return StockTransferMapper.toDto(stockTransferRepository.save(transfer));
+    }
+
+    // All lines move in one transaction: any source row that cannot cover its debit throws,
+    // which rolls back every debit, credit and the status change together.
+    @Override
+    @Transactional
+    public StockTransferDto applyTransfer(Long id) {
+        StockTransfer transfer = stockTransferRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Stock transfer not found"));
+        LocalDateTime now = LocalDateTime.now();
+        if (stockTransferRepository.markApplied(id, TransferStatus.DRAFT, TransferStatus.APPLIED, now) != 1) {
+            throw new RuntimeException("Stock transfer has already been applied");
+        }
+
+        Long fromBranchId = transfer.getFromBranch().getId();
+        Long toBranchId = transfer.getToBranch().getId();
+        String reference = "transfer:" + id;
+        Map<Long, StockTransferLine> lines = transfer.getLines().stream()
+            .collect(Collectors.toMap(line -> line.getProduct().getId(), Function.identity()));
+
+        Map<Long, InventoryRepository.StockLevel> source = stockLevels(fromBranchId, lines.keySet());
+        List<InventoryMovement> debits = new ArrayList<>();
+        for (StockTransferLine line : lines.values()) {
+            InventoryRepository.StockLevel level = source.get(line.getProduct().getId());
+            if (level == null) {
+                throw new RuntimeException("Product " + line.getProduct().getId() + " is not stocked at the source branch");
+            }
+            debits.add(movement(level.getId(), fromBranchId, line.getProduct().getId(), -line.getQuantity(), reference));
+        }
+        // Rows are locked in id order so concurrent transfers cannot deadlock on each other
+        debits.sort(Comparator.comparing(InventoryMovement::getInventoryId));
+        List<Long> shortRows = inventoryJdbcRepository.debitIfAvailable(debits);
+        if (!shortRows.isEmpty()) {
+            String products = debits.stream()
+                .filter(debit -> shortRows.contains(debit.getInventoryId()))
+                .map(debit -> String.valueOf(debit.getProductId()))
+                .collect(Collectors.joining(", "));
+            throw new RuntimeException("Insufficient stock at the source branch for products: " + products);
+        }
+
+        Map<Long, InventoryRepository.StockLevel> destination = stockLevels(toBranchId, lines.keySet());
+        List<InventoryMovement> credits = new ArrayList<>();
+        List<Inventory> createdRows = new ArrayList<>();
+        for (StockTransferLine line : lines.values()) {
+            InventoryRepository.StockLevel level = destination.get(line.getProduct().getId());
+            if (level != null) {
+                credits.add(movement(level.getId(), toBranchId, line.getProduct().getId(), line.getQuantity(), reference));
+            } else {
+                createdRows.add(Inventory.builder()
+                    .branch(transfer.getToBranch())
+                    .product(line.getProduct())
+                    .quantity(line.getQuantity())
+                    .lastUpdated(now)
+                    .build());
+            }
+        }
+        credits.sort(Comparator.comparing(InventoryMovement::getInventoryId));
+        inventoryJdbcRepository.applyDeltas(credits);
+        inventoryRepository.saveAll(createdRows);
+        for (Inventory row : createdRows) {
+            credits.add(movement(row.getId(), toBranchId, row.getProduct().getId(), row.getQuantity(), reference));
+        }
+
+        // Read back once per branch; the rows are locked until commit so these are exact
+        Map<Long, InventoryRepository.StockLevel> sourceAfter = stockLevels(fromBranchId, lines.keySet());
+        Map<Long, InventoryRepository.StockLevel> destinationAfter = stockLevels(toBranchId, lines.keySet());
+        List<InventoryMovement> movements = new ArrayList<>(debits);
+        movements.addAll(credits);
+        for (InventoryMovement movement : movements) {
+            Map<Long, InventoryRepository.StockLevel> after = movement.getBranchId().equals(fromBranchId) ? sourceAfter : destinationAfter;
+            movement.setQuantityAfter(after.get(movement.getProductId()).getQuantity());
+        }
+        inventoryJdbcRepository.insertMovements(movements);
+
+        for (InventoryMovement movement : movements) {
+            boolean created = !movement.getBranchId().equals(fromBranchId) && !destination.containsKey(movement.getProductId());
+            Map<Long, InventoryRepository.StockLevel> after = movement.getBranchId().equals(fromBranchId) ? sourceAfter : destinationAfter;
+            Integer reorderLevel = after.get(movement.getProductId()).getReorderLevel();
+            eventPublisher.publishEvent(new StockLevelChangedEvent(movement.getInventoryId(), movement.getBranchId(), movement.getProductId(),
+                created ? null : movement.getQuantityAfter() - movement.getDelta(), movement.getQuantityAfter(),
+                reorderLevel, reorderLevel));
+        }
+
+        transfer.setStatus(TransferStatus.APPLIED);
+        transfer.setAppliedAt(now);
+        return StockTransferMapper.toDto(transfer);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StockTransferDto getTransferById(Long id) {
+        return stockTransferRepository.findById(id)
+            .map(StockTransferMapper::toDto)
+            .orElseThrow(() -> new RuntimeException("Stock transfer not found"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StockTransferDto> getTransfersByBranch(Long branchId) {
+        return stockTransferRepository.findByFromBranchIdOrToBranchIdOrderByCreatedAtDesc(branchId, branchId).stream()
+            .map(StockTransferMapper::toDto)
+            .collect(Collectors.toList());
+    }
+
+    // Stock only moves between branches of one store, and only that store's staff may move it;
+    // an admin may move stock within any store
+    private void checkSameStore(Branch fromBranch, Branch toBranch) {
+        Long storeId = fromBranch.getStore() != null ? fromBranch.getStore().getId() : null;
+        Long toStoreId = toBranch.getStore() != null ? toBranch.getStore().getId() : null;
+        if (storeId == null || !storeId.equals(toStoreId)) {
+            throw new RuntimeException("Source and destination branch must belong to the same store");
+        }
+        PosPrincipal principal = userService.getCurrentPrincipal();
+        if (principal == null) {
+            throw new RuntimeException("User not found");
+        }
+        if (!UserRole.ROLE_ADMIN.name().equals(principal.role()) && !Objects.equals(principal.storeId(), storeId)) {
+            throw new RuntimeException("You don't have permission to transfer stock for this store");
+        }
+    }
+
+    private Map<Long, InventoryRepository.StockLevel> stockLevels(Long branchId, Collection<Long> productIds) {
+        Map<Long, InventoryRepository.StockLevel> levels = new HashMap<>();
+        for (InventoryRepository.StockLevel level : inventoryRepository.findStockLevelsByBranchIdAndProductIdIn(branchId, productIds)) {
+            levels.put(level.getProductId(), level);
+        }
+        return levels;
+    }
+
+    private static InventoryMovement movement(Long inventoryId, Long branchId, Long productId, int delta, String reference) {
+        return InventoryMovement.builder()
+            .inventoryId(inventoryId)
+            .branchId(branchId)
+            .productId(productId)
+            .type(MovementType.TRANSFER)
+            .delta(delta)
+            .reference(reference)
+            .build();
+    }
+}
@@ -1,20 +1,24 @@
 package com.molla.service.impl;
 
+import com.molla.configuration.PosPrincipal;
+import com.molla.configuration.ShardFanOut;
 import com.molla.domain.StoreStatus;
 import com.molla.exceptions.UserException;
 import com.molla.mapper.StoreMapper;
 import com.molla.model.Store;
 import com.molla.model.StoreContact;
 import com.molla.model.User;
+import com.molla.payload.dto.ShardSummaryDto;
 import com.molla.payload.dto.StoreDto;
 import com.molla.repository.StoreRepository;
+import com.molla.service.ReferenceDataService;
 import com.molla.service.StoreService;
 import com.molla.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 
 @Service
@@ -23,8 +27,13 @@ public class StoreServiceImp implements StoreService {
 
     private  final StoreRepository storeRepository;
     private final UserService userService;
+    private final ReferenceDataService referenceDataService;
+    private final ShardFanOut shardFanOut;
+
     @Override
-    public StoreDto createStore(StoreDto storeDto, User user) throws UserException {
+    @Transactional(rollbackFor = Exception.class)
+    public StoreDto createStore(StoreDto storeDto, PosPrincipal principal) throws UserException {
+        User user = userService.getUser(principal);
         // Check if user already has a store
         Store existingStore = storeRepository.findByStoreAdminId(user.getId());
         if(existingStore != null) {
@@ -32,26 +41,26 @@ public class StoreServiceImp implements StoreService {
         }
         
         Store store = StoreMapper.toEntity(storeDto, user);
-        return StoreMapper.toDTO(storeRepository.save(store));
+        Store savedStore = storeRepository.save(store);
+        referenceDataService.invalidate(savedStore.getId());
+        return StoreMapper.toDTO(savedStore);
     }
 
     @Override
     public StoreDto getStoreById(Long id) {
-        Store store=storeRepository.findById(id).orElseThrow(() -> new RuntimeException("Store not found"));
-        return StoreMapper.toDTO(store);
+        return referenceDataService.getStore(id);
     }
 
     @Override
     public List<StoreDto> getAllStores() {
-        List<Store> dtos=storeRepository.findAll();
-        return dtos.stream().map(StoreMapper::toDTO).collect(Collectors.toList());
-
+        // Stores live on different shards, so the full list is gathered from each of them
+        return shardFanOut.collect(() -> storeRepository.findAll().stream().map(StoreMapper::toDTO).toList());
     }
 
     @Override
-    public StoreDto getStoreByAdmin(User user) throws UserException {
-        // Use the user parameter passed in, not getCurrentUser()
-        Store store = storeRepository.findByStoreAdminId(user.getId());
+    @Transactional(readOnly = true)
+    public StoreDto getStoreByAdmin(PosPrincipal principal) throws UserException {
+        Store store = storeRepository.findByStoreAdminId(userService.getUserId(principal));
         if(store == null) {
             throw new UserException("Store not found for this admin. Please create a store first.");
         }
@@ -59,9 +68,9 @@ public class StoreServiceImp implements StoreService {
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public StoreDto updateStore(Long id, StoreDto storeDto) throws UserException {
-        User currentUser=userService.getCurrentUser();
-        Store existingStore=storeRepository.findByStoreAdminId(currentUser.getId());
+        Store existingStore=storeRepository.findByStoreAdminId(userService.getUserId(userService.getCurrentPrincipal()));
         if(existingStore==null){
             throw new UserException("Store not found");
         }
@@ -76,32 +85,50 @@ public class StoreServiceImp implements StoreService {
            existingStore.setContact(contact);
         }
       Store updatedStore=storeRepository.save(existingStore);
+      referenceDataService.invalidate(updatedStore.getId());
       return StoreMapper.toDTO(updatedStore);
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void deleteStore(Long id) throws UserException {
         Store store = storeRepository.findById(id)
                 .orElseThrow(() -> new UserException("Store not found"));
         storeRepository.delete(store);
+        referenceDataService.invalidate(id);
     }
 
     @Override
-    public StoreDto getStoreByEmployee(String brand) throws UserException {
-        User currentUser = userService.getCurrentUser();
-        if(currentUser == null){
+    @Transactional(readOnly = true)
+    public StoreDto getStoreByEmployee(PosPrincipal principal) throws UserException {
+        if(principal == null){
             throw new UserException("You don't have permission to access this store"); 
         }
-        Store store = currentUser.getStore();
-        if(store == null) {
+        Long storeId = principal.storeId();
+        if(storeId == null && principal.userId() == null) {
+            // Token issued before the store claim
+            Store store = userService.getUser(principal).getStore();
+            storeId = store != null ? store.getId() : null;
+        }
+        if(storeId == null) {
             throw new UserException("Store not found for this employee");
         }
-        return StoreMapper.toDTO(store);
+        return referenceDataService.getStore(storeId);
     }
     @Override
+    @Transactional
     public StoreDto moderateStore(Long id, StoreStatus storeStatus) {
         Store store=storeRepository.findById(id).orElseThrow(() -> new RuntimeException("Store not found"));
         store.setStoreStatus(storeStatus);
-        return StoreMapper.toDTO(storeRepository.save(store));
-    } 
+        Store savedStore = storeRepository.save(store);
+        referenceDataService.invalidate(id);
+        return StoreMapper.toDTO(savedStore);
+    }
+
+    @Override
+    public List<ShardSummaryDto> getShardSummaries() {
+        return shardFanOut.onEachShard(storeRepository::count).entrySet().stream()
+                .map(entry -> new ShardSummaryDto(entry.getKey(), entry.getValue()))
+                .toList();
+    }
 }
@@ -0,0 +1,114 @@
+package com.molla.service.impl;
+
+import com.molla.configuration.StoreShardRouter;
+import com.molla.configuration.TenantContext;
+import com.molla.repository.RevokedTokenRepository;
+import com.molla.service.TokenRevocationService;
+import com.molla.util.BloomFilter;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revocation checks run on every authenticated request, so they go through an in-memory
+ * Bloom filter of the denylist. A token that is not revoked, which is almost every token,
+ * is answered without touching the database. Only "maybe revoked" answers are confirmed
+ * against the table. The filter is rebuilt periodically to pick up revocations made on
+ * other instances and to drop expired entries.
+ * <p>
+ * Tokens are not tied to a store, so the denylist lives on the default shard. Every access
+ * pins it there rather than following whatever store the calling thread is bound to.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationServiceImpl.class);
+
+    private static final int MIN_CAPACITY = 10_000;
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final StoreShardRouter router;
+
+    private static final long RECENT_REVOCATION_MILLIS = 300_000;
+
+    private volatile BloomFilter filter = BloomFilter.create(MIN_CAPACITY, FALSE_POSITIVE_RATE);
+
+    // Revocations made here recently, re-added after each rebuild in case they committed
+    // after the rebuild had read the table
+    private final Map<String, Long> recentRevocations = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean isRevoked(String jti) {
+        if (!filter.mightContain(jti)) {
+            return false;
+        }
+        return onDenylistShard(() -> revokedTokenRepository.existsById(jti));
+    }
+
+    // The insert is the claim: of two callers revoking the same token, on any instance, the
+    // primary key lets exactly one succeed. The filter is not consulted, it can only say "maybe"
+    @Override
+    public boolean revoke(String jti, LocalDateTime expiresAt) {
+        boolean revoked;
+        try {
+            onDenylistShard(() -> {
+                revokedTokenRepository.insert(jti, expiresAt, LocalDateTime.now());
+                return null;
+            });
+            revoked = true;
+        } catch (DataIntegrityViolationException e) {
+            revoked = false;
+        }
+        recentRevocations.put(jti, System.currentTimeMillis());
+        filter.add(jti);
+        return revoked;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+        fixedDelayString = "${pos.auth.revocation.reload-interval-ms:60000}",
+        initialDelayString = "${pos.auth.revocation.reload-interval-ms:60000}")
+    public void reload() {
+        List<String> active = onDenylistShard(() -> revokedTokenRepository.findActiveJtis(LocalDateTime.now()));
+        // Headroom so local revocations until the next reload keep the error rate down
+        BloomFilter rebuilt = BloomFilter.create(Math.max(MIN_CAPACITY, active.size() * 2), FALSE_POSITIVE_RATE);
+        active.forEach(rebuilt::add);
+        filter = rebuilt;
+
+        long cutoff = System.currentTimeMillis() - RECENT_REVOCATION_MILLIS;
+        recentRevocations.values().removeIf(revokedAt -> revokedAt < cutoff);
+        recentRevocations.keySet().forEach(rebuilt::add);
+    }
+
+    @Scheduled(cron = "${pos.auth.revocation.purge-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        int purged = onDenylistShard(() -> revokedTokenRepository.deleteExpired(LocalDateTime.now()));
+        if (purged > 0) {
+            logger.info("Purged {} expired revoked tokens", purged);
+        }
+    }
+
+    private <T> T onDenylistShard(Callable<T> work) {
+        try {
+            return TenantContext.callInShard(router.getDefaultShard(), work);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
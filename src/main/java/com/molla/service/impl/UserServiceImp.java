@@ -1,11 +1,12 @@
 package com.molla.service.impl;
 
-import com.molla.configuration.JwtProvider;
+import com.molla.configuration.PosPrincipal;
 import com.molla.exceptions.UserException;
 import com.molla.model.User;
 import com.molla.repository.UserRepository;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
@@ -19,33 +20,43 @@ public class UserServiceImp implements UserService{
 
     private final UserRepository userRepository ;
 
-    private final JwtProvider jwtProvider ;
-
 //    public UserServiceImp(UserRepository userRepository, JwtProvider jwtProvider) {
 //        this.userRepository = userRepository;
 //        this.jwtProvider = jwtProvider;
 //    }
 
+    // Claims from the caller's token; null when the request is not authenticated by one
     @Override
-    public User getUserFromJwt(String jwt) throws UserException {
-        String email=jwtProvider.getEmailFromToken(jwt);
-        User user=userRepository.findByEmail(email);
-        if(user==null){
-            throw new UserException("User not found");
+    public PosPrincipal getCurrentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof PosPrincipal principal) {
+            return principal;
         }
-        return user;
+        return null;
     }
 
+    // Single-query lookups without their own transaction boundary: they join the caller's,
+    // and callers that catch "User not found" as a fallback must not find it marked rollback-only.
+    // The row is found by primary key; tokens issued before the id claim fall back to the email
     @Override
-    public User getCurrentUser() throws UserException {
-
-        String email= SecurityContextHolder.getContext().getAuthentication().getName();
-        User user=userRepository.findByEmail(email);
-        if(user==null){
+    public User getUser(PosPrincipal principal) throws UserException {
+        if (principal == null) {
             throw new UserException("User not found");
+        }
+        if (principal.userId() != null) {
+            return userRepository.findById(principal.userId())
+                    .orElseThrow(() -> new UserException("User not found"));
+        }
+        return getUserByEmail(principal.email());
+    }
 
+    // Only looks the user up for tokens without the id claim
+    @Override
+    public Long getUserId(PosPrincipal principal) throws UserException {
+        if (principal != null && principal.userId() != null) {
+            return principal.userId();
         }
-        return user;
+        return getUser(principal).getId();
     }
 
     @Override
@@ -0,0 +1,65 @@
+package com.molla.util;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized forms of customer contact details, stored alongside the raw values so
+ * lookups at the till can use exact or prefix matches on indexed columns.
+ */
+public final class CustomerSearchKeys {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{Alnum}]+");
+    private static final Pattern PHONE_INPUT = Pattern.compile("[+\\d\\s().-]+");
+
+    private CustomerSearchKeys() {
+    }
+
+    // "+91 (98) 765-43210" -> "919876543210"
+    public static String phone(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        String digits = phone.replaceAll("\\D", "");
+        return digits.isEmpty() ? null : digits;
+    }
+
+    public static String email(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // "José  O'Neil" -> "jose o neil"
+    public static String name(String name) {
+        if (name == null) {
+            return null;
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    public static Set<String> nameTokens(String name) {
+        Set<String> tokens = new LinkedHashSet<>();
+        String normalized = name(name);
+        if (normalized != null && !normalized.isEmpty()) {
+            for (String token : normalized.split(" ")) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    public static boolean looksLikeEmail(String query) {
+        return query.indexOf('@') > 0;
+    }
+
+    public static boolean looksLikePhone(String query) {
+        return PHONE_INPUT.matcher(query).matches() && phone(query) != null;
+    }
+}
@@ -0,0 +1,197 @@
+-- Schema as Hibernate generated it (ddl-auto=update) before the migrations took over. Existing
+-- databases are baselined at this version and skip it, so it must never change; everything added
+-- since goes in later versions, which run on new and existing databases alike.
+
+CREATE TABLE store (
+    id BIGINT NOT NULL,
+    brand VARCHAR(255) NOT NULL,
+    store_admin_id BIGINT,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    description VARCHAR(255),
+    store_type VARCHAR(255),
+    store_status TINYINT,
+    address VARCHAR(255),
+    phone VARCHAR(255),
+    email VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_store_admin UNIQUE (store_admin_id)
+);
+
+CREATE TABLE branch (
+    id BIGINT NOT NULL,
+    name VARCHAR(255),
+    phone VARCHAR(255),
+    address VARCHAR(255),
+    email VARCHAR(255),
+    open_time TIME(6),
+    close_time TIME(6),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    store_id BIGINT,
+    manager_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_branch_manager UNIQUE (manager_id)
+);
+
+CREATE TABLE branch_working_days (
+    branch_id BIGINT NOT NULL,
+    working_days VARCHAR(255)
+);
+
+CREATE TABLE `user` (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    full_name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    store_id BIGINT,
+    branch_id BIGINT,
+    phone VARCHAR(255),
+    role VARCHAR(255) NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    last_login_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_user_email UNIQUE (email)
+);
+
+CREATE TABLE category (
+    id BIGINT NOT NULL,
+    name VARCHAR(255),
+    description VARCHAR(255),
+    store_id BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE product (
+    id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    sku VARCHAR(255) NOT NULL,
+    mrp FLOAT(53),
+    selling_price FLOAT(53),
+    price FLOAT(53),
+    quantity INTEGER,
+    brand VARCHAR(255),
+    image VARCHAR(255),
+    store_id BIGINT,
+    category_id BIGINT,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_product_sku UNIQUE (sku)
+);
+
+CREATE TABLE customer (
+    id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255),
+    phone VARCHAR(255),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE orders (
+    id BIGINT NOT NULL,
+    total_amount FLOAT(53),
+    created_at DATETIME(6),
+    branch_id BIGINT,
+    cashier_id BIGINT,
+    customer_id BIGINT,
+    payment_type VARCHAR(255),
+    status VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE order_item (
+    id BIGINT NOT NULL,
+    quantity INTEGER,
+    price FLOAT(53),
+    total_price FLOAT(53),
+    order_id BIGINT,
+    product_id BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE shift_report (
+    id BIGINT NOT NULL,
+    cashier_id BIGINT,
+    branch_id BIGINT,
+    shift_start DATETIME(6),
+    shift_end DATETIME(6),
+    total_sales FLOAT(53),
+    total_refunds FLOAT(53),
+    net_sales FLOAT(53),
+    total_orders INTEGER,
+    created_at DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE refund (
+    id BIGINT NOT NULL,
+    order_id BIGINT,
+    reason VARCHAR(255),
+    amount FLOAT(53),
+    shift_report_id BIGINT,
+    cashier_id BIGINT,
+    branch_id BIGINT,
+    payment_type VARCHAR(255),
+    created_at DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE inventory (
+    id BIGINT NOT NULL,
+    branch_id BIGINT,
+    product_id BIGINT,
+    quantity INTEGER NOT NULL,
+    last_updated DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+-- Id allocation tables for entities using GenerationType.AUTO (pooled, increment 50)
+CREATE TABLE store_seq (next_val BIGINT);
+INSERT INTO store_seq VALUES (1);
+CREATE TABLE branch_seq (next_val BIGINT);
+INSERT INTO branch_seq VALUES (1);
+CREATE TABLE category_seq (next_val BIGINT);
+INSERT INTO category_seq VALUES (1);
+CREATE TABLE product_seq (next_val BIGINT);
+INSERT INTO product_seq VALUES (1);
+CREATE TABLE customer_seq (next_val BIGINT);
+INSERT INTO customer_seq VALUES (1);
+CREATE TABLE order_seq (next_val BIGINT);
+INSERT INTO order_seq VALUES (1);
+CREATE TABLE order_item_seq (next_val BIGINT);
+INSERT INTO order_item_seq VALUES (1);
+CREATE TABLE shift_report_seq (next_val BIGINT);
+INSERT INTO shift_report_seq VALUES (1);
+CREATE TABLE refund_seq (next_val BIGINT);
+INSERT INTO refund_seq VALUES (1);
+CREATE TABLE inventory_seq (next_val BIGINT);
+INSERT INTO inventory_seq VALUES (1);
+
+-- Foreign keys (MySQL also gives each referencing column its own index)
+ALTER TABLE store ADD CONSTRAINT fk_store_admin FOREIGN KEY (store_admin_id) REFERENCES `user` (id);
+ALTER TABLE branch ADD CONSTRAINT fk_branch_store FOREIGN KEY (store_id) REFERENCES store (id);
+ALTER TABLE branch ADD CONSTRAINT fk_branch_manager FOREIGN KEY (manager_id) REFERENCES `user` (id);
+ALTER TABLE branch_working_days ADD CONSTRAINT fk_branch_working_days_branch FOREIGN KEY (branch_id) REFERENCES branch (id);
+ALTER TABLE `user` ADD CONSTRAINT fk_user_store FOREIGN KEY (store_id) REFERENCES store (id);
+ALTER TABLE `user` ADD CONSTRAINT fk_user_branch FOREIGN KEY (branch_id) REFERENCES branch (id);
+ALTER TABLE category ADD CONSTRAINT fk_category_store FOREIGN KEY (store_id) REFERENCES store (id);
+ALTER TABLE product ADD CONSTRAINT fk_product_store FOREIGN KEY (store_id) REFERENCES store (id);
+ALTER TABLE product ADD CONSTRAINT fk_product_category FOREIGN KEY (category_id) REFERENCES category (id);
+ALTER TABLE orders ADD CONSTRAINT fk_orders_branch FOREIGN KEY (branch_id) REFERENCES branch (id);
+ALTER TABLE orders ADD CONSTRAINT fk_orders_cashier FOREIGN KEY (cashier_id) REFERENCES `user` (id);
+ALTER TABLE orders ADD CONSTRAINT fk_orders_customer FOREIGN KEY (customer_id) REFERENCES customer (id);
+ALTER TABLE order_item ADD CONSTRAINT fk_order_item_order FOREIGN KEY (order_id) REFERENCES orders (id);
+ALTER TABLE order_item ADD CONSTRAINT fk_order_item_product FOREIGN KEY (product_id) REFERENCES product (id);
+ALTER TABLE shift_report ADD CONSTRAINT fk_shift_report_cashier FOREIGN KEY (cashier_id) REFERENCES `user` (id);
+ALTER TABLE shift_report ADD CONSTRAINT fk_shift_report_branch FOREIGN KEY (branch_id) REFERENCES branch (id);
+ALTER TABLE refund ADD CONSTRAINT fk_refund_order FOREIGN KEY (order_id) REFERENCES orders (id);
+ALTER TABLE refund ADD CONSTRAINT fk_refund_shift_report FOREIGN KEY (shift_report_id) REFERENCES shift_report (id);
+ALTER TABLE refund ADD CONSTRAINT fk_refund_cashier FOREIGN KEY (cashier_id) REFERENCES `user` (id);
+ALTER TABLE refund ADD CONSTRAINT fk_refund_branch FOREIGN KEY (branch_id) REFERENCES branch (id);
+ALTER TABLE inventory ADD CONSTRAINT fk_inventory_branch FOREIGN KEY (branch_id) REFERENCES branch (id);
+ALTER TABLE inventory ADD CONSTRAINT fk_inventory_product FOREIGN KEY (product_id) REFERENCES product (id);
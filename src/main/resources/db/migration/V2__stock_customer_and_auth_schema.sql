@@ -0,0 +1,149 @@
+-- Tables and columns for the stock ledger, low-stock alerts, stock transfers, customer lookup and
+-- summaries, claims-versioned tokens and refresh-token revocation. Runs on new databases after V1
+-- and on existing ones baselined at V1.
+
+-- Columns on existing tables
+ALTER TABLE `user` ADD COLUMN claims_version INTEGER;
+ALTER TABLE `user` ADD COLUMN active BIT;
+ALTER TABLE customer ADD COLUMN store_id BIGINT;
+ALTER TABLE customer ADD COLUMN phone_key VARCHAR(255);
+ALTER TABLE customer ADD COLUMN email_key VARCHAR(255);
+ALTER TABLE customer ADD COLUMN name_key VARCHAR(255);
+ALTER TABLE inventory ADD COLUMN reorder_level INTEGER;
+
+CREATE TABLE inventory_movement (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    inventory_id BIGINT NOT NULL,
+    branch_id BIGINT,
+    product_id BIGINT,
+    type VARCHAR(255) NOT NULL,
+    delta INTEGER NOT NULL,
+    quantity_after INTEGER,
+    reference VARCHAR(255),
+    created_at DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE inventory_snapshot (
+    id BIGINT NOT NULL,
+    inventory_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    last_movement_id BIGINT NOT NULL,
+    movement_count INTEGER,
+    created_at DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE low_stock_alert (
+    id BIGINT NOT NULL,
+    inventory_id BIGINT,
+    branch_id BIGINT,
+    product_id BIGINT,
+    quantity INTEGER,
+    reorder_level INTEGER,
+    created_at DATETIME(6),
+    resolved_at DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE stock_transfer (
+    id BIGINT NOT NULL,
+    from_branch_id BIGINT,
+    to_branch_id BIGINT,
+    status VARCHAR(255),
+    reference VARCHAR(255),
+    created_at DATETIME(6),
+    applied_at DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE stock_transfer_line (
+    id BIGINT NOT NULL,
+    transfer_id BIGINT,
+    product_id BIGINT,
+    quantity INTEGER NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE customer_name_token (
+    customer_id BIGINT NOT NULL,
+    token VARCHAR(255) NOT NULL,
+    PRIMARY KEY (customer_id, token)
+);
+
+CREATE TABLE customer_summary (
+    customer_id BIGINT NOT NULL,
+    total_spent FLOAT(53) NOT NULL,
+    refunded_amount FLOAT(53) NOT NULL,
+    order_count INTEGER NOT NULL,
+    last_order_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (customer_id)
+);
+
+CREATE TABLE customer_product_stat (
+    id BIGINT NOT NULL,
+    customer_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_customer_product_stat UNIQUE (customer_id, product_id)
+);
+
+CREATE TABLE revoked_token (
+    jti VARCHAR(36) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    revoked_at DATETIME(6),
+    PRIMARY KEY (jti)
+);
+
+-- Id allocation tables for the new entities using GenerationType.AUTO (pooled, increment 50)
+CREATE TABLE customer_product_stat_seq (next_val BIGINT);
+INSERT INTO customer_product_stat_seq VALUES (1);
+CREATE TABLE inventory_snapshot_seq (next_val BIGINT);
+INSERT INTO inventory_snapshot_seq VALUES (1);
+CREATE TABLE low_stock_alert_seq (next_val BIGINT);
+INSERT INTO low_stock_alert_seq VALUES (1);
+CREATE TABLE stock_transfer_seq (next_val BIGINT);
+INSERT INTO stock_transfer_seq VALUES (1);
+CREATE TABLE stock_transfer_line_seq (next_val BIGINT);
+INSERT INTO stock_transfer_line_seq VALUES (1);
+
+-- Indexes declared on the entities
+CREATE INDEX idx_user_store_role ON `user` (store_id, role);
+CREATE INDEX idx_user_branch_role ON `user` (branch_id, role);
+CREATE INDEX idx_customer_store_phone ON customer (store_id, phone_key);
+CREATE INDEX idx_customer_store_email ON customer (store_id, email_key);
+CREATE INDEX idx_customer_phone ON customer (phone_key);
+CREATE INDEX idx_customer_email ON customer (email_key);
+CREATE INDEX idx_customer_store_name ON customer (store_id, name_key, id);
+CREATE INDEX idx_customer_store_created ON customer (store_id, created_at, id);
+CREATE INDEX idx_customer_name ON customer (name_key, id);
+CREATE INDEX idx_customer_created ON customer (created_at, id);
+CREATE INDEX idx_customer_name_token ON customer_name_token (token, customer_id);
+CREATE INDEX idx_customer_product_stat_top ON customer_product_stat (customer_id, quantity);
+CREATE INDEX idx_orders_customer_created ON orders (customer_id, created_at);
+CREATE INDEX idx_inventory_movement_inventory ON inventory_movement (inventory_id, id);
+CREATE INDEX idx_inventory_movement_created ON inventory_movement (created_at);
+CREATE INDEX idx_inventory_snapshot_inventory ON inventory_snapshot (inventory_id, last_movement_id);
+CREATE INDEX idx_inventory_snapshot_watermark ON inventory_snapshot (last_movement_id);
+CREATE INDEX idx_low_stock_alert_branch_open ON low_stock_alert (branch_id, resolved_at, created_at);
+CREATE INDEX idx_low_stock_alert_inventory_open ON low_stock_alert (inventory_id, resolved_at);
+CREATE INDEX idx_stock_transfer_from_branch ON stock_transfer (from_branch_id, created_at);
+CREATE INDEX idx_stock_transfer_to_branch ON stock_transfer (to_branch_id, created_at);
+CREATE INDEX idx_revoked_token_expires ON revoked_token (expires_at);
+
+-- Foreign keys
+ALTER TABLE customer_name_token ADD CONSTRAINT fk_customer_name_token_customer FOREIGN KEY (customer_id) REFERENCES customer (id);
+ALTER TABLE low_stock_alert ADD CONSTRAINT fk_low_stock_alert_inventory FOREIGN KEY (inventory_id) REFERENCES inventory (id);
+ALTER TABLE low_stock_alert ADD CONSTRAINT fk_low_stock_alert_branch FOREIGN KEY (branch_id) REFERENCES branch (id);
+ALTER TABLE low_stock_alert ADD CONSTRAINT fk_low_stock_alert_product FOREIGN KEY (product_id) REFERENCES product (id);
+ALTER TABLE stock_transfer ADD CONSTRAINT fk_stock_transfer_from_branch FOREIGN KEY (from_branch_id) REFERENCES branch (id);
+ALTER TABLE stock_transfer ADD CONSTRAINT fk_stock_transfer_to_branch FOREIGN KEY (to_branch_id) REFERENCES branch (id);
+ALTER TABLE stock_transfer_line ADD CONSTRAINT fk_stock_transfer_line_transfer FOREIGN KEY (transfer_id) REFERENCES stock_transfer (id);
+ALTER TABLE stock_transfer_line ADD CONSTRAINT fk_stock_transfer_line_product FOREIGN KEY (product_id) REFERENCES product (id);
+
+-- Existing users keep their tokens valid and stay active. Customer search keys and name tokens are
+-- filled in by CustomerServiceImpl at startup, since they need the application's normalisation.
+UPDATE `user` SET claims_version = 0 WHERE claims_version IS NULL;
+UPDATE `user` SET active = TRUE WHERE active IS NULL;
@@ -0,0 +1,26 @@
+-- Composite indexes for repository finders that filter on one column and range-scan or sort on
+-- another. Single-column lookups on foreign keys are already covered by the FK indexes.
+
+-- OrderRepository: findByBranchId, findByBranchIdAndCreatedAtBetween, findTop5ByBranchIdOrderByCreatedAtDesc
+CREATE INDEX idx_orders_branch_created ON orders (branch_id, created_at);
+-- OrderRepository: findByCashierId, findByCashierAndCreatedAtBetween
+CREATE INDEX idx_orders_cashier_created ON orders (cashier_id, created_at);
+
+-- RefundRepository: findByCashierId, findByCashierAndCreatedAtBetween
+CREATE INDEX idx_refund_cashier_created ON refund (cashier_id, created_at);
+-- RefundRepository: findByBranchId
+CREATE INDEX idx_refund_branch_created ON refund (branch_id, created_at);
+
+-- InventoryRepository: findByProductIdAndBranchId, findIdByProductIdAndBranchId, findByBranchId,
+-- findStockLevelsByBranchIdAndProductIdIn
+CREATE INDEX idx_inventory_branch_product ON inventory (branch_id, product_id);
+
+-- ShiftReportRepository: findByCashierId, findByCashierAndShiftStartBetween
+CREATE INDEX idx_shift_report_cashier_start ON shift_report (cashier_id, shift_start);
+-- ShiftReportRepository: findTopByCashierAndShiftEndIsNullOrderByShiftStartDesc
+CREATE INDEX idx_shift_report_cashier_open ON shift_report (cashier_id, shift_end, shift_start);
+-- ShiftReportRepository: findByBranchId
+CREATE INDEX idx_shift_report_branch_start ON shift_report (branch_id, shift_start);
+
+-- ProductRepository: findByStoreId (and the store filter of searchByKeyword)
+CREATE INDEX idx_product_store_name ON product (store_id, name);
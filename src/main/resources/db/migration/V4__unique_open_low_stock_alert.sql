@@ -0,0 +1,14 @@
+-- At most one open low-stock alert per inventory row. MySQL has no partial indexes, so open alerts
+-- carry their inventory id in open_inventory_id and resolved ones NULL, which a unique index allows.
+ALTER TABLE low_stock_alert ADD COLUMN open_inventory_id BIGINT;
+
+-- Racing threshold crossings may already have opened duplicates; keep the newest of each
+UPDATE low_stock_alert SET resolved_at = CURRENT_TIMESTAMP
+WHERE resolved_at IS NULL
+  AND id NOT IN (SELECT newest_id FROM (
+      SELECT MAX(id) AS newest_id FROM low_stock_alert WHERE resolved_at IS NULL GROUP BY inventory_id
+  ) open_alerts);
+
+UPDATE low_stock_alert SET open_inventory_id = inventory_id WHERE resolved_at IS NULL;
+
+CREATE UNIQUE INDEX uk_low_stock_alert_open ON low_stock_alert (open_inventory_id);
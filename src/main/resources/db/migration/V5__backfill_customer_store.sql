@@ -0,0 +1,15 @@
+-- Customers created before customer.store_id existed were invisible to signed-in tills, whose
+-- searches and directory are scoped to their store. Each takes the store of the branch it first
+-- bought at.
+UPDATE customer c
+SET store_id = (
+    SELECT b.store_id FROM orders o JOIN branch b ON b.id = o.branch_id
+    WHERE o.customer_id = c.id
+    ORDER BY o.created_at, o.id
+    LIMIT 1)
+WHERE c.store_id IS NULL;
+
+-- Customers who never ordered can only be placed when there is a single store
+UPDATE customer
+SET store_id = (SELECT MIN(id) FROM store)
+WHERE store_id IS NULL AND (SELECT COUNT(*) FROM store) = 1;
@@ -0,0 +1,7 @@
+-- Which shard holds the user with each login email. Only the default shard's copy is used;
+-- it is filled as logins find users, so no backfill is needed.
+CREATE TABLE user_directory (
+    email VARCHAR(255) NOT NULL,
+    shard VARCHAR(64) NOT NULL,
+    PRIMARY KEY (email)
+);
@@ -0,0 +1,78 @@
+package com.molla.benchmark;
+
+import com.molla.configuration.JwtKeys;
+import com.molla.configuration.JwtValidator;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JwtValidator with and without the verified-token cache.
+ * Run with the gc profiler (the benchmark profile's default) to see allocation per request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtValidatorBenchmark {
+
+    private final FilterChain chain = (request, response) -> { };
+
+    private JwtValidator cachingValidator;
+    private JwtValidator verifyingValidator;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() throws Exception {
+        String token = Jwts.builder()
+                .setSubject("cashier@molla.test")
+                .claim("role", "ROLE_BRANCH_CASHIER")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(JwtKeys.SIGNING_KEY)
+                .compact();
+
+        request = new MockHttpServletRequest("GET", "/api/products/store/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+
+        cachingValidator = new JwtValidator();
+        verifyingValidator = new JwtValidator(null, null, 0);
+        cachingValidator.doFilter(request, response, chain); // prime the cache
+    }
+
+    @Benchmark
+    public Authentication cachedToken() throws Exception {
+        return authenticate(cachingValidator);
+    }
+
+    @Benchmark
+    public Authentication uncachedToken() throws Exception {
+        return authenticate(verifyingValidator);
+    }
+
+    private Authentication authenticate(JwtValidator validator) throws Exception {
+        SecurityContextHolder.clearContext();
+        validator.doFilter(request, response, chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
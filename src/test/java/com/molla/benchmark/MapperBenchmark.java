@@ -0,0 +1,72 @@
+package com.molla.benchmark;
+
+import com.molla.mapper.OrderMapper;
+import com.molla.mapper.ProductMapper;
+import com.molla.mapper.ShiftReportMapper;
+import com.molla.model.Order;
+import com.molla.model.Product;
+import com.molla.model.ShiftReport;
+import com.molla.payload.dto.OrderDto;
+import com.molla.payload.dto.ProductDto;
+import com.molla.payload.dto.ShiftReportDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the entity-to-DTO mappers on a synthetic shift. Each invocation maps the
+ * next entity in the list so the JIT cannot specialise on a single object.
+ * Run with the gc profiler (the benchmark profile's default) to see allocation per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapperBenchmark {
+
+    private List<Order> orders;
+    private List<Product> products;
+    private ShiftReport shiftReport;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        PosObjectGraph graph = new PosObjectGraph(2_000, 400, 42L);
+        orders = graph.orders;
+        products = graph.products;
+        shiftReport = graph.closedShift();
+    }
+
+    @Benchmark
+    public OrderDto orderToDto() {
+        return OrderMapper.toDto(orders.get(nextIndex(orders.size())));
+    }
+
+    @Benchmark
+    public ProductDto productToDto() {
+        return ProductMapper.toDto(products.get(nextIndex(products.size())));
+    }
+
+    @Benchmark
+    public ShiftReportDto shiftReportToDto() {
+        return ShiftReportMapper.toDto(shiftReport);
+    }
+
+    private int nextIndex(int size) {
+        int index = next;
+        next = index + 1 == size ? 0 : index + 1;
+        return index;
+    }
+}
@@ -0,0 +1,184 @@
+package com.molla.benchmark;
+
+import com.molla.domain.OrderStatus;
+import com.molla.domain.PaymentType;
+import com.molla.domain.UserRole;
+import com.molla.model.Branch;
+import com.molla.model.Category;
+import com.molla.model.Customer;
+import com.molla.model.Order;
+import com.molla.model.OrderItem;
+import com.molla.model.Product;
+import com.molla.model.Refund;
+import com.molla.model.ShiftReport;
+import com.molla.model.Store;
+import com.molla.model.User;
+import com.molla.service.impl.ShiftReportAggregates;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Detached entity graph shaped like one branch's shift: a catalogue, a cashier and a run of
+ * orders with a few lines each. Built from a fixed seed so every fork measures the same data.
+ */
+final class PosObjectGraph {
+
+    private static final PaymentType[] PAYMENT_TYPES = PaymentType.values();
+
+    final Store store;
+    final Branch branch;
+    final User cashier;
+    final List<Product> products = new ArrayList<>();
+    final List<Customer> customers = new ArrayList<>();
+    final List<Order> orders = new ArrayList<>();
+    final List<Refund> refunds = new ArrayList<>();
+
+    PosObjectGraph(int productCount, int orderCount, long seed) {
+        Random random = new Random(seed);
+        LocalDateTime shiftStart = LocalDateTime.of(2024, 3, 4, 8, 0);
+        long id = 1;
+
+        // No store admin: Store and User hash each other, and products are map keys
+        store = new Store();
+        store.setId(id++);
+        store.setBrand("Molla Market");
+        store.setStoreType("GROCERY");
+
+        branch = Branch.builder()
+                .id(id++)
+                .name("Central")
+                .phone("+1-555-0100")
+                .address("1 Market Street")
+                .email("central@molla.test")
+                .workingDays(List.of("MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY"))
+                .openTime(LocalTime.of(8, 0))
+                .closeTime(LocalTime.of(22, 0))
+                .createdAt(shiftStart.minusYears(1))
+                .store(store)
+                .build();
+
+        cashier = new User();
+        cashier.setId(id++);
+        cashier.setFullName("Casey Cashier");
+        cashier.setEmail("casey@molla.test");
+        cashier.setPhone("+1-555-0101");
+        cashier.setRole(UserRole.ROLE_BRANCH_CASHIER);
+        cashier.setStore(store);
+        cashier.setBranch(branch);
+        cashier.setCreatedAt(shiftStart.minusMonths(6));
+        cashier.setActive(true);
+
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            categories.add(new Category(id++, "Category " + i, "Aisle " + i, store));
+        }
+
+        for (int i = 0; i < productCount; i++) {
+            double price = 0.5 + random.nextInt(5_000) / 100.0;
+            Product product = new Product();
+            product.setId(id++);
+            product.setName("Product " + i);
+            product.setDescription("Synthetic catalogue item " + i);
+            product.setSku("SKU-" + (100_000 + i));
+            product.setMrp(price * 1.2);
+            product.setSellingPrice(price);
+            product.setPrice(price);
+            product.setQuantity(random.nextInt(500));
+            product.setBrand("Brand " + i % 40);
+            product.setImage("https://cdn.molla.test/products/" + i + ".jpg");
+            product.setStore(store);
+            product.setCategory(categories.get(i % categories.size()));
+            product.setCreatedAt(shiftStart.minusDays(random.nextInt(365)));
+            products.add(product);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            Customer customer = new Customer();
+            customer.setId(id++);
+            customer.setName("Customer " + i);
+            customer.setEmail("customer" + i + "@molla.test");
+            customer.setPhone("+1-555-" + (2000 + i));
+            customer.setStoreId(store.getId());
+            customers.add(customer);
+        }
+
+        for (int i = 0; i < orderCount; i++) {
+            Order order = Order.builder()
+                    .id(id++)
+                    .createdAt(shiftStart.plusSeconds(i * 30L + random.nextInt(30)))
+                    .branch(branch)
+                    .cashier(cashier)
+                    // Most sales are anonymous walk-ins
+                    .customer(random.nextInt(4) == 0 ? customers.get(random.nextInt(customers.size())) : null)
+                    .paymentType(PAYMENT_TYPES[random.nextInt(PAYMENT_TYPES.length)])
+                    .status(OrderStatus.COMPLETED)
+                    .build();
+
+            int lines = 1 + random.nextInt(6);
+            List<OrderItem> items = new ArrayList<>(lines);
+            double total = 0;
+            for (int line = 0; line < lines; line++) {
+                // Skewed towards the front of the catalogue so a few products dominate
+                Product product = products.get((int) (productCount * Math.pow(random.nextDouble(), 3)));
+                int quantity = 1 + random.nextInt(3);
+                double lineTotal = quantity * product.getSellingPrice();
+                items.add(OrderItem.builder()
+                        .id(id++)
+                        .quantity(quantity)
+                        .price(product.getSellingPrice())
+                        .totalPrice(lineTotal)
+                        .order(order)
+                        .product(product)
+                        .build());
+                total += lineTotal;
+            }
+            order.setOrderItems(items);
+            order.setTotalAmount(total);
+            orders.add(order);
+
+            if (random.nextInt(25) == 0) {
+                refunds.add(Refund.builder()
+                        .id(id++)
+                        .order(order)
+                        .reason("Damaged")
+                        .amount(items.get(0).getTotalPrice())
+                        .cashier(cashier)
+                        .branch(branch)
+                        .paymentType(order.getPaymentType())
+                        .createdAt(order.getCreatedAt().plusMinutes(5))
+                        .build());
+            }
+        }
+    }
+
+    double totalSales() {
+        return orders.stream().mapToDouble(Order::getTotalAmount).sum();
+    }
+
+    // A closed shift as endShift leaves it, with the derived lists filled in
+    ShiftReport closedShift() {
+        double totalSales = totalSales();
+        double totalRefunds = refunds.stream().mapToDouble(Refund::getAmount).sum();
+        ShiftReport report = ShiftReport.builder()
+                .id(1_000_000L)
+                .cashier(cashier)
+                .branch(branch)
+                .shiftStart(orders.isEmpty() ? null : orders.get(0).getCreatedAt())
+                .shiftEnd(orders.isEmpty() ? null : orders.get(orders.size() - 1).getCreatedAt().plusMinutes(10))
+                .totalSales(totalSales)
+                .totalRefunds(totalRefunds)
+                .netSales(totalSales - totalRefunds)
+                .totalOrders(orders.size())
+                .refunds(refunds)
+                .build();
+        refunds.forEach(refund -> refund.setShiftReport(report));
+        report.setRecentOrders(ShiftReportAggregates.recentOrders(orders));
+        report.setTopSellingProducts(ShiftReportAggregates.topSellingProducts(orders));
+        report.setPaymentSummaries(ShiftReportAggregates.paymentSummaries(orders, totalSales));
+        return report;
+    }
+}
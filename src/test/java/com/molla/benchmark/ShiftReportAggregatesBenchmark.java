@@ -0,0 +1,62 @@
+package com.molla.benchmark;
+
+import com.molla.model.Order;
+import com.molla.model.PaymentSummary;
+import com.molla.model.Product;
+import com.molla.service.impl.ShiftReportAggregates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the shift report figures that endShift and getCurrentShiftProgress compute
+ * in memory, from a quiet shift up to a busy one.
+ * Run with the gc profiler (the benchmark profile's default) to see allocation per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShiftReportAggregatesBenchmark {
+
+    @Param({"50", "500", "5000"})
+    public int orderCount;
+
+    private List<Order> orders;
+    private double totalSales;
+
+    @Setup
+    public void setUp() {
+        PosObjectGraph graph = new PosObjectGraph(2_000, orderCount, 42L);
+        orders = graph.orders;
+        totalSales = graph.totalSales();
+    }
+
+    @Benchmark
+    public List<Product> topSellingProducts() {
+        return ShiftReportAggregates.topSellingProducts(orders);
+    }
+
+    @Benchmark
+    public List<PaymentSummary> paymentSummaries() {
+        return ShiftReportAggregates.paymentSummaries(orders, totalSales);
+    }
+
+    @Benchmark
+    public List<Order> recentOrders() {
+        return ShiftReportAggregates.recentOrders(orders);
+    }
+}
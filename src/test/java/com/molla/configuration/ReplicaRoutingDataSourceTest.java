@@ -0,0 +1,85 @@
+package com.molla.configuration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(5);
+
+    @AfterEach
+    void tearDown() {
+        tracker.clearRequest();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaAndWritesUsePrimary() {
+        Routing routing = new Routing(database("primary"), database("replica"));
+
+        assertThat(routing.read()).isEqualTo("replica");
+        assertThat(routing.write()).isEqualTo("primary");
+    }
+
+    @Test
+    void readsStayOnPrimaryAfterAWrite() {
+        Routing routing = new Routing(database("primary"), database("replica"));
+
+        routing.write();
+        assertThat(routing.read()).isEqualTo("primary");
+
+        tracker.clearRequest();
+        assertThat(routing.read()).isEqualTo("replica");
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaIsDown() {
+        Routing routing = new Routing(database("primary"), new DriverManagerDataSource("jdbc:unreachable:replica"));
+
+        assertThat(routing.read()).isEqualTo("primary");
+    }
+
+    private class Routing {
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate readOnly;
+        private final TransactionTemplate readWrite;
+
+        Routing(DataSource primary, DataSource replica) {
+            DataSource dataSource = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, tracker));
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readWrite = new TransactionTemplate(transactionManager);
+        }
+
+        String read() {
+            return readOnly.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM db_marker", String.class));
+        }
+
+        String write() {
+            return readWrite.execute(status -> {
+                jdbcTemplate.update("UPDATE db_marker SET name = name");
+                return jdbcTemplate.queryForObject("SELECT name FROM db_marker", String.class);
+            });
+        }
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:replica_test_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS db_marker (name VARCHAR(32))");
+        jdbc.update("DELETE FROM db_marker");
+        jdbc.update("INSERT INTO db_marker (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
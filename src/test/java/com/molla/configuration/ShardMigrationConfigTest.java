@@ -0,0 +1,74 @@
+package com.molla.configuration;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardMigrationConfigTest {
+
+    @Test
+    void everyShardIsMigrated() {
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        shards.put("default", database("migrate_default"));
+        shards.put("eu", database("migrate_eu"));
+        StoreRoutingDataSource routing = new StoreRoutingDataSource(
+                new StoreShardRouter("default", Map.of(2L, "eu"), List.of("eu")), shards);
+
+        ShardMigrationConfig.migrateAllShards(flyway(routing).load(), routing);
+
+        String latest = latestVersion(shards.get("default"));
+        assertThat(latestVersion(shards.get("eu"))).isEqualTo(latest);
+        assertThat(tableExists(shards.get("eu"), "inventory_movement")).isTrue();
+    }
+
+    @Test
+    void databaseBaselinedAtV1GetsTheLaterVersions() {
+        DataSource existing = database("migrate_existing");
+        // A database Hibernate created before the migrations: the V1 schema with no history table
+        flyway(existing).target("1").load().migrate();
+        JdbcTemplate jdbc = new JdbcTemplate(existing);
+        jdbc.execute("DROP TABLE flyway_schema_history");
+        jdbc.update("INSERT INTO customer (id, name) VALUES (1, 'Legacy Customer')");
+        jdbc.update("INSERT INTO customer (id, name) VALUES (2, 'Walk-in Customer')");
+        jdbc.update("INSERT INTO store (id, brand) VALUES (7, 'North'), (8, 'South')");
+        jdbc.update("INSERT INTO branch (id, name, store_id) VALUES (7, 'North High Street', 7)");
+        jdbc.update("INSERT INTO orders (id, total_amount, branch_id, customer_id) VALUES (1, 10.0, 7, 1)");
+
+        flyway(existing).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        assertThat(tableExists(existing, "inventory_movement")).isTrue();
+        assertThat(tableExists(existing, "revoked_token")).isTrue();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM customer WHERE id = 1 AND name_key IS NULL", Integer.class))
+                .isEqualTo(1);
+        // Placed by the branch of its order; with two stores, one that never ordered stays unplaced
+        assertThat(jdbc.queryForObject("SELECT store_id FROM customer WHERE id = 1", Long.class)).isEqualTo(7L);
+        assertThat(jdbc.queryForObject("SELECT store_id FROM customer WHERE id = 2", Long.class)).isNull();
+    }
+
+    private static FluentConfiguration flyway(DataSource dataSource) {
+        return Flyway.configure().dataSource(dataSource).locations("classpath:db/migration");
+    }
+
+    private static String latestVersion(DataSource dataSource) {
+        return flyway(dataSource).load().info().current().getVersion().getVersion();
+    }
+
+    private static boolean tableExists(DataSource dataSource, String table) {
+        return new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = ?", Integer.class, table) > 0;
+    }
+
+    private static DataSource database(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
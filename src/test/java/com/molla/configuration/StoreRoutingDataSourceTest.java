@@ -0,0 +1,124 @@
+package com.molla.configuration;
+
+import com.molla.domain.UserRole;
+import com.molla.model.Store;
+import com.molla.model.User;
+import com.molla.repository.UserRepository;
+import com.molla.service.TokenRevocationService;
+import com.molla.service.impl.AuthServiceImp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StoreRoutingDataSourceTest {
+
+    private StoreShardRouter router;
+    private JdbcTemplate jdbcTemplate;
+    private ShardFanOut fanOut;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        shards.put("default", shard("default"));
+        shards.put("eu", shard("eu"));
+
+        router = new StoreShardRouter("default", Map.of(2L, "eu"), List.of("eu"));
+        StoreRoutingDataSource routing = new StoreRoutingDataSource(router, shards);
+        jdbcTemplate = new JdbcTemplate(routing);
+        fanOut = new ShardFanOut(router, new DataSourceTransactionManager(routing));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        fanOut.shutdown();
+    }
+
+    @Test
+    void routesByCurrentStore() {
+        TenantContext.setStoreId(1L);
+        assertThat(currentShard()).isEqualTo("default");
+
+        TenantContext.setStoreId(2L);
+        assertThat(currentShard()).isEqualTo("eu");
+
+        // Unassigned stores and unauthenticated work stay on the default shard
+        TenantContext.setStoreId(99L);
+        assertThat(currentShard()).isEqualTo("default");
+        TenantContext.clear();
+        assertThat(currentShard()).isEqualTo("default");
+    }
+
+    @Test
+    void fanOutVisitsEveryShard() {
+        Map<String, String> seen = fanOut.onEachShard(this::currentShard);
+
+        assertThat(seen).containsExactly(Map.entry("default", "default"), Map.entry("eu", "eu"));
+        assertThat(TenantContext.getShard()).isNull();
+    }
+
+    // Both shards have a user 5. A refresh token for the one on "eu" must load that user, not
+    // the default shard's, even though /auth requests carry no store of their own
+    @Test
+    void refreshLoadsTheUserFromTheShardOfTheTokensStore() throws Exception {
+        User euCashier = user("cashier@eu.test", 2L);
+        User defaultOwner = user("owner@default.test", null);
+        UserRepository users = mock(UserRepository.class);
+        when(users.findById(5L)).thenAnswer(call -> Optional.of("eu".equals(currentShard()) ? euCashier : defaultOwner));
+        TokenRevocationService revocations = mock(TokenRevocationService.class);
+        when(revocations.revoke(anyString(), any())).thenReturn(true);
+        JwtProvider jwtProvider = new JwtProvider();
+        ReflectionTestUtils.setField(jwtProvider, "accessTokenTtlMinutes", 15L);
+        ReflectionTestUtils.setField(jwtProvider, "refreshTokenTtlDays", 7L);
+        AuthServiceImp authService = new AuthServiceImp(users, null, jwtProvider, null, null, revocations,
+                mock(UserDirectory.class), router, null);
+
+        String refreshed = authService.refresh(jwtProvider.generateRefreshToken(euCashier)).getUser().getEmail();
+
+        assertThat(refreshed).isEqualTo("cashier@eu.test");
+        assertThat(TenantContext.getShard()).isNull();
+    }
+
+    private static User user(String email, Long storeId) {
+        User user = new User();
+        user.setId(5L);
+        user.setEmail(email);
+        user.setRole(UserRole.ROLE_BRANCH_CASHIER);
+        if (storeId != null) {
+            Store store = new Store();
+            store.setId(storeId);
+            user.setStore(store);
+        }
+        return user;
+    }
+
+    private String currentShard() {
+        return jdbcTemplate.queryForObject("SELECT name FROM shard_marker", String.class);
+    }
+
+    private static DataSource shard(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:shard_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS shard_marker (name VARCHAR(32))");
+        jdbc.update("DELETE FROM shard_marker");
+        jdbc.update("INSERT INTO shard_marker (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,170 @@
+package com.molla.controllers;
+
+import com.molla.configuration.RequestSqlStats;
+import com.molla.configuration.SqlStatsRegistry;
+import com.molla.exceptions.QueryBudgetExceededException;
+import com.molla.payload.dto.EndpointSqlStatsDto;
+import com.molla.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Calls the order, refund, shift-report and product listings for a small tenant and for
+ * one with twenty times the rows. Budgets run in fail mode, so an endpoint over its
+ * {@code @QueryBudget} answers 500; on top of that the large tenant must not need more
+ * statements than the small one, which is what an N+1 in a mapper would break.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.flyway.enabled=true",
+        "pos.sql-stats.budget-mode=fail"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetIntegrationTest {
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        // DatabaseConfig falls back to these when no MySQL variables are set
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:query_budget;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    private static final long SMALL = 1L;
+    private static final long LARGE = 2L;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private SqlStatsRegistry sqlStatsRegistry;
+    @Autowired private OrderRepository orderRepository;
+
+    private long nextId = 1_000;
+
+    @BeforeAll
+    void seed() {
+        seedTenant(SMALL, 3, 2);
+        seedTenant(LARGE, 40, 40);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> listingsStayWithinBudgetAsRowsGrow() {
+        return Stream.of(
+                endpoint("OrderController#getOrdersByBranch", "/api/orders/branch/%d"),
+                endpoint("OrderController#getOrdersByCashier", "/api/orders/cashier/%d"),
+                endpoint("OrderController#getTodayOrder", "/api/orders/today/branch/%d"),
+                endpoint("OrderController#getCustomersOrder", "/api/orders/customer/%d"),
+                endpoint("OrderController#getRecentOrder", "/api/orders/recent/%d"),
+                endpoint("RefundController#getRefundByBranch", "/api/refunds/branch/%d"),
+                endpoint("RefundController#getRefundByCashier", "/api/refunds/cashier/%d"),
+                endpoint("ShiftReportController#getShiftReportsByBranch", "/api/shift-reports/branch/%d"),
+                endpoint("ShiftReportController#getShiftReportByCashier", "/api/shift-reports/cashier/%d"),
+                endpoint("ShiftReportController#getCurrentShiftProgress", "/api/shift-reports/current?cashierId=%d"),
+                endpoint("ProductController#getProductsByStoreId", "/api/products/storeId/%d"),
+                endpoint("ProductController#searchByKeyword", "/api/products/search/%d/Item"));
+    }
+
+    @Test
+    void failModeAbortsOnTheFirstStatementOverBudget() {
+        sqlStatsRegistry.begin("QueryBudgetIntegrationTest#direct", 1);
+        try {
+            orderRepository.findByBranchId(SMALL);
+            assertThatThrownBy(() -> orderRepository.findByBranchId(LARGE))
+                    .isInstanceOf(QueryBudgetExceededException.class);
+        } finally {
+            RequestSqlStats stats = sqlStatsRegistry.end();
+            assertThat(stats.isOverBudget()).isTrue();
+        }
+    }
+
+    private DynamicTest endpoint(String endpoint, String urlTemplate) {
+        return DynamicTest.dynamicTest(endpoint, () -> {
+            long small = statementsFor(endpoint, String.format(urlTemplate, SMALL));
+            long large = statementsFor(endpoint, String.format(urlTemplate, LARGE));
+            assertThat(large)
+                    .as("%s issued %d statements for the large tenant and %d for the small one", endpoint, large, small)
+                    .isLessThanOrEqualTo(small);
+        });
+    }
+
+    private long statementsFor(String endpoint, String url) throws Exception {
+        sqlStatsRegistry.reset();
+        mockMvc.perform(get(url).header("Authorization", "Bearer test"))
+                .andExpect(status().isOk());
+        EndpointSqlStatsDto stats = sqlStatsRegistry.getEndpointStats(endpoint);
+        assertThat(stats).as("no SQL stats recorded for %s", endpoint).isNotNull();
+        assertThat(stats.getBudgetViolations()).isZero();
+        return stats.getMaxStatements();
+    }
+
+    // Store, branch, cashier and customer all share the tenant id; every order has three
+    // lines, every other order has a refund, and each order closes a shift of its own
+    private void seedTenant(long tenant, int products, int orders) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp openShiftStart = Timestamp.valueOf(now.minusHours(12));
+
+        jdbcTemplate.update("INSERT INTO store (id, brand, store_status) VALUES (?, ?, 1)", tenant, "Store " + tenant);
+        jdbcTemplate.update("INSERT INTO branch (id, name, store_id) VALUES (?, ?, ?)", tenant, "Branch " + tenant, tenant);
+        jdbcTemplate.update("INSERT INTO branch_working_days (branch_id, working_days) VALUES (?, 'MONDAY')", tenant);
+        jdbcTemplate.update("INSERT INTO user (id, full_name, email, password, store_id, branch_id, role, active) "
+                + "VALUES (?, ?, ?, 'x', ?, ?, 'ROLE_BRANCH_CASHIER', TRUE)",
+                tenant, "Cashier " + tenant, "cashier" + tenant + "@example.com", tenant, tenant);
+        jdbcTemplate.update("INSERT INTO customer (id, name, store_id) VALUES (?, ?, ?)", tenant, "Customer " + tenant, tenant);
+        jdbcTemplate.update("INSERT INTO category (id, name, store_id) VALUES (?, 'General', ?)", tenant, tenant);
+
+        long firstProduct = nextId;
+        for (int i = 0; i < products; i++) {
+            jdbcTemplate.update("INSERT INTO product (id, name, sku, selling_price, quantity, store_id, category_id) "
+                    + "VALUES (?, ?, ?, 10.0, 100, ?, ?)",
+                    nextId, "Item " + i, "SKU-" + tenant + "-" + i, tenant, tenant);
+            nextId++;
+        }
+
+        jdbcTemplate.update("INSERT INTO shift_report (id, cashier_id, branch_id, shift_start) VALUES (?, ?, ?, ?)",
+                nextId++, tenant, tenant, openShiftStart);
+
+        for (int i = 0; i < orders; i++) {
+            Timestamp createdAt = Timestamp.valueOf(now.minusSeconds(orders - i));
+            long orderId = nextId++;
+            jdbcTemplate.update("INSERT INTO orders (id, total_amount, created_at, branch_id, cashier_id, customer_id, payment_type, status) "
+                    + "VALUES (?, 30.0, ?, ?, ?, ?, 'CASH', 'COMPLETED')",
+                    orderId, createdAt, tenant, tenant, tenant);
+            for (int line = 0; line < 3; line++) {
+                jdbcTemplate.update("INSERT INTO order_item (id, quantity, price, total_price, order_id, product_id) "
+                        + "VALUES (?, 1, 10.0, 10.0, ?, ?)",
+                        nextId++, orderId, firstProduct + (i * 3L + line) % products);
+            }
+
+            long shiftId = nextId++;
+            Timestamp shiftStart = Timestamp.valueOf(now.minusDays(i + 2L));
+            jdbcTemplate.update("INSERT INTO shift_report (id, cashier_id, branch_id, shift_start, shift_end, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)",
+                    shiftId, tenant, tenant, shiftStart, Timestamp.valueOf(now.minusDays(i + 2L).plusHours(8)), shiftStart);
+            if (i % 2 == 0) {
+                jdbcTemplate.update("INSERT INTO refund (id, order_id, reason, amount, shift_report_id, cashier_id, branch_id, payment_type, created_at) "
+                        + "VALUES (?, ?, 'Damaged', 10.0, ?, ?, ?, 'CASH', ?)",
+                        nextId++, orderId, shiftId, tenant, tenant, createdAt);
+            }
+        }
+    }
+}
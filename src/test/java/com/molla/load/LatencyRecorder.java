@@ -0,0 +1,51 @@
+package com.molla.load;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of one endpoint over a load run, kept in full so percentiles are exact.
+ * A run of a few minutes records at most a few million samples, which fits comfortably.
+ */
+class LatencyRecorder {
+
+    private long[] samples = new long[4_096];
+    private int count;
+    private final LongAdder errors = new LongAdder();
+
+    synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    void error() {
+        errors.increment();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    synchronized Summary summarize(long elapsedNanos) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        double seconds = elapsedNanos / 1e9;
+        return new Summary(count, errors(), count / seconds,
+                percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99),
+                count == 0 ? 0 : sorted[count - 1] / 1e6);
+    }
+
+    // Nearest-rank percentile
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    record Summary(int requests, long errors, double throughput, double p50Millis, double p99Millis, double maxMillis) {
+    }
+}
@@ -0,0 +1,354 @@
+package com.molla.load;
+
+import com.molla.domain.PaymentType;
+import com.molla.util.CustomerSearchKeys;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Writes a synthetic chain into an empty schema: stores with branches, a manager and cashiers
+ * per branch, a catalogue and stock per store, registered customers, and months of closed
+ * shifts with their orders and refunds, plus an open shift per cashier for today.
+ * <p>
+ * Rows are inserted through JDBC batches with explicit ids, so the same seed and sizes always
+ * produce the same rows; timestamps are laid out relative to the day the generator runs.
+ * Customer summaries are written to match the generated orders, and the id sequences are
+ * moved past the generated ids so rows created afterwards through the API do not collide.
+ */
+public class PosDatasetGenerator {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final PaymentType[] PAYMENT_TYPES = PaymentType.values();
+    private static final String[] FIRST_NAMES = {"Asha", "Ben", "Chen", "Divya", "Emeka", "Farah", "Goran", "Hana",
+            "Ivan", "Jia", "Kofi", "Lena", "Mateo", "Nadia", "Omar", "Priya", "Quinn", "Rosa", "Sami", "Tariq"};
+    private static final String[] LAST_NAMES = {"Okafor", "Silva", "Kim", "Patel", "Nowak", "Haddad", "Ivanova",
+            "Mensah", "Garcia", "Tanaka", "Rossi", "Khan", "Larsen", "Moreau", "Adeyemi", "Novak"};
+    private static final String[] PRODUCT_WORDS = {"Rice", "Milk", "Bread", "Coffee", "Tea", "Soap", "Juice",
+            "Pasta", "Flour", "Sugar", "Butter", "Cheese", "Yogurt", "Honey", "Oats", "Lentils", "Noodles", "Salt"};
+    private static final String[] WORKING_DAYS = {"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PosDatasetGenerator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Sizes of the generated chain; every count is per parent (branches per store, and so on). */
+    public record Spec(long seed, int stores, int branchesPerStore, int cashiersPerBranch, int productsPerStore,
+                       int customersPerStore, int days, int ordersPerCashierPerDay, double refundRate) {
+
+        public static Spec defaults() {
+            return new Spec(20240601L, 2, 3, 4, 500, 1_000, 90, 12, 0.02);
+        }
+
+        // Each size can be overridden with -Dload.<name>, e.g. -Dload.stores=10 -Dload.days=180
+        public static Spec fromSystemProperties() {
+            Spec d = defaults();
+            return new Spec(
+                    Long.getLong("load.seed", d.seed()),
+                    Integer.getInteger("load.stores", d.stores()),
+                    Integer.getInteger("load.branches-per-store", d.branchesPerStore()),
+                    Integer.getInteger("load.cashiers-per-branch", d.cashiersPerBranch()),
+                    Integer.getInteger("load.products-per-store", d.productsPerStore()),
+                    Integer.getInteger("load.customers-per-store", d.customersPerStore()),
+                    Integer.getInteger("load.days", d.days()),
+                    Integer.getInteger("load.orders-per-cashier-per-day", d.ordersPerCashierPerDay()),
+                    Double.parseDouble(System.getProperty("load.refund-rate", String.valueOf(d.refundRate()))));
+        }
+    }
+
+    public record StoreFixture(long id, List<BranchFixture> branches, List<ProductFixture> products,
+                               List<CustomerFixture> customers) {
+    }
+
+    public record BranchFixture(long id, long storeId, List<Long> cashierIds) {
+    }
+
+    public record ProductFixture(long id, String sku, String name, double price) {
+    }
+
+    public record CustomerFixture(long id, String name, String phone) {
+    }
+
+    /** What was written, for picking realistic request parameters. */
+    public record Dataset(List<StoreFixture> stores, long orders, long orderItems, long refunds, long shifts) {
+    }
+
+    private Random random;
+    private long nextId;
+    private final List<Object[]> orderRows = new ArrayList<>();
+    private final List<Object[]> itemRows = new ArrayList<>();
+    private final List<Object[]> refundRows = new ArrayList<>();
+    private final List<Object[]> shiftRows = new ArrayList<>();
+    private final Map<Long, CustomerTotals> customerTotals = new HashMap<>();
+    private long orderCount;
+    private long itemCount;
+    private long refundCount;
+    private long shiftCount;
+
+    // Generators keep their id counter and pending batches, so use a new one per dataset
+    public Dataset generate(Spec spec) {
+        random = new Random(spec.seed());
+        nextId = 1_000;
+        LocalDateTime now = LocalDateTime.now();
+
+        List<StoreFixture> stores = new ArrayList<>();
+        for (int s = 0; s < spec.stores(); s++) {
+            stores.add(generateStore(spec, s, now));
+        }
+        flushSales(true);
+        writeCustomerSummaries(now);
+        advanceSequences();
+        return new Dataset(stores, orderCount, itemCount, refundCount, shiftCount);
+    }
+
+    private StoreFixture generateStore(Spec spec, int index, LocalDateTime now) {
+        long storeId = nextId++;
+        LocalDateTime opened = now.minusDays(spec.days() + 30L);
+        jdbcTemplate.update("INSERT INTO store (id, brand, description, store_type, store_status, created_at) "
+                + "VALUES (?, ?, ?, 'GROCERY', 1, ?)",
+                storeId, "Store " + index, "Synthetic store " + index, Timestamp.valueOf(opened));
+
+        List<Object[]> categories = new ArrayList<>();
+        long firstCategory = nextId;
+        for (int c = 0; c < PRODUCT_WORDS.length; c++) {
+            categories.add(new Object[]{nextId++, PRODUCT_WORDS[c], storeId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO category (id, name, store_id) VALUES (?, ?, ?)", categories);
+
+        List<ProductFixture> products = new ArrayList<>();
+        List<Object[]> productRows = new ArrayList<>();
+        for (int p = 0; p < spec.productsPerStore(); p++) {
+            int word = random.nextInt(PRODUCT_WORDS.length);
+            String name = PRODUCT_WORDS[word] + " " + (char) ('A' + random.nextInt(26)) + (p % 97);
+            String sku = String.format("%d%08d", storeId, p);
+            double price = Math.round((0.5 + random.nextInt(4_000) / 100.0) * 100) / 100.0;
+            ProductFixture product = new ProductFixture(nextId++, sku, name, price);
+            products.add(product);
+            productRows.add(new Object[]{product.id(), name, sku, Math.round(price * 120) / 100.0, price, price,
+                    "Brand " + random.nextInt(40), storeId, firstCategory + word, Timestamp.valueOf(opened)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO product (id, name, sku, mrp, selling_price, price, quantity, brand, "
+                + "store_id, category_id, created_at) VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?)", productRows, BATCH_SIZE,
+                PosDatasetGenerator::setAll);
+
+        List<CustomerFixture> customers = new ArrayList<>();
+        List<Object[]> customerRows = new ArrayList<>();
+        List<Object[]> tokenRows = new ArrayList<>();
+        for (int c = 0; c < spec.customersPerStore(); c++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String phone = String.format("+1 (%03d) %03d-%04d", 200 + index, random.nextInt(1_000), c);
+            String email = name.toLowerCase().replace(' ', '.') + c + "@store" + index + ".test";
+            CustomerFixture customer = new CustomerFixture(nextId++, name, phone);
+            customers.add(customer);
+            customerRows.add(new Object[]{customer.id(), name, email, phone, storeId, CustomerSearchKeys.phone(phone),
+                    CustomerSearchKeys.email(email), CustomerSearchKeys.name(name), Timestamp.valueOf(opened)});
+            for (String token : CustomerSearchKeys.nameTokens(name)) {
+                tokenRows.add(new Object[]{customer.id(), token});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO customer (id, name, email, phone, store_id, phone_key, email_key, name_key, "
+                + "created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", customerRows, BATCH_SIZE, PosDatasetGenerator::setAll);
+        jdbcTemplate.batchUpdate("INSERT INTO customer_name_token (customer_id, token) VALUES (?, ?)",
+                tokenRows, BATCH_SIZE, PosDatasetGenerator::setAll);
+
+        List<BranchFixture> branches = new ArrayList<>();
+        for (int b = 0; b < spec.branchesPerStore(); b++) {
+            branches.add(generateBranch(spec, storeId, index, b, products, customers, now));
+        }
+
+        // The first branch's manager doubles as the store admin
+        jdbcTemplate.update("UPDATE store SET store_admin_id = (SELECT manager_id FROM branch WHERE id = ?) WHERE id = ?",
+                branches.get(0).id(), storeId);
+        return new StoreFixture(storeId, branches, products, customers);
+    }
+
+    private BranchFixture generateBranch(Spec spec, long storeId, int storeIndex, int index,
+                                         List<ProductFixture> products, List<CustomerFixture> customers, LocalDateTime now) {
+        long branchId = nextId++;
+        jdbcTemplate.update("INSERT INTO branch (id, name, phone, address, email, open_time, close_time, store_id, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, '08:00:00', '20:00:00', ?, ?)",
+                branchId, "Branch " + storeIndex + "-" + index, "+1-555-" + branchId, index + " High Street",
+                "branch" + branchId + "@molla.test", storeId, Timestamp.valueOf(now.minusDays(spec.days() + 30L)));
+        List<Object[]> days = new ArrayList<>();
+        for (String day : WORKING_DAYS) {
+            days.add(new Object[]{branchId, day});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO branch_working_days (branch_id, working_days) VALUES (?, ?)", days);
+
+        long managerId = insertUser(storeId, branchId, "ROLE_BRANCH_MANAGER", "manager");
+        jdbcTemplate.update("UPDATE branch SET manager_id = ? WHERE id = ?", managerId, branchId);
+        List<Long> cashierIds = new ArrayList<>();
+        for (int c = 0; c < spec.cashiersPerBranch(); c++) {
+            cashierIds.add(insertUser(storeId, branchId, "ROLE_BRANCH_CASHIER", "cashier"));
+        }
+
+        // Every product is stocked deep enough that the load run never sells out
+        List<Object[]> stock = new ArrayList<>();
+        for (ProductFixture product : products) {
+            stock.add(new Object[]{nextId++, branchId, product.id(), 1_000_000, 10, Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO inventory (id, branch_id, product_id, quantity, reorder_level, last_updated) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", stock, BATCH_SIZE, PosDatasetGenerator::setAll);
+
+        LocalDate today = now.toLocalDate();
+        for (int day = spec.days(); day >= 1; day--) {
+            LocalDateTime start = today.minusDays(day).atTime(8, 0);
+            for (long cashierId : cashierIds) {
+                generateShift(spec, branchId, cashierId, start, start.plusHours(12), true, products, customers);
+            }
+        }
+        // Today's shifts are still open and run up to the moment the data was generated
+        for (long cashierId : cashierIds) {
+            generateShift(spec, branchId, cashierId, now.minusHours(8), now.minusMinutes(1), false, products, customers);
+        }
+        return new BranchFixture(branchId, storeId, cashierIds);
+    }
+
+    private long insertUser(long storeId, long branchId, String role, String kind) {
+        long id = nextId++;
+        String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        jdbcTemplate.update("INSERT INTO user (id, full_name, email, password, store_id, branch_id, phone, role, created_at, "
+                + "claims_version, active) VALUES (?, ?, ?, 'x', ?, ?, ?, ?, ?, 0, TRUE)",
+                id, name, kind + id + "@molla.test", storeId, branchId, "+1-555-" + id, role, Timestamp.valueOf(LocalDateTime.now()));
+        return id;
+    }
+
+    private void generateShift(Spec spec, long branchId, long cashierId, LocalDateTime start, LocalDateTime end,
+                               boolean closed, List<ProductFixture> products, List<CustomerFixture> customers) {
+        long shiftId = nextId++;
+        shiftCount++;
+        int orders = closed ? spec.ordersPerCashierPerDay() : Math.max(1, spec.ordersPerCashierPerDay() / 2);
+        orders = Math.max(1, orders + random.nextInt(orders + 1) - orders / 2);
+        long window = Math.max(1, Duration.between(start, end).getSeconds());
+
+        double sales = 0;
+        double refunds = 0;
+        List<Object[]> shiftRefunds = new ArrayList<>();
+        for (int o = 0; o < orders; o++) {
+            long orderId = nextId++;
+            LocalDateTime createdAt = start.plusSeconds(window * o / orders + random.nextInt((int) Math.max(1, window / orders)));
+            // A quarter of sales go to a registered customer; the rest are walk-ins
+            CustomerFixture customer = random.nextInt(4) == 0 ? customers.get(random.nextInt(customers.size())) : null;
+            PaymentType paymentType = PAYMENT_TYPES[random.nextInt(PAYMENT_TYPES.length)];
+
+            int lines = 1 + random.nextInt(5);
+            double total = 0;
+            double firstLine = 0;
+            for (int l = 0; l < lines; l++) {
+                // Skewed towards the front of the catalogue so a few products dominate sales
+                ProductFixture product = products.get((int) (products.size() * Math.pow(random.nextDouble(), 3)));
+                int quantity = 1 + random.nextInt(3);
+                double lineTotal = quantity * product.price();
+                itemRows.add(new Object[]{nextId++, quantity, product.price(), lineTotal, orderId, product.id()});
+                total += lineTotal;
+                if (l == 0) {
+                    firstLine = lineTotal;
+                }
+                if (customer != null) {
+                    customerTotals.computeIfAbsent(customer.id(), id -> new CustomerTotals())
+                            .products.merge(product.id(), quantity, Integer::sum);
+                }
+            }
+            itemCount += lines;
+            orderRows.add(new Object[]{orderId, total, Timestamp.valueOf(createdAt), branchId, cashierId,
+                    customer != null ? customer.id() : null, paymentType.name(), "COMPLETED"});
+            orderCount++;
+            sales += total;
+
+            if (customer != null) {
+                CustomerTotals totals = customerTotals.get(customer.id());
+                totals.spent += total;
+                totals.orders++;
+                if (totals.lastOrderAt == null || createdAt.isAfter(totals.lastOrderAt)) {
+                    totals.lastOrderAt = createdAt;
+                }
+            }
+            if (closed && random.nextDouble() < spec.refundRate()) {
+                shiftRefunds.add(new Object[]{nextId++, orderId, "Damaged", firstLine, shiftId, cashierId, branchId,
+                        paymentType.name(), Timestamp.valueOf(createdAt.plusMinutes(10))});
+                refunds += firstLine;
+                if (customer != null) {
+                    customerTotals.get(customer.id()).refunded += firstLine;
+                }
+            }
+        }
+
+        shiftRows.add(new Object[]{shiftId, cashierId, branchId, Timestamp.valueOf(start),
+                closed ? Timestamp.valueOf(end) : null, closed ? sales : null, closed ? refunds : null,
+                closed ? sales - refunds : null, closed ? orders : null, Timestamp.valueOf(start)});
+        refundRows.addAll(shiftRefunds);
+        refundCount += shiftRefunds.size();
+        flushSales(false);
+    }
+
+    // Parents before children so the foreign keys hold at every flush
+    private void flushSales(boolean force) {
+        if (!force && orderRows.size() < BATCH_SIZE) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO shift_report (id, cashier_id, branch_id, shift_start, shift_end, total_sales, "
+                + "total_refunds, net_sales, total_orders, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                shiftRows, BATCH_SIZE, PosDatasetGenerator::setAll);
+        jdbcTemplate.batchUpdate("INSERT INTO orders (id, total_amount, created_at, branch_id, cashier_id, customer_id, "
+                + "payment_type, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", orderRows, BATCH_SIZE, PosDatasetGenerator::setAll);
+        jdbcTemplate.batchUpdate("INSERT INTO order_item (id, quantity, price, total_price, order_id, product_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", itemRows, BATCH_SIZE, PosDatasetGenerator::setAll);
+        jdbcTemplate.batchUpdate("INSERT INTO refund (id, order_id, reason, amount, shift_report_id, cashier_id, branch_id, "
+                + "payment_type, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", refundRows, BATCH_SIZE, PosDatasetGenerator::setAll);
+        shiftRows.clear();
+        orderRows.clear();
+        itemRows.clear();
+        refundRows.clear();
+    }
+
+    private void writeCustomerSummaries(LocalDateTime now) {
+        List<Object[]> summaries = new ArrayList<>();
+        List<Object[]> stats = new ArrayList<>();
+        customerTotals.forEach((customerId, totals) -> {
+            summaries.add(new Object[]{customerId, totals.spent, totals.refunded, totals.orders,
+                    Timestamp.valueOf(totals.lastOrderAt), Timestamp.valueOf(now)});
+            totals.products.forEach((productId, quantity) ->
+                    stats.add(new Object[]{nextId++, customerId, productId, quantity}));
+        });
+        jdbcTemplate.batchUpdate("INSERT INTO customer_summary (customer_id, total_spent, refunded_amount, order_count, "
+                + "last_order_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)", summaries, BATCH_SIZE, PosDatasetGenerator::setAll);
+        jdbcTemplate.batchUpdate("INSERT INTO customer_product_stat (id, customer_id, product_id, quantity) VALUES (?, ?, ?, ?)",
+                stats, BATCH_SIZE, PosDatasetGenerator::setAll);
+    }
+
+    // Hibernate's pooled generators hand out ids just below the stored value, so leave a margin.
+    // Users are identity columns and are not created by the load mix, so they are left alone.
+    private void advanceSequences() {
+        long next = nextId + 1_000;
+        for (String table : List.of("store", "branch", "category", "product", "customer", "customer_product_stat",
+                "order", "order_item", "shift_report", "refund", "inventory")) {
+            jdbcTemplate.update("UPDATE " + table + "_seq SET next_val = ?", next);
+        }
+    }
+
+    private static void setAll(PreparedStatement ps, Object[] row) throws SQLException {
+        for (int i = 0; i < row.length; i++) {
+            ps.setObject(i + 1, row[i]);
+        }
+    }
+
+    private static final class CustomerTotals {
+        private double spent;
+        private double refunded;
+        private int orders;
+        private LocalDateTime lastOrderAt;
+        private final Map<Long, Integer> products = new HashMap<>();
+    }
+}
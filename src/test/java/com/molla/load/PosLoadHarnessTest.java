@@ -0,0 +1,253 @@
+package com.molla.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.molla.domain.OrderStatus;
+import com.molla.domain.PaymentType;
+import com.molla.load.PosDatasetGenerator.BranchFixture;
+import com.molla.load.PosDatasetGenerator.CustomerFixture;
+import com.molla.load.PosDatasetGenerator.Dataset;
+import com.molla.load.PosDatasetGenerator.ProductFixture;
+import com.molla.load.PosDatasetGenerator.Spec;
+import com.molla.load.PosDatasetGenerator.StoreFixture;
+import com.molla.payload.dto.OrderDto;
+import com.molla.payload.dto.OrderItemDto;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Generates a chain with {@link PosDatasetGenerator} into H2 in MySQL mode, then drives the real
+ * controllers with a till-like mix from several threads and logs p50/p99 latency and throughput
+ * per endpoint. Tagged {@code load}, so it only runs with {@code mvn -Pload test}.
+ * <p>
+ * Dataset sizes are set with {@code -Dload.*} (see {@link Spec#fromSystemProperties()}); the run
+ * itself with {@code -Dload.threads}, {@code -Dload.warmup-seconds} and {@code -Dload.duration-seconds}.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.flyway.enabled=true",
+        // Report listings are expected to be heavy here; budgets are the query budget test's job
+        "pos.sql-stats.budget-mode=off"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PosLoadHarnessTest {
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        // DatabaseConfig falls back to these when no MySQL variables are set
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:pos_load;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    private static final String AUTHORIZATION = "Bearer load-test";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ObjectMapper objectMapper;
+
+    private Dataset dataset;
+    private final List<Operation> mix = new ArrayList<>();
+    private int totalWeight;
+
+    // A weighted request type; build picks its parameters from the dataset
+    private record Operation(String name, int weight, RequestFactory build) {
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        RequestBuilder create(Random random) throws Exception;
+    }
+
+    @BeforeAll
+    void generateDataset() {
+        Spec spec = Spec.fromSystemProperties();
+        long started = System.nanoTime();
+        dataset = new PosDatasetGenerator(jdbcTemplate).generate(spec);
+        log.info("Generated {} in {} ms: {} orders, {} order items, {} refunds, {} shifts",
+                spec, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                dataset.orders(), dataset.orderItems(), dataset.refunds(), dataset.shifts());
+
+        // Roughly what a busy till does: mostly scanning and ringing up, with the occasional lookup
+        mix.add(new Operation("checkout", 25, this::checkout));
+        mix.add(new Operation("scan", 35, random -> {
+            StoreFixture store = pick(random, dataset.stores());
+            ProductFixture product = pick(random, store.products());
+            return get("/api/products/search/{storeId}/{keyword}", store.id(), product.sku())
+                    .header("Authorization", AUTHORIZATION);
+        }));
+        mix.add(new Operation("product-search", 10, random -> {
+            StoreFixture store = pick(random, dataset.stores());
+            String word = pick(random, store.products()).name().split(" ")[0];
+            return get("/api/products/search/{storeId}/{keyword}", store.id(), word)
+                    .header("Authorization", AUTHORIZATION);
+        }));
+        mix.add(new Operation("customer-search", 10, random -> {
+            StoreFixture store = pick(random, dataset.stores());
+            CustomerFixture customer = pick(random, store.customers());
+            // Cashiers type the start of a phone number or a name
+            String query = random.nextBoolean()
+                    ? customer.phone().replaceAll("\\D", "").substring(0, 7)
+                    : customer.name().split(" ")[random.nextInt(2)];
+            return get("/api/customers/search").param("q", query).param("storeId", String.valueOf(store.id()));
+        }));
+        mix.add(new Operation("shift-progress", 10, random -> {
+            BranchFixture branch = pickBranch(random);
+            return get("/api/shift-reports/current").param("cashierId", String.valueOf(pick(random, branch.cashierIds())));
+        }));
+        mix.add(new Operation("today-orders", 5, random ->
+                get("/api/orders/today/branch/{id}", pickBranch(random).id())));
+        mix.add(new Operation("branch-shift-reports", 5, random ->
+                get("/api/shift-reports/branch/{branchId}", pickBranch(random).id())));
+        totalWeight = mix.stream().mapToInt(Operation::weight).sum();
+    }
+
+    @Test
+    void runMixedTillLoad() throws Exception {
+        int threads = Integer.getInteger("load.threads", 8);
+        long seed = Long.getLong("load.seed", Spec.defaults().seed());
+
+        run(threads, seed, TimeUnit.SECONDS.toNanos(Integer.getInteger("load.warmup-seconds", 10)));
+        long duration = TimeUnit.SECONDS.toNanos(Integer.getInteger("load.duration-seconds", 30));
+        Map<String, LatencyRecorder> recorders = run(threads, seed + 1, duration);
+
+        StringBuilder report = new StringBuilder(String.format("%n%-22s %9s %7s %10s %9s %9s %9s",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms"));
+        long requests = 0;
+        long errors = 0;
+        for (Map.Entry<String, LatencyRecorder> entry : recorders.entrySet()) {
+            LatencyRecorder.Summary summary = entry.getValue().summarize(duration);
+            report.append(String.format("%n%-22s %9d %7d %10.1f %9.2f %9.2f %9.2f", entry.getKey(), summary.requests(),
+                    summary.errors(), summary.throughput(), summary.p50Millis(), summary.p99Millis(), summary.maxMillis()));
+            requests += summary.requests();
+            errors += summary.errors();
+            assertThat(summary.requests()).as("no successful %s requests", entry.getKey()).isPositive();
+        }
+        report.append(String.format("%n%-22s %9d %7d %10.1f", "total", requests, errors, requests / (duration / 1e9)));
+        log.info("Load run with {} threads for {} s:{}", threads, TimeUnit.NANOSECONDS.toSeconds(duration), report);
+
+        double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+        assertThat((double) errors / Math.max(1, requests + errors)).isLessThanOrEqualTo(maxErrorRate);
+    }
+
+    private Map<String, LatencyRecorder> run(int threads, long seed, long durationNanos) throws Exception {
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        mix.forEach(operation -> recorders.put(operation.name(), new LatencyRecorder()));
+        LongAdder failures = new LongAdder();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long deadline = System.nanoTime() + durationNanos;
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Random random = new Random(seed * 31 + t);
+                workers.add(executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        Operation operation = next(random);
+                        LatencyRecorder recorder = recorders.get(operation.name());
+                        long started = System.nanoTime();
+                        try {
+                            MockHttpServletResponse response = mockMvc.perform(operation.build().create(random))
+                                    .andReturn().getResponse();
+                            if (response.getStatus() >= 200 && response.getStatus() < 300) {
+                                recorder.record(System.nanoTime() - started);
+                            } else {
+                                recorder.error();
+                                // Only the first few are worth reading; the rest repeat them
+                                failures.increment();
+                                if (failures.sum() <= 5) {
+                                    log.warn("{} answered {}: {}", operation.name(), response.getStatus(),
+                                            response.getContentAsString());
+                                }
+                            }
+                        } catch (Exception e) {
+                            recorder.error();
+                            failures.increment();
+                            if (failures.sum() <= 5) {
+                                log.warn("{} failed", operation.name(), e);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return recorders;
+    }
+
+    private RequestBuilder checkout(Random random) throws Exception {
+        BranchFixture branch = pickBranch(random);
+        StoreFixture store = dataset.stores().stream().filter(s -> s.id() == branch.storeId()).findFirst().orElseThrow();
+
+        List<OrderItemDto> items = new ArrayList<>();
+        int lines = 1 + random.nextInt(5);
+        for (int i = 0; i < lines; i++) {
+            ProductFixture product = store.products().get((int) (store.products().size() * Math.pow(random.nextDouble(), 3)));
+            items.add(OrderItemDto.builder().productId(product.id()).quantity(1 + random.nextInt(3)).build());
+        }
+        OrderDto order = OrderDto.builder()
+                .branchId(branch.id())
+                .cashierId(pick(random, branch.cashierIds()))
+                .customerId(random.nextInt(4) == 0 ? pick(random, store.customers()).id() : null)
+                .paymentType(PaymentType.values()[random.nextInt(PaymentType.values().length)])
+                .status(OrderStatus.COMPLETED)
+                .orderItems(items)
+                .build();
+        return post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsBytes(order));
+    }
+
+    private Operation next(Random random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Operation operation : mix) {
+            ticket -= operation.weight();
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Mix weights do not add up");
+    }
+
+    private BranchFixture pickBranch(Random random) {
+        return pick(random, pick(random, dataset.stores()).branches());
+    }
+
+    private static <T> T pick(Random random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,156 @@
+package com.molla.repository;
+
+import com.molla.model.User;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs each repository finder against the Flyway schema on H2, captures the SQL Hibernate
+ * generated and fails if H2's plan for it falls back to a full table scan. A finder added
+ * without a matching index in db/migration should be added here.
+ *
+ * Not covered: leading-wildcard and parameterised LIKE searches, and the from/to branch OR
+ * in StockTransferRepository, which MySQL serves with an index merge that H2 cannot plan.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query_plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.flyway.enabled=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.molla.repository.CapturingStatementInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class FinderQueryPlanTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(1);
+
+    @Autowired private DataSource dataSource;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private RefundRepository refundRepository;
+    @Autowired private InventoryRepository inventoryRepository;
+    @Autowired private InventoryMovementRepository inventoryMovementRepository;
+    @Autowired private InventorySnapshotRepository inventorySnapshotRepository;
+    @Autowired private LowStockAlertRepository lowStockAlertRepository;
+    @Autowired private ShiftReportRepository shiftReportRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private BranchRepository branchRepository;
+    @Autowired private StoreRepository storeRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private CustomerProductStatRepository customerProductStatRepository;
+
+    @TestFactory
+    Stream<DynamicTest> findersUseAnIndex() {
+        User cashier = new User();
+        cashier.setId(1L);
+
+        Map<String, Runnable> finders = new LinkedHashMap<>();
+        finders.put("OrderRepository.findByBranchId", () -> orderRepository.findByBranchId(1L));
+        finders.put("OrderRepository.findByCashierId", () -> orderRepository.findByCashierId(1L));
+        finders.put("OrderRepository.findByBranchIdAndCreatedAtBetween", () -> orderRepository.findByBranchIdAndCreatedAtBetween(1L, FROM, TO));
+        finders.put("OrderRepository.findByCashierAndCreatedAtBetween", () -> orderRepository.findByCashierAndCreatedAtBetween(cashier, FROM, TO));
+        finders.put("OrderRepository.findTop5ByBranchIdOrderByCreatedAtDesc", () -> orderRepository.findTop5ByBranchIdOrderByCreatedAtDesc(1L));
+        finders.put("OrderRepository.findByCustomerIdOrderByCreatedAtDescIdDesc", () -> orderRepository.findByCustomerIdOrderByCreatedAtDescIdDesc(1L, PageRequest.of(0, 20)));
+        finders.put("RefundRepository.findByCashierId", () -> refundRepository.findByCashierId(1L));
+        finders.put("RefundRepository.findByBranchId", () -> refundRepository.findByBranchId(1L));
+        finders.put("RefundRepository.findByShiftReportId", () -> refundRepository.findByShiftReportId(1L));
+        finders.put("RefundRepository.findByCashierAndCreatedAtBetween", () -> refundRepository.findByCashierAndCreatedAtBetween(cashier, FROM, TO));
+        finders.put("InventoryRepository.findByProductIdAndBranchId", () -> inventoryRepository.findByProductIdAndBranchId(1L, 1L));
+        finders.put("InventoryRepository.findIdByProductIdAndBranchId", () -> inventoryRepository.findIdByProductIdAndBranchId(1L, 1L));
+        finders.put("InventoryRepository.findByBranchId", () -> inventoryRepository.findByBranchId(1L));
+        finders.put("InventoryRepository.findStockLevelsByBranchIdAndProductIdIn", () -> inventoryRepository.findStockLevelsByBranchIdAndProductIdIn(1L, List.of(1L, 2L)));
+        finders.put("InventoryMovementRepository.findByInventoryIdOrderByIdDesc", () -> inventoryMovementRepository.findByInventoryIdOrderByIdDesc(1L, PageRequest.of(0, 20)));
+        finders.put("InventoryMovementRepository.findByInventoryIdAndIdGreaterThanOrderByIdAsc", () -> inventoryMovementRepository.findByInventoryIdAndIdGreaterThanOrderByIdAsc(1L, 0L));
+        finders.put("InventorySnapshotRepository.findTopByInventoryIdOrderByLastMovementIdDesc", () -> inventorySnapshotRepository.findTopByInventoryIdOrderByLastMovementIdDesc(1L));
+        finders.put("LowStockAlertRepository.findFirstByInventoryIdAndResolvedAtIsNull", () -> lowStockAlertRepository.findFirstByInventoryIdAndResolvedAtIsNull(1L));
+        finders.put("LowStockAlertRepository.findByBranchIdAndResolvedAtIsNullOrderByCreatedAtDesc", () -> lowStockAlertRepository.findByBranchIdAndResolvedAtIsNullOrderByCreatedAtDesc(1L));
+        finders.put("ShiftReportRepository.findByCashierId", () -> shiftReportRepository.findByCashierId(1L));
+        finders.put("ShiftReportRepository.findByBranchId", () -> shiftReportRepository.findByBranchId(1L));
+        finders.put("ShiftReportRepository.findTopByCashierAndShiftEndIsNullOrderByShiftStartDesc", () -> shiftReportRepository.findTopByCashierAndShiftEndIsNullOrderByShiftStartDesc(cashier));
+        finders.put("ShiftReportRepository.findByCashierAndShiftStartBetween", () -> shiftReportRepository.findByCashierAndShiftStartBetween(cashier, FROM, TO));
+        finders.put("ProductRepository.findByStoreId", () -> productRepository.findByStoreId(1L));
+        finders.put("ProductRepository.findBySku", () -> productRepository.findBySku("SKU-1"));
+        finders.put("CategoryRepository.findByStoreId", () -> categoryRepository.findByStoreId(1L));
+        finders.put("BranchRepository.findByStoreId", () -> branchRepository.findByStoreId(1L));
+        finders.put("StoreRepository.findByStoreAdminId", () -> storeRepository.findByStoreAdminId(1L));
+        finders.put("UserRepository.findByEmail", () -> userRepository.findByEmail("cashier@example.com"));
+        finders.put("UserRepository.findStoreEmployees", () -> userRepository.findStoreEmployees(1L, null, null, null, PageRequest.of(0, 20)));
+        finders.put("UserRepository.findBranchEmployees", () -> userRepository.findBranchEmployees(1L, null, null, PageRequest.of(0, 20)));
+        finders.put("CustomerRepository.findByStoreIdAndEmailKey", () -> customerRepository.findByStoreIdAndEmailKey(1L, "a@example.com", PageRequest.of(0, 20)));
+        finders.put("CustomerRepository.findByEmailKey", () -> customerRepository.findByEmailKey("a@example.com", PageRequest.of(0, 20)));
+        finders.put("CustomerProductStatRepository.findTop5ByCustomerIdOrderByQuantityDesc", () -> customerProductStatRepository.findTop5ByCustomerIdOrderByQuantityDesc(1L));
+
+        return finders.entrySet().stream().map(finder -> DynamicTest.dynamicTest(finder.getKey(), () -> {
+            CapturingStatementInspector.clear();
+            finder.getValue().run();
+
+            List<String> selects = CapturingStatementInspector.statements().stream()
+                    .filter(sql -> sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select"))
+                    .toList();
+            assertThat(selects).as("SQL captured for %s", finder.getKey()).isNotEmpty();
+            for (String sql : selects) {
+                String plan = explain(sql);
+                assertThat(plan.toLowerCase(Locale.ROOT))
+                        .as("plan for %s:%n%s", finder.getKey(), plan)
+                        .doesNotContain("tablescan");
+            }
+        }));
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            ParameterMetaData parameters = statement.getParameterMetaData();
+            for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                bindSample(statement, i, parameters.getParameterType(i));
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    // The plan does not depend on the values, only on their types
+    private static void bindSample(PreparedStatement statement, int index, int type) throws SQLException {
+        switch (type) {
+            case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT, Types.NUMERIC, Types.DECIMAL ->
+                    statement.setLong(index, 1L);
+            case Types.DOUBLE, Types.FLOAT, Types.REAL -> statement.setDouble(index, 1d);
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE, Types.DATE ->
+                    statement.setTimestamp(index, Timestamp.valueOf(FROM));
+            case Types.BOOLEAN, Types.BIT -> statement.setBoolean(index, true);
+            case Types.VARCHAR, Types.CHAR, Types.LONGVARCHAR -> statement.setString(index, "x");
+            default -> statement.setObject(index, null);
+        }
+    }
+}
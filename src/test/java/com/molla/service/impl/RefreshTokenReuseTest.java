@@ -0,0 +1,54 @@
+package com.molla.service.impl;
+
+import com.molla.domain.UserRole;
+import com.molla.exceptions.UserException;
+import com.molla.payload.dto.UserDto;
+import com.molla.payload.response.AuthResponse;
+import com.molla.service.AuthService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Refresh tokens are single use: the first refresh revokes the token it presents, so a copy
+ * replayed afterwards is turned away while the pair it was exchanged for keeps working.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.flyway.enabled=true"
+})
+class RefreshTokenReuseTest {
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:mem:refresh_reuse;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @Autowired private AuthService authService;
+
+    @Test
+    void aRefreshTokenCannotBeUsedTwice() throws UserException {
+        UserDto user = new UserDto();
+        user.setEmail("refresh@example.com");
+        user.setPassword("secret");
+        user.setFullName("Refresh User");
+        user.setRole(UserRole.ROLE_STORE_ADMIN);
+        String refreshToken = authService.signUp(user).getRefreshToken();
+
+        AuthResponse refreshed = authService.refresh(refreshToken);
+
+        assertThatThrownBy(() -> authService.refresh(refreshToken))
+                .isInstanceOf(UserException.class)
+                .hasMessageContaining("revoked");
+        assertThat(authService.refresh(refreshed.getRefreshToken()).getJwt()).isNotBlank();
+    }
+}
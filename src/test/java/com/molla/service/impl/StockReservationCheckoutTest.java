@@ -0,0 +1,169 @@
+package com.molla.service.impl;
+
+import com.molla.domain.OrderStatus;
+import com.molla.domain.PaymentType;
+import com.molla.payload.dto.OrderDto;
+import com.molla.payload.dto.OrderItemDto;
+import com.molla.payload.dto.StockReservationDto;
+import com.molla.service.OrderService;
+import com.molla.service.StockReservationService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checkout against reservations and the inventory row: the last unit sold from two tills at once,
+ * holds that lapse, and an order that rolls back after the cart was settled.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.flyway.enabled=true",
+        "pos.inventory.reservations.ttl-seconds=1"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StockReservationCheckoutTest {
+
+    private static final long STORE = 10_001L;
+    private static final long BRANCH = 10_001L;
+    private static final long CASHIER = 10_001L;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:mem:stock_checkout;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @Autowired private OrderService orderService;
+    @Autowired private StockReservationService stockReservationService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private long nextProduct = 20_000L;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO store (id, brand, store_status) VALUES (?, 'Checkout Store', 1)", STORE);
+        jdbcTemplate.update("INSERT INTO branch (id, name, store_id) VALUES (?, 'Checkout Branch', ?)", BRANCH, STORE);
+        jdbcTemplate.update("INSERT INTO user (id, full_name, email, password, store_id, branch_id, role, active) "
+                + "VALUES (?, 'Till', 'till@example.com', 'x', ?, ?, 'ROLE_BRANCH_CASHIER', TRUE)", CASHIER, STORE, BRANCH);
+        jdbcTemplate.update("INSERT INTO category (id, name, store_id) VALUES (?, 'General', ?)", STORE, STORE);
+    }
+
+    @Test
+    void twoTillsCannotBothSellTheLastUnit() throws Exception {
+        long product = stockedProduct(1);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService tills = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Boolean>> sales = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                sales.add(tills.submit(() -> {
+                    start.await();
+                    try {
+                        orderService.createOrder(order(null, product, 1));
+                        return true;
+                    } catch (Exception e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int sold = 0;
+            for (Future<Boolean> sale : sales) {
+                sold += sale.get() ? 1 : 0;
+            }
+            assertThat(sold).isEqualTo(1);
+        } finally {
+            tills.shutdownNow();
+        }
+        assertThat(quantityOf(product)).isZero();
+    }
+
+    @Test
+    void expiredHoldNoLongerBlocksCheckout() throws Exception {
+        long product = stockedProduct(1);
+        stockReservationService.reserve(StockReservationDto.builder()
+                .cartId("abandoned").branchId(BRANCH).productId(product).quantity(1).build());
+
+        assertThatThrownBy(() -> orderService.createOrder(order(null, product, 1)))
+                .hasMessageContaining("Insufficient stock");
+
+        Thread.sleep(1_100);
+        orderService.createOrder(order(null, product, 1));
+
+        assertThat(quantityOf(product)).isZero();
+        assertThat(stockReservationService.getCartReservations("abandoned")).isEmpty();
+    }
+
+    @Test
+    void rolledBackOrderKeepsTheCartsHolds() throws Exception {
+        long product = stockedProduct(3);
+        stockReservationService.reserve(StockReservationDto.builder()
+                .cartId("till-1").branchId(BRANCH).productId(product).quantity(2).build());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            try {
+                orderService.createOrder(order("till-1", product, 2));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            status.setRollbackOnly();
+        });
+
+        assertThat(quantityOf(product)).isEqualTo(3);
+        assertThat(stockReservationService.getCartReservations("till-1"))
+                .extracting(StockReservationDto::getQuantity)
+                .containsExactly(2);
+
+        orderService.createOrder(order("till-1", product, 2));
+
+        assertThat(quantityOf(product)).isEqualTo(1);
+        assertThat(stockReservationService.getCartReservations("till-1")).isEmpty();
+    }
+
+    private long stockedProduct(int quantity) {
+        long product = nextProduct++;
+        jdbcTemplate.update("INSERT INTO product (id, name, sku, selling_price, price, quantity, store_id, category_id) "
+                + "VALUES (?, ?, ?, 10.0, 10.0, 0, ?, ?)", product, "Item " + product, "SKU-" + product, STORE, STORE);
+        jdbcTemplate.update("INSERT INTO inventory (id, branch_id, product_id, quantity, reorder_level) VALUES (?, ?, ?, ?, 0)",
+                product, BRANCH, product, quantity);
+        return product;
+    }
+
+    private int quantityOf(long product) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM inventory WHERE product_id = ?", Integer.class, product);
+    }
+
+    private static OrderDto order(String cartId, long product, int quantity) {
+        return OrderDto.builder()
+                .cartId(cartId)
+                .branchId(BRANCH)
+                .cashierId(CASHIER)
+                .paymentType(PaymentType.CASH)
+                .status(OrderStatus.COMPLETED)
+                .orderItems(List.of(OrderItemDto.builder().productId(product).quantity(quantity).price(10.0).build()))
+                .build();
+    }
+}
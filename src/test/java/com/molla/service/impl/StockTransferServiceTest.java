@@ -0,0 +1,158 @@
+package com.molla.service.impl;
+
+import com.molla.configuration.PosPrincipal;
+import com.molla.domain.TransferStatus;
+import com.molla.payload.dto.StockTransferDto;
+import com.molla.payload.dto.StockTransferLineDto;
+import com.molla.service.StockTransferService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Transfers stay inside one store, and applying one is all or nothing: a single line the
+ * source cannot cover leaves every row, the movement log and the transfer as they were.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.flyway.enabled=true"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StockTransferServiceTest {
+
+    private static final long STORE = 30_001L;
+    private static final long OTHER_STORE = 30_002L;
+    private static final long SOURCE = 30_001L;
+    private static final long DESTINATION = 30_002L;
+    private static final long OTHER_STORE_BRANCH = 30_003L;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:mem:stock_transfer;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @Autowired private StockTransferService stockTransferService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private long nextId = 40_000L;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO store (id, brand, store_status) VALUES (?, 'Transfer Store', 1)", STORE);
+        jdbcTemplate.update("INSERT INTO store (id, brand, store_status) VALUES (?, 'Other Store', 1)", OTHER_STORE);
+        jdbcTemplate.update("INSERT INTO branch (id, name, store_id) VALUES (?, 'Warehouse', ?)", SOURCE, STORE);
+        jdbcTemplate.update("INSERT INTO branch (id, name, store_id) VALUES (?, 'High Street', ?)", DESTINATION, STORE);
+        jdbcTemplate.update("INSERT INTO branch (id, name, store_id) VALUES (?, 'Elsewhere', ?)", OTHER_STORE_BRANCH, OTHER_STORE);
+        jdbcTemplate.update("INSERT INTO category (id, name, store_id) VALUES (?, 'General', ?)", STORE, STORE);
+    }
+
+    @AfterEach
+    void clearPrincipal() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void oneShortLineRollsBackTheWholeTransfer() {
+        signInTo(STORE);
+        long covered = product();
+        long shortProduct = product();
+        long coveredSourceRow = stock(SOURCE, covered, 5);
+        long shortSourceRow = stock(SOURCE, shortProduct, 1);
+        long coveredDestinationRow = stock(DESTINATION, covered, 1);
+        StockTransferDto transfer = stockTransferService.createTransfer(transfer(DESTINATION, covered, 2, shortProduct, 3));
+
+        assertThatThrownBy(() -> stockTransferService.applyTransfer(transfer.getId()))
+                .hasMessageContaining("Insufficient stock");
+
+        assertThat(quantity(coveredSourceRow)).isEqualTo(5);
+        assertThat(quantity(shortSourceRow)).isEqualTo(1);
+        assertThat(quantity(coveredDestinationRow)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM inventory WHERE branch_id = ? AND product_id = ?", Integer.class,
+                DESTINATION, shortProduct)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM inventory_movement WHERE reference = ?", Integer.class,
+                "transfer:" + transfer.getId())).isZero();
+        assertThat(stockTransferService.getTransferById(transfer.getId()).getStatus()).isEqualTo(TransferStatus.DRAFT);
+    }
+
+    @Test
+    void branchesOfDifferentStoresCannotTransfer() {
+        signInTo(STORE);
+        long product = product();
+        stock(SOURCE, product, 5);
+
+        assertThatThrownBy(() -> stockTransferService.createTransfer(transfer(OTHER_STORE_BRANCH, product, 1)))
+                .hasMessageContaining("same store");
+    }
+
+    @Test
+    void anotherStoresStaffCannotTransfer() {
+        signInTo(OTHER_STORE);
+        long product = product();
+        stock(SOURCE, product, 5);
+
+        assertThatThrownBy(() -> stockTransferService.createTransfer(transfer(DESTINATION, product, 1)))
+                .hasMessageContaining("permission");
+    }
+
+    private static void signInTo(long storeId) {
+        PosPrincipal principal = new PosPrincipal(storeId, "manager@example.com", storeId, null, "ROLE_STORE_MANAGER", 0);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                principal, null, List.of(new SimpleGrantedAuthority(principal.role()))));
+    }
+
+    private long product() {
+        long product = nextId++;
+        jdbcTemplate.update("INSERT INTO product (id, name, sku, selling_price, price, quantity, store_id, category_id) "
+                + "VALUES (?, ?, ?, 10.0, 10.0, 0, ?, ?)", product, "Item " + product, "SKU-" + product, STORE, STORE);
+        return product;
+    }
+
+    private long stock(long branchId, long productId, int quantity) {
+        long row = nextId++;
+        jdbcTemplate.update("INSERT INTO inventory (id, branch_id, product_id, quantity, reorder_level) VALUES (?, ?, ?, ?, 0)",
+                row, branchId, productId, quantity);
+        return row;
+    }
+
+    private int quantity(long inventoryId) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM inventory WHERE id = ?", Integer.class, inventoryId);
+    }
+
+    private static StockTransferDto transfer(long toBranchId, long product, int quantity) {
+        return StockTransferDto.builder()
+                .fromBranchId(SOURCE)
+                .toBranchId(toBranchId)
+                .lines(List.of(StockTransferLineDto.builder().productId(product).quantity(quantity).build()))
+                .build();
+    }
+
+    private static StockTransferDto transfer(long toBranchId, long first, int firstQuantity, long second, int secondQuantity) {
+        return StockTransferDto.builder()
+                .fromBranchId(SOURCE)
+                .toBranchId(toBranchId)
+                .lines(List.of(
+                        StockTransferLineDto.builder().productId(first).quantity(firstQuantity).build(),
+                        StockTransferLineDto.builder().productId(second).quantity(secondQuantity).build()))
+                .build();
+    }
+}